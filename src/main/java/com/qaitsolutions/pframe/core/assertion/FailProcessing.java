@@ -33,7 +33,18 @@ public final class FailProcessing {
             return;
         }
 
-        Log.fail(message, e);
+        Log.fail(describe(message), e);
         throw new AssertionError(e);
     }
+
+    /**
+     * Message used to log a failed assertion, so assertions without a description can be logged as well.
+     * <p>
+     *
+     * @param message Description of the assertion, can be null.
+     * @return The description, or a default one if it is missing.
+     */
+    static String describe(String message) {
+        return message != null && !message.isEmpty() ? message : "Assertion failed";
+    }
 }
@@ -0,0 +1,75 @@
+package com.qaitsolutions.pframe.core.assertion;
+
+import com.qaitsolutions.pframe.core.config.Config;
+import com.qaitsolutions.pframe.core.exceptions.FrameworkException;
+import com.qaitsolutions.pframe.core.logging.Log;
+
+import java.util.Locale;
+
+/**
+ * Entity takes data from successful assertions and logs it according to -Dassertion.pass.mode:
+ * <ul>
+ *   <li> full - every passed assertion is logged with its message (default)
+ *   <li> counted - passed assertions are only counted, and one line with the count is logged per node
+ *   <li> off - passed assertions are not logged
+ * </ul>
+ * Failed assertions are not affected, see {@link FailProcessing}.
+ * <p>
+ *
+ * @author Iulian Andrei (iulian.andrei@qaitsolutions.com)
+ * @since 1.1
+ */
+public final class PassProcessing {
+
+    private static final String DEFAULT_MESSAGE = "Assertion passed";
+
+    private static final Mode MODE = Mode.from(Config.VALUES.getAssertionPassMode());
+    private static final ThreadLocal<long[]> PASSED = ThreadLocal.withInitial(() -> new long[1]);
+
+    /**
+     * Logs or counts a passed assertion.
+     * <p>
+     *
+     * @param message Description of the assertion, can be null.
+     */
+    public static void process(String message) {
+        switch (MODE) {
+            case FULL -> Log.pass(message != null && !message.isEmpty() ? message : DEFAULT_MESSAGE);
+            case COUNTED -> PASSED.get()[0]++;
+            default -> {
+            }
+        }
+    }
+
+    /**
+     * Logs the number of assertions passed on the calling thread since the previous call, if any, and resets
+     * it. Called by the listener at the end of each node.
+     */
+    public static void flush() {
+        if (MODE != Mode.COUNTED) return;
+
+        var passed = PASSED.get();
+        if (passed[0] == 0) return;
+
+        var count = passed[0];
+        passed[0] = 0;
+        Log.pass(String.format(Locale.ROOT, "%,d assertion%s passed", count, count == 1 ? "" : "s"));
+    }
+
+    private enum Mode {
+        FULL, COUNTED, OFF;
+
+        /**
+         * @param value Name of the mode, case-insensitive.
+         * @return {@link Mode} of the name.
+         * @throws FrameworkException if the name is unknown.
+         */
+        private static Mode from(String value) {
+            for (var mode : values()) {
+                if (mode.name().equalsIgnoreCase(value)) return mode;
+            }
+
+            throw new FrameworkException(String.format("Unknown assertion pass mode [%s]", value));
+        }
+    }
+}
@@ -29,7 +29,7 @@ public final class SoftAssertions {
     public void assertAll() {
         if (tracker.containsErrors()) {
             var errors = tracker.getErrors();
-            errors.forEach(e -> Log.fail(e.getDescription(), e.getException()));
+            errors.forEach(e -> Log.fail(FailProcessing.describe(e.getDescription()), e.getException()));
 
             tracker.clear();
             throw new AssertionError();
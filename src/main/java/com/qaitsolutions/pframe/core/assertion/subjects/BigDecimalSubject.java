@@ -3,7 +3,7 @@ package com.qaitsolutions.pframe.core.assertion.subjects;
 import com.google.common.truth.Truth;
 import com.qaitsolutions.pframe.core.assertion.ErrorTracker;
 import com.qaitsolutions.pframe.core.assertion.FailProcessing;
-import com.qaitsolutions.pframe.core.logging.Log;
+import com.qaitsolutions.pframe.core.assertion.PassProcessing;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
 import java.math.BigDecimal;
@@ -54,7 +54,7 @@ public final class BigDecimalSubject extends ComparableSubject<BigDecimal> {
     public void isEqualToIgnoringScale(BigDecimal expected) {
         try {
             Truth.assertThat(actual).isEqualToIgnoringScale(expected);
-            Log.pass(message);
+            PassProcessing.process(message);
         } catch (AssertionError e) {
             FailProcessing.process(message, tracker, e);
         }
@@ -70,7 +70,7 @@ public final class BigDecimalSubject extends ComparableSubject<BigDecimal> {
     public void isEqualToIgnoringScale(String expected) {
         try {
             Truth.assertThat(actual).isEqualToIgnoringScale(expected);
-            Log.pass(message);
+            PassProcessing.process(message);
         } catch (AssertionError e) {
             FailProcessing.process(message, tracker, e);
         }
@@ -86,7 +86,7 @@ public final class BigDecimalSubject extends ComparableSubject<BigDecimal> {
     public void isEqualToIgnoringScale(long expected) {
         try {
             Truth.assertThat(actual).isEqualToIgnoringScale(expected);
-            Log.pass(message);
+            PassProcessing.process(message);
         } catch (AssertionError e) {
             FailProcessing.process(message, tracker, e);
         }
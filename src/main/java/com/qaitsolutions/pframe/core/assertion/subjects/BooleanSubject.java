@@ -3,7 +3,7 @@ package com.qaitsolutions.pframe.core.assertion.subjects;
 import com.google.common.truth.Truth;
 import com.qaitsolutions.pframe.core.assertion.ErrorTracker;
 import com.qaitsolutions.pframe.core.assertion.FailProcessing;
-import com.qaitsolutions.pframe.core.logging.Log;
+import com.qaitsolutions.pframe.core.assertion.PassProcessing;
 
 /**
  * Wrapper over {@link com.google.common.truth.BooleanSubject}.
@@ -47,7 +47,7 @@ public final class BooleanSubject extends Subject {
     public void isTrue() {
         try {
             Truth.assertThat(actual).isTrue();
-            Log.pass(message);
+            PassProcessing.process(message);
         } catch (AssertionError e) {
             FailProcessing.process(message, tracker, e);
         }
@@ -59,7 +59,7 @@ public final class BooleanSubject extends Subject {
     public void isFalse() {
         try {
             Truth.assertThat(actual).isFalse();
-            Log.pass(message);
+            PassProcessing.process(message);
         } catch (AssertionError e) {
             FailProcessing.process(message, tracker, e);
         }
@@ -4,7 +4,7 @@ import com.google.common.collect.Range;
 import com.google.common.truth.Truth;
 import com.qaitsolutions.pframe.core.assertion.ErrorTracker;
 import com.qaitsolutions.pframe.core.assertion.FailProcessing;
-import com.qaitsolutions.pframe.core.logging.Log;
+import com.qaitsolutions.pframe.core.assertion.PassProcessing;
 
 /**
  * Wrapper over {@link com.google.common.truth.ComparableSubject}.
@@ -52,7 +52,7 @@ public class ComparableSubject<T extends Comparable> extends Subject {
     public final void isIn(Range<T> range) {
         try {
             Truth.assertThat(actual).isIn(range);
-            Log.pass(message);
+            PassProcessing.process(message);
         } catch (AssertionError e) {
             FailProcessing.process(message, tracker, e);
         }
@@ -68,7 +68,7 @@ public class ComparableSubject<T extends Comparable> extends Subject {
     public final void isNotIn(Range<T> range) {
         try {
             Truth.assertThat(actual).isNotIn(range);
-            Log.pass(message);
+            PassProcessing.process(message);
         } catch (AssertionError e) {
             FailProcessing.process(message, tracker, e);
         }
@@ -84,7 +84,7 @@ public class ComparableSubject<T extends Comparable> extends Subject {
     public void isEquivalentAccordingToCompareTo(T expected) {
         try {
             Truth.assertThat(actual).isEquivalentAccordingToCompareTo(expected);
-            Log.pass(message);
+            PassProcessing.process(message);
         } catch (AssertionError e) {
             FailProcessing.process(message, tracker, e);
         }
@@ -100,7 +100,7 @@ public class ComparableSubject<T extends Comparable> extends Subject {
     public final void isGreaterThan(T other) {
         try {
             Truth.assertThat(actual).isGreaterThan(other);
-            Log.pass(message);
+            PassProcessing.process(message);
         } catch (AssertionError e) {
             FailProcessing.process(message, tracker, e);
         }
@@ -116,7 +116,7 @@ public class ComparableSubject<T extends Comparable> extends Subject {
     public final void isLessThan(T other) {
         try {
             Truth.assertThat(actual).isLessThan(other);
-            Log.pass(message);
+            PassProcessing.process(message);
         } catch (AssertionError e) {
             FailProcessing.process(message, tracker, e);
         }
@@ -132,7 +132,7 @@ public class ComparableSubject<T extends Comparable> extends Subject {
     public final void isAtMost(T other) {
         try {
             Truth.assertThat(actual).isAtMost(other);
-            Log.pass(message);
+            PassProcessing.process(message);
         } catch (AssertionError e) {
             FailProcessing.process(message, tracker, e);
         }
@@ -148,7 +148,7 @@ public class ComparableSubject<T extends Comparable> extends Subject {
     public final void isAtLeast(T other) {
         try {
             Truth.assertThat(actual).isAtLeast(other);
-            Log.pass(message);
+            PassProcessing.process(message);
         } catch (AssertionError e) {
             FailProcessing.process(message, tracker, e);
         }
@@ -3,7 +3,7 @@ package com.qaitsolutions.pframe.core.assertion.subjects;
 import com.google.common.truth.Truth;
 import com.qaitsolutions.pframe.core.assertion.ErrorTracker;
 import com.qaitsolutions.pframe.core.assertion.FailProcessing;
-import com.qaitsolutions.pframe.core.logging.Log;
+import com.qaitsolutions.pframe.core.assertion.PassProcessing;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
 /**
@@ -66,7 +66,7 @@ public final class DoubleSubject extends ComparableSubject<Double> {
     public void isZero() {
         try {
             Truth.assertThat(actual).isZero();
-            Log.pass(message);
+            PassProcessing.process(message);
         } catch (AssertionError e) {
             FailProcessing.process(message, tracker, e);
         }
@@ -79,7 +79,7 @@ public final class DoubleSubject extends ComparableSubject<Double> {
     public void isNonZero() {
         try {
             Truth.assertThat(actual).isNonZero();
-            Log.pass(message);
+            PassProcessing.process(message);
         } catch (AssertionError e) {
             FailProcessing.process(message, tracker, e);
         }
@@ -92,7 +92,7 @@ public final class DoubleSubject extends ComparableSubject<Double> {
     public void isPositiveInfinity() {
         try {
             Truth.assertThat(actual).isPositiveInfinity();
-            Log.pass(message);
+            PassProcessing.process(message);
         } catch (AssertionError e) {
             FailProcessing.process(message, tracker, e);
         }
@@ -105,7 +105,7 @@ public final class DoubleSubject extends ComparableSubject<Double> {
     public void isNegativeInfinity() {
         try {
             Truth.assertThat(actual).isNegativeInfinity();
-            Log.pass(message);
+            PassProcessing.process(message);
         } catch (AssertionError e) {
             FailProcessing.process(message, tracker, e);
         }
@@ -118,7 +118,7 @@ public final class DoubleSubject extends ComparableSubject<Double> {
     public void isNaN() {
         try {
             Truth.assertThat(actual).isNaN();
-            Log.pass(message);
+            PassProcessing.process(message);
         } catch (AssertionError e) {
             FailProcessing.process(message, tracker, e);
         }
@@ -130,7 +130,7 @@ public final class DoubleSubject extends ComparableSubject<Double> {
     public void isFinite() {
         try {
             Truth.assertThat(actual).isFinite();
-            Log.pass(message);
+            PassProcessing.process(message);
         } catch (AssertionError e) {
             FailProcessing.process(message, tracker, e);
         }
@@ -143,7 +143,7 @@ public final class DoubleSubject extends ComparableSubject<Double> {
     public void isNotNaN() {
         try {
             Truth.assertThat(actual).isNotNaN();
-            Log.pass(message);
+            PassProcessing.process(message);
         } catch (AssertionError e) {
             FailProcessing.process(message, tracker, e);
         }
@@ -159,7 +159,7 @@ public final class DoubleSubject extends ComparableSubject<Double> {
     public void isGreaterThan(int other) {
         try {
             Truth.assertThat(actual).isGreaterThan(other);
-            Log.pass(message);
+            PassProcessing.process(message);
         } catch (AssertionError e) {
             FailProcessing.process(message, tracker, e);
         }
@@ -175,7 +175,7 @@ public final class DoubleSubject extends ComparableSubject<Double> {
     public void isLessThan(int other) {
         try {
             Truth.assertThat(actual).isLessThan(other);
-            Log.pass(message);
+            PassProcessing.process(message);
         } catch (AssertionError e) {
             FailProcessing.process(message, tracker, e);
         }
@@ -191,7 +191,7 @@ public final class DoubleSubject extends ComparableSubject<Double> {
     public void isAtMost(int other) {
         try {
             Truth.assertThat(actual).isAtMost(other);
-            Log.pass(message);
+            PassProcessing.process(message);
         } catch (AssertionError e) {
             FailProcessing.process(message, tracker, e);
         }
@@ -207,7 +207,7 @@ public final class DoubleSubject extends ComparableSubject<Double> {
     public void isAtLeast(int other) {
         try {
             Truth.assertThat(actual).isAtLeast(other);
-            Log.pass(message);
+            PassProcessing.process(message);
         } catch (AssertionError e) {
             FailProcessing.process(message, tracker, e);
         }
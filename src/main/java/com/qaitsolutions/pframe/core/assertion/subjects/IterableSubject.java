@@ -3,7 +3,7 @@ package com.qaitsolutions.pframe.core.assertion.subjects;
 import com.google.common.truth.Truth;
 import com.qaitsolutions.pframe.core.assertion.ErrorTracker;
 import com.qaitsolutions.pframe.core.assertion.FailProcessing;
-import com.qaitsolutions.pframe.core.logging.Log;
+import com.qaitsolutions.pframe.core.assertion.PassProcessing;
 
 import java.util.Comparator;
 
@@ -58,7 +58,7 @@ public final class IterableSubject extends Subject {
     public void isEmpty() {
         try {
             Truth.assertThat(actual).isEmpty();
-            Log.pass(message);
+            PassProcessing.process(message);
         } catch (AssertionError e) {
             FailProcessing.process(message, tracker, e);
         }
@@ -70,7 +70,7 @@ public final class IterableSubject extends Subject {
     public void isNotEmpty() {
         try {
             Truth.assertThat(actual).isNotEmpty();
-            Log.pass(message);
+            PassProcessing.process(message);
         } catch (AssertionError e) {
             FailProcessing.process(message, tracker, e);
         }
@@ -86,7 +86,7 @@ public final class IterableSubject extends Subject {
     public void hasSize(int expectedSize) {
         try {
             Truth.assertThat(actual).hasSize(expectedSize);
-            Log.pass(message);
+            PassProcessing.process(message);
         } catch (AssertionError e) {
             FailProcessing.process(message, tracker, e);
         }
@@ -102,7 +102,7 @@ public final class IterableSubject extends Subject {
     public void contains(Object element) {
         try {
             Truth.assertThat(actual).contains(element);
-            Log.pass(message);
+            PassProcessing.process(message);
         } catch (AssertionError e) {
             FailProcessing.process(message, tracker, e);
         }
@@ -118,7 +118,7 @@ public final class IterableSubject extends Subject {
     public void doesNotContain(Object element) {
         try {
             Truth.assertThat(actual).doesNotContain(element);
-            Log.pass(message);
+            PassProcessing.process(message);
         } catch (AssertionError e) {
             FailProcessing.process(message, tracker, e);
         }
@@ -131,7 +131,7 @@ public final class IterableSubject extends Subject {
     public void containsNoDuplicates() {
         try {
             Truth.assertThat(actual).containsNoDuplicates();
-            Log.pass(message);
+            PassProcessing.process(message);
         } catch (AssertionError e) {
             FailProcessing.process(message, tracker, e);
         }
@@ -149,7 +149,7 @@ public final class IterableSubject extends Subject {
     public void containsAnyOf(Object first, Object second, Object... rest) {
         try {
             Truth.assertThat(actual).containsAnyOf(first, second, rest);
-            Log.pass(message);
+            PassProcessing.process(message);
         } catch (AssertionError e) {
             FailProcessing.process(message, tracker, e);
         }
@@ -165,7 +165,7 @@ public final class IterableSubject extends Subject {
     public void containsAnyIn(Iterable<?> expected) {
         try {
             Truth.assertThat(actual).containsAnyIn(expected);
-            Log.pass(message);
+            PassProcessing.process(message);
         } catch (AssertionError e) {
             FailProcessing.process(message, tracker, e);
         }
@@ -181,7 +181,7 @@ public final class IterableSubject extends Subject {
     public void containsAnyIn(Object[] expected) {
         try {
             Truth.assertThat(actual).containsAnyIn(expected);
-            Log.pass(message);
+            PassProcessing.process(message);
         } catch (AssertionError e) {
             FailProcessing.process(message, tracker, e);
         }
@@ -199,7 +199,7 @@ public final class IterableSubject extends Subject {
     public void containsAtLeast(Object firstExpected, Object secondExpected, Object... restOfExpected) {
         try {
             Truth.assertThat(actual).containsAtLeast(firstExpected, secondExpected, restOfExpected);
-            Log.pass(message);
+            PassProcessing.process(message);
         } catch (AssertionError e) {
             FailProcessing.process(message, tracker, e);
         }
@@ -215,7 +215,7 @@ public final class IterableSubject extends Subject {
     public void containsAtLeastElementsIn(Iterable<?> expectedIterable) {
         try {
             Truth.assertThat(actual).containsAtLeastElementsIn(expectedIterable);
-            Log.pass(message);
+            PassProcessing.process(message);
         } catch (AssertionError e) {
             FailProcessing.process(message, tracker, e);
         }
@@ -231,7 +231,7 @@ public final class IterableSubject extends Subject {
     public void containsAtLeastElementsIn(Object[] expected) {
         try {
             Truth.assertThat(actual).containsAtLeastElementsIn(expected);
-            Log.pass(message);
+            PassProcessing.process(message);
         } catch (AssertionError e) {
             FailProcessing.process(message, tracker, e);
         }
@@ -247,7 +247,7 @@ public final class IterableSubject extends Subject {
     public void containsExactly(Object... varargs) {
         try {
             Truth.assertThat(actual).containsExactly(varargs);
-            Log.pass(message);
+            PassProcessing.process(message);
         } catch (AssertionError e) {
             FailProcessing.process(message, tracker, e);
         }
@@ -263,7 +263,7 @@ public final class IterableSubject extends Subject {
     public void containsExactlyElementsIn(Iterable<?> expected) {
         try {
             Truth.assertThat(actual).containsExactlyElementsIn(expected);
-            Log.pass(message);
+            PassProcessing.process(message);
         } catch (AssertionError e) {
             FailProcessing.process(message, tracker, e);
         }
@@ -279,7 +279,7 @@ public final class IterableSubject extends Subject {
     public void containsExactlyElementsIn(Object[] expected) {
         try {
             Truth.assertThat(actual).containsExactlyElementsIn(expected);
-            Log.pass(message);
+            PassProcessing.process(message);
         } catch (AssertionError e) {
             FailProcessing.process(message, tracker, e);
         }
@@ -297,7 +297,7 @@ public final class IterableSubject extends Subject {
     public void containsNoneOf(Object firstExcluded, Object secondExcluded, Object... restOfExcluded) {
         try {
             Truth.assertThat(actual).containsNoneOf(firstExcluded, secondExcluded, restOfExcluded);
-            Log.pass(message);
+            PassProcessing.process(message);
         } catch (AssertionError e) {
             FailProcessing.process(message, tracker, e);
         }
@@ -313,7 +313,7 @@ public final class IterableSubject extends Subject {
     public void containsNoneIn(Iterable<?> excluded) {
         try {
             Truth.assertThat(actual).containsNoneIn(excluded);
-            Log.pass(message);
+            PassProcessing.process(message);
         } catch (AssertionError e) {
             FailProcessing.process(message, tracker, e);
         }
@@ -329,7 +329,7 @@ public final class IterableSubject extends Subject {
     public void containsNoneIn(Object[] excluded) {
         try {
             Truth.assertThat(actual).containsNoneIn(excluded);
-            Log.pass(message);
+            PassProcessing.process(message);
         } catch (AssertionError e) {
             FailProcessing.process(message, tracker, e);
         }
@@ -342,7 +342,7 @@ public final class IterableSubject extends Subject {
     public void isInStrictOrder() {
         try {
             Truth.assertThat(actual).isInStrictOrder();
-            Log.pass(message);
+            PassProcessing.process(message);
         } catch (AssertionError e) {
             FailProcessing.process(message, tracker, e);
         }
@@ -358,7 +358,7 @@ public final class IterableSubject extends Subject {
     public void isInStrictOrder(final Comparator<?> comparator) {
         try {
             Truth.assertThat(actual).isInStrictOrder(comparator);
-            Log.pass(message);
+            PassProcessing.process(message);
         } catch (AssertionError e) {
             FailProcessing.process(message, tracker, e);
         }
@@ -371,7 +371,7 @@ public final class IterableSubject extends Subject {
     public void isInOrder() {
         try {
             Truth.assertThat(actual).isInOrder();
-            Log.pass(message);
+            PassProcessing.process(message);
         } catch (AssertionError e) {
             FailProcessing.process(message, tracker, e);
         }
@@ -387,7 +387,7 @@ public final class IterableSubject extends Subject {
     public void isInOrder(final Comparator<?> comparator) {
         try {
             Truth.assertThat(actual).isInOrder(comparator);
-            Log.pass(message);
+            PassProcessing.process(message);
         } catch (AssertionError e) {
             FailProcessing.process(message, tracker, e);
         }
@@ -3,7 +3,7 @@ package com.qaitsolutions.pframe.core.assertion.subjects;
 import com.google.common.truth.Truth;
 import com.qaitsolutions.pframe.core.assertion.ErrorTracker;
 import com.qaitsolutions.pframe.core.assertion.FailProcessing;
-import com.qaitsolutions.pframe.core.logging.Log;
+import com.qaitsolutions.pframe.core.assertion.PassProcessing;
 
 /**
  * Wrapper over {@link com.google.common.truth.LongSubject}.
@@ -51,7 +51,7 @@ public final class LongSubject extends ComparableSubject<Long> {
     public void isGreaterThan(int other) {
         try {
             Truth.assertThat(actual).isGreaterThan(other);
-            Log.pass(message);
+            PassProcessing.process(message);
         } catch (AssertionError e) {
             FailProcessing.process(message, tracker, e);
         }
@@ -67,7 +67,7 @@ public final class LongSubject extends ComparableSubject<Long> {
     public void isLessThan(int other) {
         try {
             Truth.assertThat(actual).isLessThan(other);
-            Log.pass(message);
+            PassProcessing.process(message);
         } catch (AssertionError e) {
             FailProcessing.process(message, tracker, e);
         }
@@ -83,7 +83,7 @@ public final class LongSubject extends ComparableSubject<Long> {
     public void isAtMost(int other) {
         try {
             Truth.assertThat(actual).isAtMost(other);
-            Log.pass(message);
+            PassProcessing.process(message);
         } catch (AssertionError e) {
             FailProcessing.process(message, tracker, e);
         }
@@ -99,7 +99,7 @@ public final class LongSubject extends ComparableSubject<Long> {
     public void isAtLeast(int other) {
         try {
             Truth.assertThat(actual).isAtLeast(other);
-            Log.pass(message);
+            PassProcessing.process(message);
         } catch (AssertionError e) {
             FailProcessing.process(message, tracker, e);
         }
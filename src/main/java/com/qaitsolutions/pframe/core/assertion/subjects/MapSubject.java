@@ -3,7 +3,7 @@ package com.qaitsolutions.pframe.core.assertion.subjects;
 import com.google.common.truth.Truth;
 import com.qaitsolutions.pframe.core.assertion.ErrorTracker;
 import com.qaitsolutions.pframe.core.assertion.FailProcessing;
-import com.qaitsolutions.pframe.core.logging.Log;
+import com.qaitsolutions.pframe.core.assertion.PassProcessing;
 
 import java.util.Map;
 
@@ -58,7 +58,7 @@ public final class MapSubject extends Subject {
     public void isEmpty() {
         try {
             Truth.assertThat(actual).isEmpty();
-            Log.pass(message);
+            PassProcessing.process(message);
         } catch (AssertionError e) {
             FailProcessing.process(message, tracker, e);
         }
@@ -70,7 +70,7 @@ public final class MapSubject extends Subject {
     public void isNotEmpty() {
         try {
             Truth.assertThat(actual).isNotEmpty();
-            Log.pass(message);
+            PassProcessing.process(message);
         } catch (AssertionError e) {
             FailProcessing.process(message, tracker, e);
         }
@@ -86,7 +86,7 @@ public final class MapSubject extends Subject {
     public void hasSize(int expectedSize) {
         try {
             Truth.assertThat(actual).hasSize(expectedSize);
-            Log.pass(message);
+            PassProcessing.process(message);
         } catch (AssertionError e) {
             FailProcessing.process(message, tracker, e);
         }
@@ -102,7 +102,7 @@ public final class MapSubject extends Subject {
     public void containsKey(Object key) {
         try {
             Truth.assertThat(actual).containsKey(key);
-            Log.pass(message);
+            PassProcessing.process(message);
         } catch (AssertionError e) {
             FailProcessing.process(message, tracker, e);
         }
@@ -118,7 +118,7 @@ public final class MapSubject extends Subject {
     public void doesNotContainKey(Object key) {
         try {
             Truth.assertThat(actual).doesNotContainKey(key);
-            Log.pass(message);
+            PassProcessing.process(message);
         } catch (AssertionError e) {
             FailProcessing.process(message, tracker, e);
         }
@@ -135,7 +135,7 @@ public final class MapSubject extends Subject {
     public void containsEntry(Object key, Object value) {
         try {
             Truth.assertThat(actual).containsEntry(key, value);
-            Log.pass(message);
+            PassProcessing.process(message);
         } catch (AssertionError e) {
             FailProcessing.process(message, tracker, e);
         }
@@ -152,7 +152,7 @@ public final class MapSubject extends Subject {
     public void doesNotContainEntry(Object key, Object value) {
         try {
             Truth.assertThat(actual).doesNotContainEntry(key, value);
-            Log.pass(message);
+            PassProcessing.process(message);
         } catch (AssertionError e) {
             FailProcessing.process(message, tracker, e);
         }
@@ -170,7 +170,7 @@ public final class MapSubject extends Subject {
     public void containsExactly(Object k0, Object v0, Object... rest) {
         try {
             Truth.assertThat(actual).containsExactly(k0, v0, rest);
-            Log.pass(message);
+            PassProcessing.process(message);
         } catch (AssertionError e) {
             FailProcessing.process(message, tracker, e);
         }
@@ -188,7 +188,7 @@ public final class MapSubject extends Subject {
     public void containsAtLeast(Object k0, Object v0, Object... rest) {
         try {
             Truth.assertThat(actual).containsAtLeast(k0, v0, rest);
-            Log.pass(message);
+            PassProcessing.process(message);
         } catch (AssertionError e) {
             FailProcessing.process(message, tracker, e);
         }
@@ -204,7 +204,7 @@ public final class MapSubject extends Subject {
     public void containsExactlyEntriesIn(Map<?, ?> expectedMap) {
         try {
             Truth.assertThat(actual).containsExactlyEntriesIn(expectedMap);
-            Log.pass(message);
+            PassProcessing.process(message);
         } catch (AssertionError e) {
             FailProcessing.process(message, tracker, e);
         }
@@ -220,7 +220,7 @@ public final class MapSubject extends Subject {
     public void containsAtLeastEntriesIn(Map<?, ?> expectedMap) {
         try {
             Truth.assertThat(actual).containsAtLeastEntriesIn(expectedMap);
-            Log.pass(message);
+            PassProcessing.process(message);
         } catch (AssertionError e) {
             FailProcessing.process(message, tracker, e);
         }
@@ -3,7 +3,7 @@ package com.qaitsolutions.pframe.core.assertion.subjects;
 import com.google.common.truth.Truth;
 import com.qaitsolutions.pframe.core.assertion.ErrorTracker;
 import com.qaitsolutions.pframe.core.assertion.FailProcessing;
-import com.qaitsolutions.pframe.core.logging.Log;
+import com.qaitsolutions.pframe.core.assertion.PassProcessing;
 
 import java.util.regex.Pattern;
 
@@ -52,7 +52,7 @@ public final class StringSubject extends ComparableSubject<String> {
     public void hasLength(int expected) {
         try {
             Truth.assertThat(actual).hasLength(expected);
-            Log.pass(message);
+            PassProcessing.process(message);
         } catch (AssertionError e) {
             FailProcessing.process(message, tracker, e);
         }
@@ -65,7 +65,7 @@ public final class StringSubject extends ComparableSubject<String> {
     public void isEmpty() {
         try {
             Truth.assertThat(actual).isEmpty();
-            Log.pass(message);
+            PassProcessing.process(message);
         } catch (AssertionError e) {
             FailProcessing.process(message, tracker, e);
         }
@@ -78,7 +78,7 @@ public final class StringSubject extends ComparableSubject<String> {
     public void isNotEmpty() {
         try {
             Truth.assertThat(actual).isNotEmpty();
-            Log.pass(message);
+            PassProcessing.process(message);
         } catch (AssertionError e) {
             FailProcessing.process(message, tracker, e);
         }
@@ -94,7 +94,7 @@ public final class StringSubject extends ComparableSubject<String> {
     public void contains(CharSequence string) {
         try {
             Truth.assertThat(actual).contains(string);
-            Log.pass(message);
+            PassProcessing.process(message);
         } catch (AssertionError e) {
             FailProcessing.process(message, tracker, e);
         }
@@ -110,7 +110,7 @@ public final class StringSubject extends ComparableSubject<String> {
     public void doesNotContain(CharSequence string) {
         try {
             Truth.assertThat(actual).doesNotContain(string);
-            Log.pass(message);
+            PassProcessing.process(message);
         } catch (AssertionError e) {
             FailProcessing.process(message, tracker, e);
         }
@@ -126,7 +126,7 @@ public final class StringSubject extends ComparableSubject<String> {
     public void startsWith(String string) {
         try {
             Truth.assertThat(actual).startsWith(string);
-            Log.pass(message);
+            PassProcessing.process(message);
         } catch (AssertionError e) {
             FailProcessing.process(message, tracker, e);
         }
@@ -142,7 +142,7 @@ public final class StringSubject extends ComparableSubject<String> {
     public void endsWith(String string) {
         try {
             Truth.assertThat(actual).endsWith(string);
-            Log.pass(message);
+            PassProcessing.process(message);
         } catch (AssertionError e) {
             FailProcessing.process(message, tracker, e);
         }
@@ -158,7 +158,7 @@ public final class StringSubject extends ComparableSubject<String> {
     public void matches(String regex) {
         try {
             Truth.assertThat(actual).matches(regex);
-            Log.pass(message);
+            PassProcessing.process(message);
         } catch (AssertionError e) {
             FailProcessing.process(message, tracker, e);
         }
@@ -174,7 +174,7 @@ public final class StringSubject extends ComparableSubject<String> {
     public void matches(Pattern regex) {
         try {
             Truth.assertThat(actual).matches(regex);
-            Log.pass(message);
+            PassProcessing.process(message);
         } catch (AssertionError e) {
             FailProcessing.process(message, tracker, e);
         }
@@ -190,7 +190,7 @@ public final class StringSubject extends ComparableSubject<String> {
     public void doesNotMatch(String regex) {
         try {
             Truth.assertThat(actual).doesNotMatch(regex);
-            Log.pass(message);
+            PassProcessing.process(message);
         } catch (AssertionError e) {
             FailProcessing.process(message, tracker, e);
         }
@@ -206,7 +206,7 @@ public final class StringSubject extends ComparableSubject<String> {
     public void doesNotMatch(Pattern regex) {
         try {
             Truth.assertThat(actual).doesNotMatch(regex);
-            Log.pass(message);
+            PassProcessing.process(message);
         } catch (AssertionError e) {
             FailProcessing.process(message, tracker, e);
         }
@@ -222,7 +222,7 @@ public final class StringSubject extends ComparableSubject<String> {
     public void containsMatch(Pattern regex) {
         try {
             Truth.assertThat(actual).containsMatch(regex);
-            Log.pass(message);
+            PassProcessing.process(message);
         } catch (AssertionError e) {
             FailProcessing.process(message, tracker, e);
         }
@@ -238,7 +238,7 @@ public final class StringSubject extends ComparableSubject<String> {
     public void containsMatch(String regex) {
         try {
             Truth.assertThat(actual).containsMatch(regex);
-            Log.pass(message);
+            PassProcessing.process(message);
         } catch (AssertionError e) {
             FailProcessing.process(message, tracker, e);
         }
@@ -254,7 +254,7 @@ public final class StringSubject extends ComparableSubject<String> {
     public void doesNotContainMatch(Pattern regex) {
         try {
             Truth.assertThat(actual).doesNotContainMatch(regex);
-            Log.pass(message);
+            PassProcessing.process(message);
         } catch (AssertionError e) {
             FailProcessing.process(message, tracker, e);
         }
@@ -270,7 +270,7 @@ public final class StringSubject extends ComparableSubject<String> {
     public void doesNotContainMatch(String regex) {
         try {
             Truth.assertThat(actual).doesNotContainMatch(regex);
-            Log.pass(message);
+            PassProcessing.process(message);
         } catch (AssertionError e) {
             FailProcessing.process(message, tracker, e);
         }
@@ -301,7 +301,7 @@ public final class StringSubject extends ComparableSubject<String> {
         public void isEqualTo(String expected) {
             try {
                 Truth.assertThat(actual).ignoringCase().isEqualTo(expected);
-                Log.pass(message);
+                PassProcessing.process(message);
             } catch (AssertionError e) {
                 FailProcessing.process(message, tracker, e);
             }
@@ -317,7 +317,7 @@ public final class StringSubject extends ComparableSubject<String> {
         public void isNotEqualTo(String unexpected) {
             try {
                 Truth.assertThat(actual).ignoringCase().isNotEqualTo(unexpected);
-                Log.pass(message);
+                PassProcessing.process(message);
             } catch (AssertionError e) {
                 FailProcessing.process(message, tracker, e);
             }
@@ -333,7 +333,7 @@ public final class StringSubject extends ComparableSubject<String> {
         public void contains(CharSequence expectedSequence) {
             try {
                 Truth.assertThat(actual).ignoringCase().contains(expectedSequence);
-                Log.pass(message);
+                PassProcessing.process(message);
             } catch (AssertionError e) {
                 FailProcessing.process(message, tracker, e);
             }
@@ -349,7 +349,7 @@ public final class StringSubject extends ComparableSubject<String> {
         public void doesNotContain(CharSequence expectedSequence) {
             try {
                 Truth.assertThat(actual).ignoringCase().doesNotContain(expectedSequence);
-                Log.pass(message);
+                PassProcessing.process(message);
             } catch (AssertionError e) {
                 FailProcessing.process(message, tracker, e);
             }
@@ -3,7 +3,7 @@ package com.qaitsolutions.pframe.core.assertion.subjects;
 import com.google.common.truth.Truth;
 import com.qaitsolutions.pframe.core.assertion.ErrorTracker;
 import com.qaitsolutions.pframe.core.assertion.FailProcessing;
-import com.qaitsolutions.pframe.core.logging.Log;
+import com.qaitsolutions.pframe.core.assertion.PassProcessing;
 
 /**
  * Wrapper over {@link com.google.common.truth.Subject}.
@@ -50,7 +50,7 @@ public class Subject {
     public void isNull() {
         try {
             Truth.assertThat(actual).isNull();
-            Log.pass(message);
+            PassProcessing.process(message);
         } catch (AssertionError e) {
             FailProcessing.process(message, tracker, e);
         }
@@ -62,7 +62,7 @@ public class Subject {
     public void isNotNull() {
         try {
             Truth.assertThat(actual).isNotNull();
-            Log.pass(message);
+            PassProcessing.process(message);
         } catch (AssertionError e) {
             FailProcessing.process(message, tracker, e);
         }
@@ -78,7 +78,7 @@ public class Subject {
     public void isEqualTo(Object expected) {
         try {
             Truth.assertThat(actual).isEqualTo(expected);
-            Log.pass(message);
+            PassProcessing.process(message);
         } catch (AssertionError e) {
             FailProcessing.process(message, tracker, e);
         }
@@ -94,7 +94,7 @@ public class Subject {
     public void isNotEqualTo(Object unexpected) {
         try {
             Truth.assertThat(actual).isNotEqualTo(unexpected);
-            Log.pass(message);
+            PassProcessing.process(message);
         } catch (AssertionError e) {
             FailProcessing.process(message, tracker, e);
         }
@@ -110,7 +110,7 @@ public class Subject {
     public void isSameInstanceAs(Object expected) {
         try {
             Truth.assertThat(actual).isSameInstanceAs(expected);
-            Log.pass(message);
+            PassProcessing.process(message);
         } catch (AssertionError e) {
             FailProcessing.process(message, tracker, e);
         }
@@ -126,7 +126,7 @@ public class Subject {
     public void isNotSameInstanceAs(Object unexpected) {
         try {
             Truth.assertThat(actual).isNotSameInstanceAs(unexpected);
-            Log.pass(message);
+            PassProcessing.process(message);
         } catch (AssertionError e) {
             FailProcessing.process(message, tracker, e);
         }
@@ -142,7 +142,7 @@ public class Subject {
     public void isInstanceOf(Class<?> clazz) {
         try {
             Truth.assertThat(actual).isInstanceOf(clazz);
-            Log.pass(message);
+            PassProcessing.process(message);
         } catch (AssertionError e) {
             FailProcessing.process(message, tracker, e);
         }
@@ -158,7 +158,7 @@ public class Subject {
     public void isNotInstanceOf(Class<?> clazz) {
         try {
             Truth.assertThat(actual).isNotInstanceOf(clazz);
-            Log.pass(message);
+            PassProcessing.process(message);
         } catch (AssertionError e) {
             FailProcessing.process(message, tracker, e);
         }
@@ -174,7 +174,7 @@ public class Subject {
     public void isIn(Iterable<?> iterable) {
         try {
             Truth.assertThat(actual).isIn(iterable);
-            Log.pass(message);
+            PassProcessing.process(message);
         } catch (AssertionError e) {
             FailProcessing.process(message, tracker, e);
         }
@@ -192,7 +192,7 @@ public class Subject {
     public void isAnyOf(Object first, Object second, Object... rest) {
         try {
             Truth.assertThat(actual).isAnyOf(first, second, rest);
-            Log.pass(message);
+            PassProcessing.process(message);
         } catch (AssertionError e) {
             FailProcessing.process(message, tracker, e);
         }
@@ -208,7 +208,7 @@ public class Subject {
     public void isNotIn(Iterable<?> iterable) {
         try {
             Truth.assertThat(actual).isNotIn(iterable);
-            Log.pass(message);
+            PassProcessing.process(message);
         } catch (AssertionError e) {
             FailProcessing.process(message, tracker, e);
         }
@@ -226,7 +226,7 @@ public class Subject {
     public void isNoneOf(Object first, Object second, Object... rest) {
         try {
             Truth.assertThat(actual).isNoneOf(first, second, rest);
-            Log.pass(message);
+            PassProcessing.process(message);
         } catch (AssertionError e) {
             FailProcessing.process(message, tracker, e);
         }
@@ -1,6 +1,11 @@
 package com.qaitsolutions.pframe.core.config;
 
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.regex.Pattern;
 
 /**
  * Class contains configuration data for framework. It is used like a singleton.
@@ -16,7 +21,114 @@ public final class Config {
     private static final String REPORT_TYPE_KEY = "report.type";
     private static final String REPORT_TYPE_DEFAULT = "single";
 
+    private static final String LOG_SINKS_KEY = "log.sinks";
+    private static final Pattern LOG_LEVEL_KEY = Pattern.compile("log\\.([^.]+)\\.level");
+    private static final Pattern LOG_THROTTLE_KEY = Pattern.compile("log\\.throttle\\.([^.]+)");
+
+    private static final String REPORT_SCREENSHOTS_KEY = "report.screenshots";
+    private static final String REPORT_SCREENSHOTS_DEFAULT = "store";
+
+    private static final String REPORT_SCREENSHOTS_THUMBNAIL_KEY = "report.screenshots.thumbnail";
+    private static final String REPORT_SCREENSHOTS_THUMBNAIL_DEFAULT = "320";
+
+    private static final String REPORT_SCREENSHOTS_JPEG_QUALITY_KEY = "report.screenshots.jpeg.quality";
+    private static final String REPORT_SCREENSHOTS_JPEG_QUALITY_DEFAULT = "0";
+
+    private static final String REPORT_ATTACHMENTS_THREADS_KEY = "report.attachments.threads";
+    private static final String REPORT_ATTACHMENTS_THREADS_DEFAULT = "2";
+
+    private static final String REPORT_ATTACHMENTS_TIMEOUT_KEY = "report.attachments.timeout";
+    private static final String REPORT_ATTACHMENTS_TIMEOUT_DEFAULT = "60";
+
+    private static final String REPORT_RESULTS_KEY = "report.results";
+
+    private static final String REPORT_REPORTER_KEY = "report.reporter";
+    private static final String REPORT_REPORTER_DEFAULT = "spark";
+
+    private static final String REPORT_SEARCH_KEY = "report.search";
+    private static final String REPORT_SEARCH_DEFAULT = "false";
+
+    private static final String REPORT_NODE_HEAD_KEY = "report.node.head";
+    private static final String REPORT_NODE_HEAD_DEFAULT = "0";
+
+    private static final String REPORT_NODE_TAIL_KEY = "report.node.tail";
+    private static final String REPORT_NODE_TAIL_DEFAULT = "100";
+
+    private static final String REPORT_PARAMETERS_KEY = "report.parameters";
+    private static final String REPORT_PARAMETERS_DEFAULT = "inline";
+
+    private static final String REPORT_PARAMETERS_LENGTH_KEY = "report.parameters.length";
+    private static final String REPORT_PARAMETERS_LENGTH_DEFAULT = "256";
+
+    private static final String REPORT_LITE_PAGE_KEY = "report.lite.page";
+    private static final String REPORT_LITE_PAGE_DEFAULT = "50";
+
+    private static final String REPORT_SPOOL_KEY = "report.spool";
+    private static final String REPORT_SPOOL_DEFAULT = "off";
+
+    private static final String REPORT_FLUSH_INTERVAL_KEY = "report.flush.interval";
+    private static final String REPORT_FLUSH_INTERVAL_DEFAULT = "0";
+
+    private static final String REPORT_FLUSH_NODES_KEY = "report.flush.nodes";
+    private static final String REPORT_FLUSH_NODES_DEFAULT = "0";
+
+    private static final String REPORT_SEGMENT_NODES_KEY = "report.segment.nodes";
+    private static final String REPORT_SEGMENT_NODES_DEFAULT = "0";
+
+    private static final String ASSERTION_PASS_MODE_KEY = "assertion.pass.mode";
+    private static final String ASSERTION_PASS_MODE_DEFAULT = "full";
+
+    private static final Pattern LOG_REDACT_PATTERN_KEY = Pattern.compile("log\\.redact\\.pattern\\.(.+)");
+
+    private static final String LOG_REDACT_LITERALS_KEY = "log.redact.literals";
+
+    private static final String LOG_REDACT_MASK_KEY = "log.redact.mask";
+    private static final String LOG_REDACT_MASK_DEFAULT = "****";
+
+    private static final String LOG_COLLAPSE_KEY = "log.collapse";
+
+    private static final String LOG_PAYLOAD_INLINE_KEY = "log.payload.inline";
+    private static final String LOG_PAYLOAD_INLINE_DEFAULT = "262144";
+
+    private static final String LOG_PAYLOAD_PREVIEW_KEY = "log.payload.preview";
+    private static final String LOG_PAYLOAD_PREVIEW_DEFAULT = "4096";
+
+    private static final String LOG_CONSOLE_BUFFER_KEY = "log.console.buffer";
+    private static final String LOG_CONSOLE_BUFFER_DEFAULT = "8192";
+
+    private static final String LOG_CONSOLE_FLUSH_MS_KEY = "log.console.flush.ms";
+    private static final String LOG_CONSOLE_FLUSH_MS_DEFAULT = "200";
+
+    private static final String LOG_CONSOLE_ANSI_KEY = "log.console.ansi";
+    private static final String LOG_CONSOLE_ANSI_DEFAULT = "auto";
+
+    private static final String LOG_CONSOLE_PREFIX_KEY = "log.console.prefix";
+    private static final String LOG_CONSOLE_PREFIX_DEFAULT = "thread";
+
+    private static final String LOG_FILE_MODE_KEY = "log.file.mode";
+    private static final String LOG_FILE_MODE_DEFAULT = "sync";
+
+    private static final String LOG_FILE_QUEUE_KEY = "log.file.queue";
+    private static final String LOG_FILE_QUEUE_DEFAULT = "0";
+
+    private static final String LOG_NODE_FILES_KEY = "log.node.files";
+    private static final String LOG_NODE_FILES_DEFAULT = "false";
+
+    private static final String LOG_NODE_FILES_EMBED_KEY = "log.node.files.embed";
+    private static final String LOG_NODE_FILES_EMBED_DEFAULT = "8192";
+
+    private static final String LOG_ASYNC_KEY = "log.async";
+    private static final String LOG_ASYNC_DEFAULT = "false";
+
+    private static final String LOG_ASYNC_BUFFER_KEY = "log.async.buffer";
+    private static final String LOG_ASYNC_BUFFER_DEFAULT = "8192";
+
+    private static final String LOG_ASYNC_BACKPRESSURE_KEY = "log.async.backpressure";
+    private static final String LOG_ASYNC_BACKPRESSURE_DEFAULT = "block";
+
     private static final String SCREENSHOTS_DIRECTORY = "screenshots";
+    private static final String ATTACHMENTS_DIRECTORY = "attachments";
+    private static final String RESULTS_DIRECTORY = "results";
     private static final String REPORT_NAME = "index";
 
     public static final ConfigDTO VALUES = get();
@@ -31,8 +143,8 @@ public final class Config {
 
         var configDto = new ConfigDTO();
 
-        var reportPath = Optional.ofNullable(System.getProperty(REPORT_PATH_KEY)).orElse(REPORT_PATH_DEFAULT);
-        var reportType = Optional.ofNullable(System.getProperty(REPORT_TYPE_KEY)).orElse(REPORT_TYPE_DEFAULT);
+        var reportPath = property(REPORT_PATH_KEY, REPORT_PATH_DEFAULT);
+        var reportType = property(REPORT_TYPE_KEY, REPORT_TYPE_DEFAULT);
 
         var screenshotPath = reportPath + "/" + SCREENSHOTS_DIRECTORY;
 
@@ -41,7 +153,101 @@ public final class Config {
         configDto.setReportName(REPORT_NAME);
         configDto.setScreenshotPath(screenshotPath);
         configDto.setScreenshotDirectory(SCREENSHOTS_DIRECTORY);
+        configDto.setAttachmentPath(reportPath + "/" + ATTACHMENTS_DIRECTORY);
+        configDto.setAttachmentDirectory(ATTACHMENTS_DIRECTORY);
+        configDto.setResultsDirectory(RESULTS_DIRECTORY);
+
+        configDto.setLogSinks(list(property(LOG_SINKS_KEY, "")));
+        configDto.setReportScreenshots(property(REPORT_SCREENSHOTS_KEY, REPORT_SCREENSHOTS_DEFAULT));
+        configDto.setReportScreenshotsThumbnail(
+                Integer.parseInt(property(REPORT_SCREENSHOTS_THUMBNAIL_KEY, REPORT_SCREENSHOTS_THUMBNAIL_DEFAULT)));
+        configDto.setReportScreenshotsJpegQuality(Integer.parseInt(
+                property(REPORT_SCREENSHOTS_JPEG_QUALITY_KEY, REPORT_SCREENSHOTS_JPEG_QUALITY_DEFAULT)));
+        configDto.setReportAttachmentsThreads(
+                Integer.parseInt(property(REPORT_ATTACHMENTS_THREADS_KEY, REPORT_ATTACHMENTS_THREADS_DEFAULT)));
+        configDto.setReportAttachmentsTimeout(
+                Long.parseLong(property(REPORT_ATTACHMENTS_TIMEOUT_KEY, REPORT_ATTACHMENTS_TIMEOUT_DEFAULT)));
+        configDto.setReportReporter(property(REPORT_REPORTER_KEY, REPORT_REPORTER_DEFAULT));
+        configDto.setReportLitePage(Integer.parseInt(property(REPORT_LITE_PAGE_KEY, REPORT_LITE_PAGE_DEFAULT)));
+        configDto.setReportNodeHead(Integer.parseInt(property(REPORT_NODE_HEAD_KEY, REPORT_NODE_HEAD_DEFAULT)));
+        configDto.setReportNodeTail(Integer.parseInt(property(REPORT_NODE_TAIL_KEY, REPORT_NODE_TAIL_DEFAULT)));
+        configDto.setReportParameters(property(REPORT_PARAMETERS_KEY, REPORT_PARAMETERS_DEFAULT));
+        configDto.setReportParametersLength(
+                Integer.parseInt(property(REPORT_PARAMETERS_LENGTH_KEY, REPORT_PARAMETERS_LENGTH_DEFAULT)));
+        configDto.setReportSearch(Boolean.parseBoolean(property(REPORT_SEARCH_KEY, REPORT_SEARCH_DEFAULT)));
+        configDto.setReportResults(list(property(REPORT_RESULTS_KEY, "")));
+        configDto.setReportSpool(property(REPORT_SPOOL_KEY, REPORT_SPOOL_DEFAULT));
+        configDto.setReportFlushInterval(
+                Long.parseLong(property(REPORT_FLUSH_INTERVAL_KEY, REPORT_FLUSH_INTERVAL_DEFAULT)));
+        configDto.setReportFlushNodes(Integer.parseInt(property(REPORT_FLUSH_NODES_KEY, REPORT_FLUSH_NODES_DEFAULT)));
+        configDto.setReportSegmentNodes(
+                Integer.parseInt(property(REPORT_SEGMENT_NODES_KEY, REPORT_SEGMENT_NODES_DEFAULT)));
+        configDto.setAssertionPassMode(property(ASSERTION_PASS_MODE_KEY, ASSERTION_PASS_MODE_DEFAULT));
+        configDto.setLogLevels(matching(LOG_LEVEL_KEY));
+        configDto.setLogThrottle(matching(LOG_THROTTLE_KEY));
+        configDto.setLogRedactLiterals(list(property(LOG_REDACT_LITERALS_KEY, "")));
+        configDto.setLogRedactPatterns(matching(LOG_REDACT_PATTERN_KEY));
+        configDto.setLogRedactMask(property(LOG_REDACT_MASK_KEY, LOG_REDACT_MASK_DEFAULT));
+        configDto.setLogCollapse(list(property(LOG_COLLAPSE_KEY, "")));
+        configDto.setLogPayloadInline(Integer.parseInt(property(LOG_PAYLOAD_INLINE_KEY, LOG_PAYLOAD_INLINE_DEFAULT)));
+        configDto.setLogPayloadPreview(
+                Integer.parseInt(property(LOG_PAYLOAD_PREVIEW_KEY, LOG_PAYLOAD_PREVIEW_DEFAULT)));
+        configDto.setLogConsoleBuffer(Integer.parseInt(property(LOG_CONSOLE_BUFFER_KEY, LOG_CONSOLE_BUFFER_DEFAULT)));
+        configDto.setLogConsoleFlushMs(
+                Long.parseLong(property(LOG_CONSOLE_FLUSH_MS_KEY, LOG_CONSOLE_FLUSH_MS_DEFAULT)));
+        configDto.setLogConsoleAnsi(property(LOG_CONSOLE_ANSI_KEY, LOG_CONSOLE_ANSI_DEFAULT));
+        configDto.setLogConsolePrefix(property(LOG_CONSOLE_PREFIX_KEY, LOG_CONSOLE_PREFIX_DEFAULT));
+        configDto.setLogFileMode(property(LOG_FILE_MODE_KEY, LOG_FILE_MODE_DEFAULT));
+        configDto.setLogFileQueue(Integer.parseInt(property(LOG_FILE_QUEUE_KEY, LOG_FILE_QUEUE_DEFAULT)));
+        configDto.setLogNodeFiles(Boolean.parseBoolean(property(LOG_NODE_FILES_KEY, LOG_NODE_FILES_DEFAULT)));
+        configDto.setLogNodeFilesEmbed(
+                Long.parseLong(property(LOG_NODE_FILES_EMBED_KEY, LOG_NODE_FILES_EMBED_DEFAULT)));
+        configDto.setLogAsync(Boolean.parseBoolean(property(LOG_ASYNC_KEY, LOG_ASYNC_DEFAULT)));
+        configDto.setLogAsyncBuffer(Integer.parseInt(property(LOG_ASYNC_BUFFER_KEY, LOG_ASYNC_BUFFER_DEFAULT)));
+        configDto.setLogAsyncBackpressure(property(LOG_ASYNC_BACKPRESSURE_KEY, LOG_ASYNC_BACKPRESSURE_DEFAULT));
 
         return configDto;
     }
+
+    /**
+     * Collects the system properties whose key matches the pattern, such as the log.&lt;sink&gt;.level sink
+     * thresholds.
+     *
+     * @param pattern {@link Pattern} of the key, with the varying part as its first group.
+     * @return Map of the first group to the property value.
+     */
+    private static Map<String, String> matching(final Pattern pattern) {
+        var values = new HashMap<String, String>();
+
+        System.getProperties().stringPropertyNames().forEach(key -> {
+            var matcher = pattern.matcher(key);
+            if (matcher.matches()) values.put(matcher.group(1), System.getProperty(key));
+        });
+
+        return Map.copyOf(values);
+    }
+
+    /**
+     * Splits a comma separated value.
+     *
+     * @param value Value to be split.
+     * @return Trimmed, non-empty items of the value.
+     */
+    private static List<String> list(final String value) {
+        return Arrays.stream(value.split(","))
+                .map(String::trim)
+                .filter(item -> !item.isEmpty())
+                .toList();
+    }
+
+    /**
+     * Reads a system property.
+     *
+     * @param key          Name of the system property.
+     * @param defaultValue Value used when the system property is not set.
+     * @return Value of the system property or the default value.
+     */
+    private static String property(final String key, final String defaultValue) {
+        return Optional.ofNullable(System.getProperty(key)).orElse(defaultValue);
+    }
 }
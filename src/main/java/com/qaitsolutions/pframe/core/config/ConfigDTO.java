@@ -2,6 +2,9 @@ package com.qaitsolutions.pframe.core.config;
 
 import lombok.*;
 
+import java.util.List;
+import java.util.Map;
+
 /**
  * DTO that will be used to access configuration data.
  * <p>
@@ -17,4 +20,47 @@ public final class ConfigDTO {
     @NonNull private String reportName;
     @NonNull private String screenshotPath;
     @NonNull private String screenshotDirectory;
+
+    private String attachmentPath;
+    private String attachmentDirectory;
+    private String resultsDirectory;
+
+    private String reportScreenshots;
+    private int reportScreenshotsThumbnail;
+    private int reportScreenshotsJpegQuality;
+    private int reportAttachmentsThreads;
+    private long reportAttachmentsTimeout;
+    private String reportReporter;
+    private int reportLitePage;
+    private boolean reportSearch;
+    private int reportNodeHead;
+    private int reportNodeTail;
+    private String reportParameters;
+    private int reportParametersLength;
+    private List<String> reportResults;
+    private String reportSpool;
+    private long reportFlushInterval;
+    private int reportFlushNodes;
+    private int reportSegmentNodes;
+    private String assertionPassMode;
+    private List<String> logSinks;
+    private Map<String, String> logLevels;
+    private Map<String, String> logThrottle;
+    private List<String> logCollapse;
+    private int logPayloadInline;
+    private int logPayloadPreview;
+    private List<String> logRedactLiterals;
+    private Map<String, String> logRedactPatterns;
+    private String logRedactMask;
+    private int logConsoleBuffer;
+    private long logConsoleFlushMs;
+    private String logConsoleAnsi;
+    private String logConsolePrefix;
+    private String logFileMode;
+    private int logFileQueue;
+    private boolean logNodeFiles;
+    private long logNodeFilesEmbed;
+    private boolean logAsync;
+    private int logAsyncBuffer;
+    private String logAsyncBackpressure;
 }
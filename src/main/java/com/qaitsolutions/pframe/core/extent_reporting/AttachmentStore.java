@@ -0,0 +1,211 @@
+package com.qaitsolutions.pframe.core.extent_reporting;
+
+import com.qaitsolutions.pframe.core.config.Config;
+import com.qaitsolutions.pframe.core.exceptions.FrameworkException;
+import lombok.NonNull;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Stores files attached to the report (HAR files, CSVs, logs, images...) under the attachments directory of the
+ * report. The content is written straight to the file: byte arrays and buffers through a {@link FileChannel},
+ * files with {@link FileChannel#transferFrom} and streams with {@link Files#copy(InputStream, Path,
+ * java.nio.file.CopyOption...)}, without building any intermediate String.
+ * <p>
+ * Files are named "run-sequence.extension", or "run-sequence-name" for attached files, so attachments of
+ * different runs sharing the report directory do not overwrite each other.
+ * <p>
+ *
+ * @author Iulian Andrei (iulian.andrei@qaitsolutions.com)
+ * @since 1.1
+ */
+public final class AttachmentStore {
+
+    private static final String RUN_ID = Long.toString(System.currentTimeMillis(), 36);
+    private static final AtomicLong SEQUENCE = new AtomicLong();
+
+    private static final Map<String, String> EXTENSIONS = Map.ofEntries(
+            Map.entry("image/png", "png"),
+            Map.entry("image/jpeg", "jpg"),
+            Map.entry("image/gif", "gif"),
+            Map.entry("image/webp", "webp"),
+            Map.entry("image/svg+xml", "svg"),
+            Map.entry("application/json", "json"),
+            Map.entry("application/har+json", "har"),
+            Map.entry("application/xml", "xml"),
+            Map.entry("text/xml", "xml"),
+            Map.entry("text/html", "html"),
+            Map.entry("text/csv", "csv"),
+            Map.entry("text/plain", "txt"),
+            Map.entry("application/pdf", "pdf"),
+            Map.entry("application/zip", "zip"));
+
+    private AttachmentStore() {
+    }
+
+    /**
+     * Stores the given bytes.
+     * <p>
+     *
+     * @param content   Bytes of the attachment.
+     * @param mediaType Media type of the content (e.g. text/csv), used for the file extension.
+     * @return Path of the stored file, relative to the report directory (e.g. attachments/lq2x7-1.csv).
+     */
+    public static String store(@NonNull final byte[] content, @NonNull final String mediaType) {
+        return store(ByteBuffer.wrap(content), mediaType);
+    }
+
+    /**
+     * Stores the remaining bytes of the given buffer. The position of the buffer is not changed.
+     * <p>
+     *
+     * @param content   {@link ByteBuffer} holding the attachment, heap or direct.
+     * @param mediaType Media type of the content (e.g. text/csv), used for the file extension.
+     * @return Path of the stored file, relative to the report directory.
+     */
+    public static String store(@NonNull final ByteBuffer content, @NonNull final String mediaType) {
+        var name = nextName() + "." + extension(mediaType);
+        var file = file(name);
+
+        try (var channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            var buffer = content.duplicate();
+            while (buffer.hasRemaining()) channel.write(buffer);
+        } catch (IOException e) {
+            throw new FrameworkException(String.format("Failed to store attachment [%s]", file), e);
+        }
+
+        return relative(name);
+    }
+
+    /**
+     * Copies the given file, keeping its name after the run and sequence prefix.
+     * <p>
+     *
+     * @param source {@link Path} of the file to be attached.
+     * @return Path of the stored file, relative to the report directory.
+     */
+    public static String store(@NonNull final Path source) {
+        var name = nextName() + "-" + sanitize(source.getFileName().toString());
+        var file = file(name);
+
+        try (var in = FileChannel.open(source, StandardOpenOption.READ);
+             var out = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            var size = in.size();
+            for (var position = 0L; position < size; ) {
+                var copied = out.transferFrom(in, position, size - position);
+                if (copied <= 0) break;
+
+                position += copied;
+            }
+        } catch (IOException e) {
+            throw new FrameworkException(String.format("Failed to attach [%s] as [%s]", source, file), e);
+        }
+
+        return relative(name);
+    }
+
+    /**
+     * Copies the given stream until its end. The stream is not closed.
+     * <p>
+     *
+     * @param content   {@link InputStream} of the attachment.
+     * @param mediaType Media type of the content (e.g. application/har+json), used for the file extension.
+     * @return Path of the stored file, relative to the report directory.
+     */
+    public static String store(@NonNull final InputStream content, @NonNull final String mediaType) {
+        var name = nextName() + "." + extension(mediaType);
+        var file = file(name);
+
+        try {
+            Files.copy(content, file);
+        } catch (IOException e) {
+            throw new FrameworkException(String.format("Failed to store attachment [%s]", file), e);
+        }
+
+        return relative(name);
+    }
+
+    /**
+     * Stores the given text as UTF-8. The text is encoded while it is written, without a byte array of the whole
+     * content.
+     * <p>
+     *
+     * @param content   Text of the attachment.
+     * @param mediaType Media type of the content (e.g. application/json), used for the file extension.
+     * @return Path of the stored file, relative to the report directory.
+     */
+    public static String store(@NonNull final CharSequence content, @NonNull final String mediaType) {
+        var name = nextName() + "." + extension(mediaType);
+        var file = file(name);
+
+        try (var writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.WRITE)) {
+            writer.append(content);
+        } catch (IOException e) {
+            throw new FrameworkException(String.format("Failed to store attachment [%s]", file), e);
+        }
+
+        return relative(name);
+    }
+
+    /**
+     * @param mediaType Media type, parameters such as charset are ignored.
+     * @return File extension of the media type, "bin" if it is not known.
+     */
+    static String extension(@NonNull final String mediaType) {
+        var end = mediaType.indexOf(';');
+        var type = (end < 0 ? mediaType : mediaType.substring(0, end)).trim().toLowerCase(Locale.ROOT);
+
+        return EXTENSIONS.getOrDefault(type, "bin");
+    }
+
+    /**
+     * @return Name without extension: the start time of the run followed by a sequence number, so runs sharing
+     * the attachment directory do not overwrite each other's files.
+     */
+    private static String nextName() {
+        return RUN_ID + "-" + SEQUENCE.incrementAndGet();
+    }
+
+    /**
+     * @return Name with every character other than letters, digits, '.', '_' and '-' replaced by '_', so it is
+     * safe as a file name and in a link.
+     */
+    private static String sanitize(@NonNull final String name) {
+        return name.replaceAll("[^A-Za-z0-9._-]", "_");
+    }
+
+    /**
+     * @param name Name of the attachment file.
+     * @return {@link Path} of the file in the attachment directory, which is created if missing.
+     */
+    private static Path file(@NonNull final String name) {
+        var file = Paths.get(Config.VALUES.getAttachmentPath(), name);
+        try {
+            Files.createDirectories(file.getParent());
+        } catch (IOException e) {
+            throw new FrameworkException(String.format("Failed to create directory [%s]", file.getParent()), e);
+        }
+
+        return file;
+    }
+
+    /**
+     * @param name Name of the attachment file.
+     * @return Path of the file relative to the report, as used in links.
+     */
+    private static String relative(@NonNull final String name) {
+        return Config.VALUES.getAttachmentDirectory() + "/" + name;
+    }
+}
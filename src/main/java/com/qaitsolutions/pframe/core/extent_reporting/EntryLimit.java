@@ -0,0 +1,158 @@
+package com.qaitsolutions.pframe.core.extent_reporting;
+
+import com.aventstack.extentreports.Status;
+import com.qaitsolutions.pframe.core.config.Config;
+import com.qaitsolutions.pframe.core.logging.LogSinks;
+import lombok.NonNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Limit of the entries kept in one report node: the first report.node.head entries are written right away, the
+ * following ones go through a ring buffer holding the last report.node.tail entries, and the ones pushed out of it
+ * are only counted per {@link Status}. When the node finishes, the counts and the retained tail are written.
+ * <p>
+ * Entries logged after the node finished (e.g. by an after method) are written right away, up to tail more
+ * entries; the ones beyond are counted as well and summarized if the node is finished again. A node flooded with
+ * messages therefore holds at most head + 2 * tail entries plus the summaries, whatever the test logs. The log
+ * file, if the file sink is on, still receives every message.
+ * <p>
+ *
+ * @author Iulian Andrei (iulian.andrei@qaitsolutions.com)
+ * @since 1.1
+ */
+final class EntryLimit {
+
+    private static final Status[] STATUSES = Status.values();
+
+    private final int head;
+    private final Entry[] tail;
+    private final long[] dropped = new long[STATUSES.length];
+
+    private long count;
+    private long late;
+    private int start;
+    private int size;
+    private boolean finished;
+
+    private EntryLimit(final int head, final int tail) {
+        this.head = head;
+        this.tail = new Entry[tail];
+    }
+
+    /**
+     * @return New limit as configured, or null if report.node.head is not set.
+     */
+    static EntryLimit create() {
+        var head = Config.VALUES.getReportNodeHead();
+        return head > 0 ? new EntryLimit(head, Math.max(0, Config.VALUES.getReportNodeTail())) : null;
+    }
+
+    /**
+     * Tells if an entry can be written right away, otherwise keeps it in the tail or counts it as dropped.
+     * <p>
+     *
+     * @param status {@link Status} of the entry.
+     * @param write  Writes the entry into the node.
+     * @return True if the caller should write the entry now.
+     */
+    synchronized boolean admit(@NonNull final Status status, @NonNull final Runnable write) {
+        if (++count <= head) return true;
+
+        if (finished) {
+            if (++late <= tail.length) return true;
+
+            dropped[status.ordinal()]++;
+            return false;
+        }
+
+        if (tail.length == 0) {
+            dropped[status.ordinal()]++;
+            return false;
+        }
+
+        var entry = new Entry(status, write, System.currentTimeMillis());
+        if (size < tail.length) {
+            tail[(start + size++) % tail.length] = entry;
+        } else {
+            dropped[tail[start].status.ordinal()]++;
+            tail[start] = entry;
+            start = (start + 1) % tail.length;
+        }
+
+        return false;
+    }
+
+    /**
+     * Ends the limit. Entries admitted afterwards are written right away, up to the size of the tail, and counted
+     * as dropped beyond it. May be called again, to summarize the entries dropped since.
+     * <p>
+     *
+     * @return Retained tail, in logging order.
+     */
+    synchronized List<Entry> finish() {
+        finished = true;
+
+        var entries = new ArrayList<Entry>(size);
+        for (var i = 0; i < size; i++) {
+            entries.add(tail[(start + i) % tail.length]);
+            tail[(start + i) % tail.length] = null;
+        }
+        size = 0;
+
+        return entries;
+    }
+
+    /**
+     * @return Worst {@link Status} among the dropped entries, or null if none was dropped.
+     */
+    synchronized Status droppedStatus() {
+        Status worst = null;
+        for (var status : STATUSES) {
+            if (dropped[status.ordinal()] > 0) worst = worst == null ? status : Status.max(worst, status);
+        }
+
+        return worst;
+    }
+
+    /**
+     * Forgets the dropped entries, once they are summarized.
+     */
+    synchronized void clearDropped() {
+        Arrays.fill(dropped, 0);
+    }
+
+    /**
+     * @return Text such as "1,200 entries not shown (info: 1,150, pass: 50)", pointing to the log file if the file
+     * sink is on.
+     */
+    synchronized String droppedSummary() {
+        var total = 0L;
+        var details = new StringBuilder();
+
+        for (var status : STATUSES) {
+            var dropped = this.dropped[status.ordinal()];
+            if (dropped == 0) continue;
+
+            total += dropped;
+            if (details.length() > 0) details.append(", ");
+            details.append(status.toLower()).append(": ").append(String.format("%,d", dropped));
+        }
+
+        var summary = String.format("%,d entries not shown (%s)", total, details);
+        return LogSinks.isRegistered("file") ? summary + ", the log file has all of them" : summary;
+    }
+
+    /**
+     * Entry waiting in the tail.
+     * <p>
+     *
+     * @param status {@link Status} of the entry.
+     * @param write  Writes the entry into the node.
+     * @param time   Time the entry was logged, in milliseconds.
+     */
+    record Entry(Status status, Runnable write, long time) {
+    }
+}
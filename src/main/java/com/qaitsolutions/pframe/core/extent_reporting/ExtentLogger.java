@@ -1,22 +1,77 @@
 package com.qaitsolutions.pframe.core.extent_reporting;
 
 import com.aventstack.extentreports.ExtentTest;
+import com.aventstack.extentreports.Status;
 import com.aventstack.extentreports.markuputils.Markup;
 import com.aventstack.extentreports.model.Media;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
 import lombok.NonNull;
 import lombok.Setter;
 
+import java.util.Date;
+import java.util.concurrent.locks.Lock;
+
 /**
  * Wrapper class over {@link ExtentTest}.
  * <p>
+ * An instance is bound to a single report node, so it can be handed to another thread without the risk of
+ * the messages landing in a node created later.
+ * <p>
+ * When a {@link ReportSpool} is set, every entry is also appended to it. If the spool is render only, entries are
+ * not kept in the node at all and the report is rendered from the spool. When a {@link SearchIndex} is set, the
+ * words of every entry are added to it.
+ * <p>
+ * With -Dreport.node.head, the node keeps only the first and last entries (see {@link EntryLimit}); the rest are
+ * counted per status and summarized when the node is finished with {@link #finish()}. Dropped entries are still
+ * searchable.
+ * <p>
  *
  * @author Iulian Andrei (iulian.andrei@qaitsolutions.com)
  * @since 1.0
  */
-@Setter
+@Getter @Setter
+@NoArgsConstructor
 public final class ExtentLogger {
 
     private ExtentTest log;
+    private ReportSpool spool;
+    private SearchIndex search;
+
+    @Getter(AccessLevel.NONE) @Setter(AccessLevel.NONE)
+    private final EntryLimit limit = EntryLimit.create();
+
+    @Getter(AccessLevel.NONE) @Setter(AccessLevel.NONE)
+    private Lock lock;
+
+    /**
+     * Creates a logger writing only into the given node.
+     * <p>
+     *
+     * @param log {@link ExtentTest} node.
+     */
+    public ExtentLogger(final ExtentTest log) {
+        this.log = log;
+    }
+
+    /**
+     * Creates a logger writing into the given node, spool and search index, holding the given lock while the node
+     * is changed.
+     * <p>
+     *
+     * @param log    {@link ExtentTest} node.
+     * @param spool  {@link ReportSpool} of the report, can be null.
+     * @param search {@link SearchIndex} of the report, can be null.
+     * @param lock   {@link Lock} held while an entry is added to the node, can be null.
+     * @since 1.1
+     */
+    public ExtentLogger(final ExtentTest log, final ReportSpool spool, final SearchIndex search, final Lock lock) {
+        this.log = log;
+        this.spool = spool;
+        this.search = search;
+        this.lock = lock;
+    }
 
     /**
      * Logs message as info section. Wrapper over {@link ExtentTest#info(String)}. Wrapper over
@@ -26,7 +81,11 @@ public final class ExtentLogger {
      * @param message Text to be added to report.
      */
     public void info(@NonNull final String message) {
-        log.info(message);
+        if (search != null) search.add(log, message);
+        write(Status.INFO, () -> {
+            if (spool != null) spool.log(log, Status.INFO, message);
+            if (isLive()) log.info(message);
+        });
     }
 
     /**
@@ -37,7 +96,11 @@ public final class ExtentLogger {
      * @param media   {@link Media} to be added to report.
      */
     public void info(@NonNull final String message, @NonNull final Media media) {
-        log.info(message, media);
+        if (search != null) search.add(log, message);
+        write(Status.INFO, () -> {
+            if (spool != null) spool.media(log, Status.INFO, message, media);
+            if (isLive()) log.info(message, media);
+        });
     }
 
     /**
@@ -48,7 +111,27 @@ public final class ExtentLogger {
      * @param markup {@link Markup} to be added to report.
      */
     public void info(@NonNull final Markup markup) {
-        log.info(markup);
+        if (search != null) search.add(log, markup.getMarkup());
+        write(Status.INFO, () -> {
+            if (spool != null) spool.markup(log, Status.INFO, markup.getMarkup());
+            if (isLive()) log.info(markup);
+        });
+    }
+
+    /**
+     * Logs markup with the given status. Wrapper over {@link ExtentTest#log(Status, Markup)}.
+     * <p>
+     *
+     * @param status {@link Status} of the section.
+     * @param markup {@link Markup} to be added to report.
+     * @since 1.1
+     */
+    public void log(@NonNull final Status status, @NonNull final Markup markup) {
+        if (search != null) search.add(log, markup.getMarkup());
+        write(status, () -> {
+            if (spool != null) spool.markup(log, status, markup.getMarkup());
+            if (isLive()) log.log(status, markup);
+        });
     }
 
     /**
@@ -58,7 +141,11 @@ public final class ExtentLogger {
      * @param message Text to be added to report.
      */
     public void warning(@NonNull final String message) {
-        log.warning(message);
+        if (search != null) search.add(log, message);
+        write(Status.WARNING, () -> {
+            if (spool != null) spool.log(log, Status.WARNING, message);
+            if (isLive()) log.warning(message);
+        });
     }
 
     /**
@@ -68,7 +155,11 @@ public final class ExtentLogger {
      * @param message Text to be added to report.
      */
     public void fail(@NonNull final String message) {
-        log.fail(message);
+        if (search != null) search.add(log, message);
+        write(Status.FAIL, () -> {
+            if (spool != null) spool.log(log, Status.FAIL, message);
+            if (isLive()) log.fail(message);
+        });
     }
 
     /**
@@ -78,7 +169,11 @@ public final class ExtentLogger {
      * @param message Text to be added to report.
      */
     public void pass(@NonNull final String message) {
-        log.pass(message);
+        if (search != null) search.add(log, message);
+        write(Status.PASS, () -> {
+            if (spool != null) spool.log(log, Status.PASS, message);
+            if (isLive()) log.pass(message);
+        });
     }
 
     /**
@@ -88,6 +183,82 @@ public final class ExtentLogger {
      * @param message Text to be added to report.
      */
     public void skip(@NonNull final String message) {
-        log.skip(message);
+        if (search != null) search.add(log, message);
+        write(Status.SKIP, () -> {
+            if (spool != null) spool.log(log, Status.SKIP, message);
+            if (isLive()) log.skip(message);
+        });
+    }
+
+    /**
+     * Finishes the node: writes the summary of the dropped entries and the retained last entries. Entries logged
+     * afterwards are written right away, within the entry limit; calling this again summarizes the ones dropped
+     * since. Does nothing if the node has no entry limit.
+     * <p>
+     *
+     * @since 1.1
+     */
+    public void finish() {
+        if (limit == null) return;
+
+        synchronized (limit) {
+            var tail = limit.finish();
+
+            var dropped = limit.droppedStatus();
+            if (dropped != null) {
+                var summary = limit.droppedSummary();
+                limit.clearDropped();
+                locked(() -> {
+                    if (spool != null) spool.log(log, dropped, summary);
+                    if (isLive()) log.log(dropped, summary);
+                });
+            }
+
+            for (var entry : tail) {
+                locked(() -> {
+                    entry.write().run();
+                    if (isLive()) restoreTime(entry.time());
+                });
+            }
+        }
+    }
+
+    /**
+     * Writes the entry now, or leaves it to the entry limit.
+     */
+    private void write(@NonNull final Status status, @NonNull final Runnable entry) {
+        if (limit == null || limit.admit(status, entry)) locked(entry);
+    }
+
+    /**
+     * Runs the change of the node holding the lock, if one is set.
+     */
+    private void locked(@NonNull final Runnable change) {
+        if (lock == null) {
+            change.run();
+            return;
+        }
+
+        lock.lock();
+        try {
+            change.run();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Sets the time an entry was logged on the last entry of the node, written later from the tail.
+     */
+    private void restoreTime(final long time) {
+        var logs = log.getModel().getLogs();
+        if (!logs.isEmpty()) logs.get(logs.size() - 1).setTimestamp(new Date(time));
+    }
+
+    /**
+     * @return True if entries are added to the node itself.
+     */
+    private boolean isLive() {
+        return spool == null || !spool.isRenderOnly();
     }
 }
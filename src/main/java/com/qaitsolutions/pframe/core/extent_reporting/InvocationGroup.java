@@ -0,0 +1,107 @@
+package com.qaitsolutions.pframe.core.extent_reporting;
+
+import com.aventstack.extentreports.Status;
+import com.aventstack.extentreports.markuputils.Markup;
+import com.qaitsolutions.pframe.core.logging.Redactor;
+import lombok.NonNull;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Node summarizing the invocations of a parameterized method, used with -Dreport.parameters=grouped. Its entries
+ * form a table of the results: passed invocations are only counted and written as one row per run, every failed
+ * or skipped invocation gets a row with its number, parameters and error.
+ * <p>
+ * Rows are written through the {@link ExtentLogger} of the node, so they are redacted like any other message,
+ * count against the entry limit of the node and are searchable.
+ * <p>
+ *
+ * @author Iulian Andrei (iulian.andrei@qaitsolutions.com)
+ * @since 1.1
+ */
+final class InvocationGroup {
+
+    private final ExtentLogger log;
+    private final AtomicInteger invocations = new AtomicInteger();
+
+    private long passed;
+
+    /**
+     * @param log {@link ExtentLogger} of the group node.
+     */
+    InvocationGroup(@NonNull final ExtentLogger log) {
+        this.log = log;
+    }
+
+    /**
+     * @return Number of the next invocation, starting with 1.
+     */
+    int next() {
+        return invocations.incrementAndGet();
+    }
+
+    /**
+     * Counts a passed invocation. The count is written with the next row or flush.
+     */
+    synchronized void passed() {
+        passed++;
+    }
+
+    /**
+     * Writes the row of an invocation that did not pass.
+     * <p>
+     *
+     * @param invocation Number of the invocation.
+     * @param status     {@link Status} of the invocation.
+     * @param parameters Parameters of the invocation, as text.
+     * @param error      Error of the invocation, can be null.
+     */
+    synchronized void row(final int invocation, @NonNull final Status status, @NonNull final String parameters,
+                          final String error) {
+        flush();
+
+        var text = new StringBuilder("<b>#").append(invocation).append("</b> ")
+                .append(escape(Redactor.redact(parameters)));
+        if (error != null) text.append("<br/>").append(escape(Redactor.redact(error)));
+
+        write(status, text.toString());
+    }
+
+    /**
+     * Writes the count of the passed invocations since the previous row.
+     */
+    synchronized void flush() {
+        if (passed == 0) return;
+
+        write(Status.PASS, String.format("%,d invocation(s) passed", passed));
+        passed = 0;
+    }
+
+    /**
+     * Writes the count of the passed invocations and the rows held back by the entry limit of the node. Called at
+     * the end of the suite.
+     */
+    synchronized void finish() {
+        flush();
+        log.finish();
+    }
+
+    /**
+     * Adds a row to the node.
+     * <p>
+     *
+     * @param status {@link Status} of the row.
+     * @param text   HTML of the row.
+     */
+    private void write(@NonNull final Status status, @NonNull final String text) {
+        Markup markup = () -> text;
+        log.log(status, markup);
+    }
+
+    /**
+     * @return Text with the HTML special characters escaped, to be shown as is in the report.
+     */
+    private static String escape(@NonNull final String value) {
+        return value.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;");
+    }
+}
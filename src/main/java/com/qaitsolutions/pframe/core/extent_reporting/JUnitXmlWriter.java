@@ -0,0 +1,192 @@
+package com.qaitsolutions.pframe.core.extent_reporting;
+
+import com.qaitsolutions.pframe.core.exceptions.FrameworkException;
+import com.qaitsolutions.pframe.core.logging.Redactor;
+import lombok.NonNull;
+import org.testng.ITestResult;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.Locale;
+
+/**
+ * {@link ResultWriter} producing a JUnit XML file, one testcase element per result.
+ * <p>
+ * The counts of the testsuite element are only known at the end, so the element is written first with
+ * fixed-width, zero-padded placeholders that {@link #close()} overwrites in place. The testcases are streamed
+ * in between and flushed after each result.
+ * <p>
+ *
+ * @author Iulian Andrei (iulian.andrei@qaitsolutions.com)
+ * @since 1.1
+ */
+public final class JUnitXmlWriter implements ResultWriter {
+
+    private static final String COUNTS_FORMAT = "tests=\"%010d\" failures=\"%010d\" errors=\"%010d\" "
+            + "skipped=\"%010d\" time=\"%014.3f\"";
+    private static final long COUNTS_OFFSET = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<testsuite ".length();
+
+    private final Path file;
+    private final FileChannel channel;
+    private final Writer writer;
+    private final long start = System.currentTimeMillis();
+
+    private int tests;
+    private int failures;
+    private int errors;
+    private int skipped;
+
+    /**
+     * Creates the file, replacing an existing one, and writes the testsuite element.
+     * <p>
+     *
+     * @param file  {@link Path} of the XML file.
+     * @param suite Name of the suite.
+     */
+    public JUnitXmlWriter(@NonNull final Path file, @NonNull final String suite) {
+        this.file = file;
+
+        try {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
+            this.writer = Channels.newWriter(channel, StandardCharsets.UTF_8);
+
+            writer.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<testsuite ");
+            writer.write(counts());
+            writer.write(" name=\"");
+            writer.write(escape(suite));
+            writer.write("\" timestamp=\"");
+            writer.write(Instant.ofEpochMilli(start).toString());
+            writer.write("\">\n");
+            writer.flush();
+        } catch (IOException e) {
+            throw new FrameworkException(String.format("Failed to create JUnit XML file [%s]", file), e);
+        }
+    }
+
+    @Override
+    public synchronized void write(@NonNull final ITestResult result, @NonNull final String name) {
+        tests++;
+
+        try {
+            writer.write("  <testcase name=\"");
+            writer.write(escape(name));
+            writer.write("\" classname=\"");
+            writer.write(escape(result.getTestClass().getName()));
+            writer.write("\" time=\"");
+            writer.write(String.format(Locale.ROOT, "%.3f", (result.getEndMillis() - result.getStartMillis()) / 1000d));
+            writer.write('"');
+
+            switch (ResultWriter.status(result)) {
+                case "PASS" -> writer.write("/>\n");
+                case "SKIP" -> {
+                    skipped++;
+                    writer.write(">\n    <skipped/>\n  </testcase>\n");
+                }
+                default -> {
+                    var cause = result.getThrowable();
+                    var element = cause == null || cause instanceof AssertionError ? "failure" : "error";
+                    if ("failure".equals(element)) failures++;
+                    else errors++;
+
+                    writer.write(">\n    <");
+                    writer.write(element);
+                    writeProblem(cause);
+                    writer.write("</");
+                    writer.write(element);
+                    writer.write(">\n  </testcase>\n");
+                }
+            }
+
+            writer.flush();
+        } catch (IOException e) {
+            throw new FrameworkException(String.format("Failed to write JUnit XML file [%s]", file), e);
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        if (!channel.isOpen()) return;
+
+        try {
+            writer.write("</testsuite>\n");
+            writer.flush();
+
+            channel.write(ByteBuffer.wrap(counts().getBytes(StandardCharsets.US_ASCII)), COUNTS_OFFSET);
+            channel.force(false);
+            writer.close();
+        } catch (IOException e) {
+            throw new FrameworkException(String.format("Failed to close JUnit XML file [%s]", file), e);
+        }
+    }
+
+    /**
+     * Ends the start tag of a failure, error or skipped element and, if there is a cause, writes its message and
+     * type as attributes and its stack trace as content, all redacted.
+     * <p>
+     *
+     * @param cause {@link Throwable} of the result, can be null.
+     */
+    private void writeProblem(final Throwable cause) throws IOException {
+        if (cause == null) {
+            writer.write(">");
+            return;
+        }
+
+        var trace = new StringWriter();
+        cause.printStackTrace(new PrintWriter(trace));
+
+        writer.write(" message=\"");
+        writer.write(escape(Redactor.redact(String.valueOf(cause.getMessage()))));
+        writer.write("\" type=\"");
+        writer.write(escape(cause.getClass().getName()));
+        writer.write("\">");
+        writer.write(escape(Redactor.redact(trace.toString())));
+    }
+
+    /**
+     * @return Counts and duration of the suite, padded to the width of the placeholder written at the start of
+     * the file, so they can be written over it in place.
+     */
+    private String counts() {
+        var time = (System.currentTimeMillis() - start) / 1000d;
+        return String.format(Locale.ROOT, COUNTS_FORMAT, tests, failures, errors, skipped, time);
+    }
+
+    /**
+     * Escapes text for attribute values and element content, dropping characters XML 1.0 does not allow.
+     * <p>
+     *
+     * @param value Text to be escaped.
+     * @return Escaped text.
+     */
+    private static String escape(@NonNull final String value) {
+        var out = new StringBuilder(value.length() + 16);
+        for (var i = 0; i < value.length(); i++) {
+            var c = value.charAt(i);
+            switch (c) {
+                case '&' -> out.append("&amp;");
+                case '<' -> out.append("&lt;");
+                case '>' -> out.append("&gt;");
+                case '"' -> out.append("&quot;");
+                case '\n', '\r', '\t' -> out.append(c);
+                default -> {
+                    if (c >= 0x20 && c != 0xFFFE && c != 0xFFFF) out.append(c);
+                }
+            }
+        }
+
+        return out.toString();
+    }
+}
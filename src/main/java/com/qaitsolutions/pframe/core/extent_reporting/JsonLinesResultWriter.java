@@ -0,0 +1,91 @@
+package com.qaitsolutions.pframe.core.extent_reporting;
+
+import com.qaitsolutions.pframe.core.exceptions.FrameworkException;
+import com.qaitsolutions.pframe.core.logging.Json;
+import com.qaitsolutions.pframe.core.logging.Redactor;
+import lombok.NonNull;
+import org.testng.ITestResult;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * {@link ResultWriter} producing one JSON object per line and per result:
+ * <pre>
+ *     {"suite":"Regression","class":"com.acme.LoginTest","method":"login","name":"login[admin]",
+ *      "status":"FAIL","start":1700000000000,"end":1700000000420,"error":"AssertionError: ..."}
+ * </pre>
+ * Each line is flushed after it is written, so the file can be read while the suite is running.
+ * <p>
+ *
+ * @author Iulian Andrei (iulian.andrei@qaitsolutions.com)
+ * @since 1.1
+ */
+public final class JsonLinesResultWriter implements ResultWriter {
+
+    private final Path file;
+    private final String suite;
+    private final BufferedWriter writer;
+
+    /**
+     * Creates the file, replacing an existing one.
+     * <p>
+     *
+     * @param file  {@link Path} of the JSON lines file.
+     * @param suite Name of the suite, written in every line.
+     */
+    public JsonLinesResultWriter(@NonNull final Path file, @NonNull final String suite) {
+        this.file = file;
+        this.suite = suite;
+
+        try {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            this.writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new FrameworkException(String.format("Failed to create results file [%s]", file), e);
+        }
+    }
+
+    @Override
+    public synchronized void write(@NonNull final ITestResult result, @NonNull final String name) {
+        try {
+            writer.write("{\"suite\":");
+            Json.writeString(writer, suite);
+            writer.write(",\"class\":");
+            Json.writeString(writer, result.getTestClass().getName());
+            writer.write(",\"method\":");
+            Json.writeString(writer, result.getMethod().getMethodName());
+            writer.write(",\"name\":");
+            Json.writeString(writer, name);
+            writer.write(",\"status\":\"");
+            writer.write(ResultWriter.status(result));
+            writer.write("\",\"start\":");
+            writer.write(Long.toString(result.getStartMillis()));
+            writer.write(",\"end\":");
+            writer.write(Long.toString(result.getEndMillis()));
+
+            var cause = result.getThrowable();
+            if (cause != null) {
+                writer.write(",\"error\":");
+                Json.writeString(writer, Redactor.redact(cause.getClass().getSimpleName() + ": " + cause.getMessage()));
+            }
+
+            writer.write("}\n");
+            writer.flush();
+        } catch (IOException e) {
+            throw new FrameworkException(String.format("Failed to write results file [%s]", file), e);
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        try {
+            writer.close();
+        } catch (IOException e) {
+            throw new FrameworkException(String.format("Failed to close results file [%s]", file), e);
+        }
+    }
+}
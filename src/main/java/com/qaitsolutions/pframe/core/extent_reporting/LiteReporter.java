@@ -0,0 +1,524 @@
+package com.qaitsolutions.pframe.core.extent_reporting;
+
+import com.aventstack.extentreports.Status;
+import com.aventstack.extentreports.model.Log;
+import com.aventstack.extentreports.model.Report;
+import com.aventstack.extentreports.model.Test;
+import com.aventstack.extentreports.observer.ReportObserver;
+import com.aventstack.extentreports.observer.entity.ReportEntity;
+import com.qaitsolutions.pframe.core.config.Config;
+import com.qaitsolutions.pframe.core.exceptions.FrameworkException;
+import com.qaitsolutions.pframe.core.logging.FileLog;
+import com.qaitsolutions.pframe.core.logging.Json;
+import io.reactivex.rxjava3.core.Observer;
+import io.reactivex.rxjava3.disposables.Disposable;
+import lombok.NonNull;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Lightweight alternative to ExtentSparkReporter for very large suites, selected with -Dreport.reporter=lite.
+ * <p>
+ * Instead of one HTML document holding every test, the report is a small page plus a data directory next to it
+ * (index.html and index-data/). The data directory holds a summary of the tests (classes) and, for each test,
+ * its nodes split in pages of report.lite.page nodes. Files are JSONP scripts, so the page also works when opened
+ * from disk; it loads a page of nodes only when it is viewed, so opening the report costs the same whatever the
+ * size of the suite. The report is written on every flush, so each write only rewrites the page files whose nodes
+ * changed since the previous one and deletes those a test no longer has.
+ * <p>
+ * With -Dreport.search=true the page also has a search box, answered from the {@link SearchIndex} of the report.
+ * <p>
+ * When the report is segmented (-Dreport.segment.nodes), every part gets its own data directory, see
+ * {@link #copyPart(Path, Path)}. The system info of the report, which links the parts, is shown under the totals.
+ * <p>
+ *
+ * @author Iulian Andrei (iulian.andrei@qaitsolutions.com)
+ * @since 1.1
+ */
+public final class LiteReporter implements ReportObserver<ReportEntity> {
+
+    private static final String SHELL = """
+            <!DOCTYPE html>
+            <html><head><meta charset="utf-8"><title>Report</title>
+            <style>
+            body{font-family:sans-serif;margin:0;display:flex;height:100vh}
+            #tests{width:30%;overflow:auto;border-right:1px solid #ccc}#nodes{flex:1;overflow:auto;padding:1em}
+            .test{padding:6px 10px;cursor:pointer;border-bottom:1px solid #eee}.test:hover,.sel{background:#eef}
+            .pass{color:#070}.fail{color:#c00}.skip{color:#b70}.warning{color:#b70}.info{color:#036}
+            details{margin:4px 0;border:1px solid #ddd;padding:4px}table{border-collapse:collapse;width:100%}
+            td{border-top:1px solid #eee;padding:3px;vertical-align:top}pre{white-space:pre-wrap}
+            #pager button{margin:2px}
+            </style></head><body>
+            <div id="tests"><div id="summary" style="padding:10px"></div>
+            <input id="query" placeholder="Search, e.g. order 4711" style="margin:0 10px 10px;width:85%;display:none"/>
+            <div id="list"></div></div>
+            <div id="nodes"><div id="pager"></div><div id="page"></div></div>
+            <script>
+            var DATA = "@DATA@", SEARCH = "@SEARCH@";
+            var pframe = {cache: {}, waiting: {}, load: function (key, value) {
+              this.cache[key] = value;
+              var callback = this.waiting[key];
+              if (callback) { delete this.waiting[key]; callback(value); }
+            }};
+            function fetchData(key, callback) {
+              if (pframe.cache[key]) return callback(pframe.cache[key]);
+              pframe.waiting[key] = callback;
+              var script = document.createElement("script");
+              script.src = DATA + "/" + key + ".js?" + Date.now();
+              document.head.appendChild(script);
+            }
+            function text(value) {
+              var div = document.createElement("div");
+              div.textContent = value;
+              return div.innerHTML;
+            }
+            function duration(node) {
+              return node.end && node.start ? ((node.end - node.start) / 1000).toFixed(3) + "s" : "";
+            }
+            function renderNode(node) {
+              var html = "<details id='node-" + node.id + "'><summary class='" + node.status + "'>"
+                + text(node.name) + " <small>" + node.status + " " + duration(node) + "</small></summary><table>";
+              node.logs.forEach(function (log) {
+                html += "<tr><td class='" + log.status + "'>" + log.status + "</td><td>"
+                  + new Date(log.time).toLocaleTimeString() + "</td><td>" + log.details
+                  + (log.media ? "<br/><a href='" + log.media + "' target='_blank'><img src='" + log.media
+                  + "' style='max-width:320px'/></a>" : "")
+                  + (log.exception ? "<pre>" + text(log.exception) + "</pre>" : "") + "</td></tr>";
+              });
+              return html + "</table>" + node.children.map(renderNode).join("") + "</details>";
+            }
+            function showPage(test, page, done) {
+              var pager = "";
+              for (var i = 0; i < test.pages; i++)
+                pager += "<button onclick='showPage(current," + i + ")'" + (i === page ? " disabled" : "") + ">"
+                  + (i + 1) + "</button>";
+              document.getElementById("pager").innerHTML = test.pages > 1 ? pager : "";
+              fetchData("test-" + test.id + "-" + page, function (nodes) {
+                document.getElementById("page").innerHTML = "<h2>" + text(test.name) + "</h2>"
+                  + nodes.map(renderNode).join("");
+                if (done) done();
+              });
+            }
+            function openNode(testName, id) {
+              var test = tests.filter(function (t) { return t.name === testName; })[0];
+              if (!test) return;
+              current = test;
+              (function find(page) {
+                if (page >= test.pages) return;
+                fetchData("test-" + test.id + "-" + page, function (nodes) {
+                  if (!nodes.some(function (node) { return node.id === id; })) return find(page + 1);
+                  showPage(test, page, function () {
+                    var element = document.getElementById("node-" + id);
+                    element.open = true;
+                    element.scrollIntoView();
+                  });
+                });
+              })(0);
+            }
+            function search(query) {
+              pframeSearch(query, function (results) {
+                document.getElementById("pager").innerHTML = "";
+                document.getElementById("page").innerHTML = "<h2>" + results.length + " node(s)</h2>"
+                  + results.slice(0, 500).map(function (result, i) {
+                    return "<div><a href='#' data-i='" + i + "'>" + text(result.test) + " / " + text(result.name)
+                      + "</a></div>";
+                  }).join("");
+                document.querySelectorAll("#page a").forEach(function (link) {
+                  link.onclick = function () {
+                    var result = results[link.dataset.i];
+                    openNode(result.test, result.id);
+                    return false;
+                  };
+                });
+              });
+            }
+            if (SEARCH) {
+              var script = document.createElement("script");
+              script.src = SEARCH + "/search.js";
+              document.head.appendChild(script);
+              var query = document.getElementById("query");
+              query.style.display = "";
+              query.onchange = function () { search(query.value); };
+            }
+            var current, tests = [];
+            fetchData("summary", function (summary) {
+              var totals = {};
+              tests = summary.tests;
+              document.getElementById("list").innerHTML = summary.tests.map(function (test, i) {
+                for (var status in test.counts) totals[status] = (totals[status] || 0) + test.counts[status];
+                return "<div class='test' data-i='" + i + "'><span class='" + test.status + "'>&#9679;</span> "
+                  + text(test.name) + " <small>(" + test.nodes + ")</small></div>";
+              }).join("");
+              document.getElementById("summary").innerHTML = "<b>" + text(summary.name) + "</b><br/>"
+                + Object.keys(totals).map(function (s) { return "<span class='" + s + "'>" + s + " " + totals[s]
+                + "</span>"; }).join(" | ")
+                + summary.info.map(function (info) { return "<br/>" + text(info.name) + ": " + info.value; }).join("");
+              document.querySelectorAll(".test").forEach(function (element) {
+                element.onclick = function () {
+                  document.querySelectorAll(".sel").forEach(function (e) { e.classList.remove("sel"); });
+                  element.classList.add("sel");
+                  current = summary.tests[element.dataset.i];
+                  showPage(current, 0);
+                };
+              });
+            });
+            </script></body></html>
+            """;
+
+    private final Path file;
+    private final Path data;
+    private final Path search;
+    private final int pageSize = Math.max(1, Config.VALUES.getReportLitePage());
+    private final Map<Integer, long[]> written = new HashMap<>();
+
+    /**
+     * @param filename Path of the report page (e.g. target/extent-reports/index.html).
+     */
+    public LiteReporter(@NonNull final String filename) {
+        this.file = Paths.get(filename);
+        this.data = sibling(file, "-data");
+        this.search = sibling(file, "-search");
+    }
+
+    /**
+     * Keeps the report as written last as a part of the report: the data directory is moved to the one of the part
+     * and the part gets its own page, reading it. The next write of the report starts a new data directory, so the
+     * part keeps the nodes released from memory afterwards.
+     * <p>
+     *
+     * @param file {@link Path} of the report page.
+     * @param part {@link Path} of the page of the part (e.g. target/extent-reports/index-part-1.html).
+     * @throws IOException If the part cannot be written.
+     */
+    static void copyPart(@NonNull final Path file, @NonNull final Path part) throws IOException {
+        var data = sibling(part, "-data");
+        delete(data);
+        Files.move(sibling(file, "-data"), data);
+
+        Files.writeString(part, shell(data, sibling(file, "-search")), StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public Observer<ReportEntity> getReportObserver() {
+        return new Observer<>() {
+            @Override
+            public void onSubscribe(@NonNull final Disposable disposable) {
+            }
+
+            @Override
+            public void onNext(@NonNull final ReportEntity entity) {
+                write(entity.getReport());
+            }
+
+            @Override
+            public void onError(@NonNull final Throwable e) {
+                FileLog.warn("Lite reporter failed", e);
+            }
+
+            @Override
+            public void onComplete() {
+            }
+        };
+    }
+
+    /**
+     * Writes the summary and the pages of the tests that changed since the previous write. The page of the report is
+     * written with the data directory, which is new on the first write and after {@link #copyPart(Path, Path)} moved
+     * the previous one away.
+     * <p>
+     *
+     * @param report {@link Report} model to be written.
+     */
+    private void write(@NonNull final Report report) {
+        try {
+            if (!Files.isDirectory(data)) {
+                written.clear();
+                Files.createDirectories(data);
+                writeShell();
+            }
+            writeSummary(report);
+
+            var tests = new HashSet<Integer>();
+            for (var test : List.copyOf(report.getTestList())) {
+                tests.add(test.getId());
+                writePages(test);
+            }
+
+            for (var it = written.entrySet().iterator(); it.hasNext(); ) {
+                var entry = it.next();
+                if (tests.contains(entry.getKey())) continue;
+
+                deletePages(entry.getKey(), 0, entry.getValue().length);
+                it.remove();
+            }
+        } catch (IOException e) {
+            throw new FrameworkException(String.format("Failed to write report [%s]", file), e);
+        }
+    }
+
+    /**
+     * Writes summary.js: the name and times of the report, every test with its status, node count, page count and
+     * the node counts per status, and the system info.
+     * <p>
+     *
+     * @param report {@link Report} model to be written.
+     * @throws IOException If the file cannot be written.
+     */
+    private void writeSummary(@NonNull final Report report) throws IOException {
+        try (var out = Files.newBufferedWriter(data.resolve("summary.js"), StandardCharsets.UTF_8)) {
+            out.write("pframe.load(\"summary\",{\"name\":");
+            Json.writeString(out, file.getFileName().toString());
+            out.write(",\"start\":");
+            out.write(time(report.getStartTime()));
+            out.write(",\"end\":");
+            out.write(time(report.getEndTime()));
+            out.write(",\"tests\":[");
+
+            var first = true;
+            for (var test : List.copyOf(report.getTestList())) {
+                var counts = new int[Status.values().length];
+                var nodes = List.copyOf(test.getChildren());
+                for (var node : nodes) counts[node.getStatus().ordinal()]++;
+
+                if (!first) out.write(',');
+                first = false;
+
+                out.write("{\"id\":" + test.getId() + ",\"name\":");
+                Json.writeString(out, test.getName());
+                out.write(",\"status\":\"" + status(test.getStatus()) + "\",\"nodes\":" + nodes.size()
+                        + ",\"pages\":" + pages(nodes.size()) + ",\"counts\":{");
+                var separator = "";
+                for (var status : Status.values()) {
+                    if (counts[status.ordinal()] == 0) continue;
+
+                    out.write(separator + "\"" + status(status) + "\":" + counts[status.ordinal()]);
+                    separator = ",";
+                }
+                out.write("}}");
+            }
+            out.write("],\"info\":[");
+
+            first = true;
+            for (var info : List.copyOf(report.getSystemEnvInfo())) {
+                if (!first) out.write(',');
+                first = false;
+
+                out.write("{\"name\":");
+                Json.writeString(out, info.getName());
+                out.write(",\"value\":");
+                Json.writeString(out, info.getValue() != null ? info.getValue() : "");
+                out.write('}');
+            }
+            out.write("]});\n");
+        }
+    }
+
+    /**
+     * Writes the nodes of a test as test-&lt;id&gt;-&lt;page&gt;.js files of report.lite.page nodes each. Pages
+     * whose {@link #signature(Test) signature} is the same as on the previous write are skipped, and the files of
+     * pages the test no longer has (nodes released from memory) are deleted.
+     * <p>
+     *
+     * @param test {@link Test} whose nodes are written.
+     * @throws IOException If a file cannot be written or deleted.
+     */
+    private void writePages(@NonNull final Test test) throws IOException {
+        var nodes = List.copyOf(test.getChildren());
+        var pages = pages(nodes.size());
+        var previous = written.getOrDefault(test.getId(), new long[0]);
+        var signatures = new long[pages];
+
+        for (var page = 0; page < pages; page++) {
+            var end = Math.min(nodes.size(), (page + 1) * pageSize);
+            for (var i = page * pageSize; i < end; i++) {
+                signatures[page] = 31 * signatures[page] + signature(nodes.get(i));
+            }
+            if (page < previous.length && previous[page] == signatures[page]) continue;
+
+            var key = "test-" + test.getId() + "-" + page;
+            try (var out = Files.newBufferedWriter(data.resolve(key + ".js"), StandardCharsets.UTF_8)) {
+                out.write("pframe.load(\"" + key + "\",[");
+                for (var i = page * pageSize; i < end; i++) {
+                    if (i > page * pageSize) out.write(',');
+                    writeNode(out, nodes.get(i));
+                }
+                out.write("]);\n");
+            }
+        }
+
+        deletePages(test.getId(), pages, previous.length);
+        written.put(test.getId(), signatures);
+    }
+
+    /**
+     * Deletes the test-&lt;id&gt;-&lt;page&gt;.js files of a test in the given range of pages.
+     * <p>
+     *
+     * @param test Id of the test.
+     * @param from First page to be deleted.
+     * @param to   Page after the last one to be deleted.
+     * @throws IOException If a file cannot be deleted.
+     */
+    private void deletePages(final int test, final int from, final int to) throws IOException {
+        for (var page = from; page < to; page++) {
+            Files.deleteIfExists(data.resolve("test-" + test + "-" + page + ".js"));
+        }
+    }
+
+    /**
+     * Entries are only ever added to a node, so a node is written again when its id, status, end time or number of
+     * logs changes, or when one of its child nodes does.
+     * <p>
+     *
+     * @param node {@link Test} node.
+     * @return Hash of what the page file shows of the node and its child nodes.
+     */
+    private static long signature(@NonNull final Test node) {
+        long signature = node.getId();
+        signature = 31 * signature + (node.getStatus() == null ? -1 : node.getStatus().ordinal());
+        signature = 31 * signature + (node.getEndTime() == null ? 0 : node.getEndTime().getTime());
+        signature = 31 * signature + node.getLogs().size();
+
+        for (var child : List.copyOf(node.getChildren())) signature = 31 * signature + signature(child);
+        return signature;
+    }
+
+    /**
+     * Writes a node as JSON, with its logs and its child nodes.
+     * <p>
+     *
+     * @param out  {@link Writer} of the page file.
+     * @param node {@link Test} node to be written.
+     * @throws IOException If the node cannot be written.
+     */
+    private void writeNode(@NonNull final Writer out, @NonNull final Test node) throws IOException {
+        out.write("{\"id\":" + node.getId() + ",\"name\":");
+        Json.writeString(out, node.getName());
+        out.write(",\"status\":\"" + status(node.getStatus()) + "\",\"start\":" + time(node.getStartTime())
+                + ",\"end\":" + time(node.getEndTime()) + ",\"logs\":[");
+
+        var first = true;
+        for (var log : List.copyOf(node.getLogs())) {
+            if (!first) out.write(',');
+            first = false;
+            writeLog(out, log);
+        }
+        out.write("],\"children\":[");
+
+        first = true;
+        for (var child : List.copyOf(node.getChildren())) {
+            if (!first) out.write(',');
+            first = false;
+            writeNode(out, child);
+        }
+        out.write("]}");
+    }
+
+    /**
+     * Writes a log entry as JSON: status, time, details and, if present, the exception and the media path.
+     * <p>
+     *
+     * @param out {@link Writer} of the page file.
+     * @param log {@link Log} entry to be written.
+     * @throws IOException If the entry cannot be written.
+     */
+    private void writeLog(@NonNull final Writer out, @NonNull final Log log) throws IOException {
+        out.write("{\"status\":\"" + status(log.getStatus()) + "\",\"time\":" + time(log.getTimestamp())
+                + ",\"details\":");
+        Json.writeString(out, log.getDetails() != null ? log.getDetails() : "");
+
+        if (log.getException() != null) {
+            out.write(",\"exception\":");
+            Json.writeString(out, log.getException().getStackTrace());
+        }
+
+        var media = log.getMedia();
+        if (media != null && media.getPath() != null) {
+            out.write(",\"media\":");
+            Json.writeString(out, media.getPath());
+        }
+        out.write('}');
+    }
+
+    /**
+     * Deletes a directory with its files, if it exists.
+     * <p>
+     *
+     * @param directory {@link Path} of the directory.
+     * @throws IOException If a file cannot be deleted.
+     */
+    private static void delete(@NonNull final Path directory) throws IOException {
+        if (!Files.exists(directory)) return;
+
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (var file : files.sorted(Comparator.reverseOrder()).toList()) Files.delete(file);
+        }
+    }
+
+    /**
+     * Writes the page of the report.
+     * <p>
+     *
+     * @throws IOException If the page cannot be written.
+     */
+    private void writeShell() throws IOException {
+        Files.writeString(file, shell(data, search), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @param data   {@link Path} of the data directory the page reads.
+     * @param search {@link Path} of the search index directory.
+     * @return Page of a report reading the given data directory.
+     */
+    private static String shell(@NonNull final Path data, @NonNull final Path search) {
+        return SHELL.replace("@DATA@", data.getFileName().toString())
+                .replace("@SEARCH@", Config.VALUES.isReportSearch() ? search.getFileName().toString() : "");
+    }
+
+    /**
+     * @param file   {@link Path} of a report page, e.g. index.html.
+     * @param suffix Suffix of the sibling, e.g. -data.
+     * @return {@link Path} next to the page, named after it without extension plus the suffix, e.g. index-data.
+     */
+    private static Path sibling(@NonNull final Path file, @NonNull final String suffix) {
+        var name = file.getFileName().toString();
+        var baseName = name.endsWith(".html") ? name.substring(0, name.length() - ".html".length()) : name;
+        return file.resolveSibling(baseName + suffix);
+    }
+
+    /**
+     * @param nodes Number of nodes of a test.
+     * @return Number of pages needed for the nodes.
+     */
+    private int pages(final int nodes) {
+        return (nodes + pageSize - 1) / pageSize;
+    }
+
+    /**
+     * @param status {@link Status} of a test, node or log, can be null.
+     * @return Status in lower case as used by the page, info if not set.
+     */
+    private static String status(final Status status) {
+        return status == null ? "info" : status.name().toLowerCase();
+    }
+
+    /**
+     * @param date {@link Date} to be written, can be null.
+     * @return Milliseconds since the epoch, or null as JSON literal.
+     */
+    private static String time(final Date date) {
+        return date == null ? "null" : Long.toString(date.getTime());
+    }
+}
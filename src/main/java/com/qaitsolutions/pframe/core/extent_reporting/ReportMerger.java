@@ -0,0 +1,397 @@
+package com.qaitsolutions.pframe.core.extent_reporting;
+
+import com.qaitsolutions.pframe.core.exceptions.FrameworkException;
+import lombok.NonNull;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+/**
+ * Merges the results of several JVMs or suites into one index. The inputs are the JSON lines files written with
+ * -Dreport.results=jsonl (see {@link JsonLinesResultWriter}), e.g. one per surefire fork:
+ * <pre>
+ *     java -cp &lt;classpath&gt; com.qaitsolutions.pframe.core.extent_reporting.ReportMerger \
+ *         target/merged fork-1/extent-reports/results fork-2/extent-reports/results
+ * </pre>
+ * Directories are searched for *.jsonl files. The output directory gets results.jsonl, the concatenation of all
+ * shards, and index.html with the totals, a summary per suite and class and the list of failed tests.
+ * <p>
+ * The shards are read line by line, twice: the first pass copies the lines and counts the results per class, the
+ * second one writes the failures. Only the per-class counters are kept in memory, whatever the number of tests.
+ * <p>
+ * A line that is not a complete JSON object with a status (e.g. the last line of a fork that was killed while
+ * writing it) is skipped, and the number of skipped lines is shown in the index.
+ * <p>
+ *
+ * @author Iulian Andrei (iulian.andrei@qaitsolutions.com)
+ * @since 1.1
+ */
+public final class ReportMerger {
+
+    private static final String[] STATUSES = {"PASS", "FAIL", "SKIP"};
+
+    private final List<Path> shards;
+    private final Map<String, long[]> classes = new TreeMap<>();
+    private final long[] totals = new long[STATUSES.length];
+
+    private long malformed;
+
+    /**
+     * @param shards {@link Path}s of the shard files.
+     */
+    private ReportMerger(@NonNull final List<Path> shards) {
+        this.shards = shards;
+    }
+
+    /**
+     * Command line entry point.
+     * <p>
+     *
+     * @param args Output directory, followed by the shard files or directories.
+     */
+    public static void main(String[] args) {
+        if (args.length < 2) {
+            System.err.println("Usage: ReportMerger <output directory> <shard file or directory>...");
+            System.exit(2);
+        }
+
+        var inputs = new ArrayList<Path>();
+        for (var i = 1; i < args.length; i++) inputs.add(Paths.get(args[i]));
+
+        var merger = run(Paths.get(args[0]), inputs);
+        System.out.printf("Merged %d results into %s%n", merger.tests(), args[0]);
+        if (merger.malformed > 0) System.err.printf("Skipped %d malformed lines%n", merger.malformed);
+    }
+
+    /**
+     * Merges the given shards.
+     * <p>
+     *
+     * @param output {@link Path} of the output directory.
+     * @param inputs {@link Path}s of JSON lines files, or of directories holding them.
+     * @return Number of results merged.
+     */
+    public static long merge(@NonNull final Path output, @NonNull final List<Path> inputs) {
+        return run(output, inputs).tests();
+    }
+
+    /**
+     * Merges the given shards.
+     * <p>
+     *
+     * @param output {@link Path} of the output directory.
+     * @param inputs {@link Path}s of JSON lines files, or of directories holding them.
+     * @return {@link ReportMerger} holding the counts of the merge.
+     */
+    private static ReportMerger run(@NonNull final Path output, @NonNull final List<Path> inputs) {
+        var merged = output.resolve("results.jsonl");
+        var shards = shards(inputs);
+        shards.removeIf(shard -> shard.toAbsolutePath().normalize().equals(merged.toAbsolutePath().normalize()));
+
+        var merger = new ReportMerger(shards);
+        try {
+            Files.createDirectories(output);
+            merger.copy(merged);
+            merger.writeIndex(output.resolve("index.html"));
+        } catch (IOException e) {
+            throw new FrameworkException(String.format("Failed to merge results into [%s]", output), e);
+        }
+
+        return merger;
+    }
+
+    /**
+     * @return Number of results merged.
+     */
+    private long tests() {
+        var tests = 0L;
+        for (var count : totals) tests += count;
+        return tests;
+    }
+
+    /**
+     * First pass: concatenates the shards and counts the results per suite and class.
+     */
+    private void copy(@NonNull final Path merged) throws IOException {
+        try (var out = Files.newBufferedWriter(merged, StandardCharsets.UTF_8)) {
+            for (var shard : shards) {
+                try (var in = reader(shard)) {
+                    for (var line = in.readLine(); line != null; line = in.readLine()) {
+                        if (line.isBlank()) continue;
+
+                        Map<String, String> result;
+                        try {
+                            result = parse(line);
+                        } catch (IllegalArgumentException e) {
+                            malformed++;
+                            continue;
+                        }
+
+                        var status = status(result.get("status"));
+                        var key = result.getOrDefault("suite", "") + "\u0000" + result.getOrDefault("class", "");
+
+                        classes.computeIfAbsent(key, k -> new long[STATUSES.length])[status]++;
+                        totals[status]++;
+
+                        out.write(line);
+                        out.write('\n');
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes the index, then the failures in a second pass over the shards.
+     */
+    private void writeIndex(@NonNull final Path index) throws IOException {
+        try (var out = Files.newBufferedWriter(index, StandardCharsets.UTF_8)) {
+            out.write("<!DOCTYPE html>\n<html><head><meta charset='utf-8'><title>Merged report</title><style>"
+                    + "body{font-family:sans-serif;margin:2em}table{border-collapse:collapse;margin-bottom:2em}"
+                    + "td,th{border:1px solid #ccc;padding:4px 8px;text-align:left}.FAIL{color:#c00}"
+                    + ".PASS{color:#070}.SKIP{color:#b70}</style></head><body>\n");
+            out.write(String.format("<h1>Merged report</h1>%n<p>%d shards, %d passed, %d failed, %d skipped</p>%n",
+                    shards.size(), totals[0], totals[1], totals[2]));
+            if (malformed > 0)
+                out.write(String.format("<p class='FAIL'>%d malformed lines were skipped</p>%n", malformed));
+
+            out.write("<h2>Classes</h2>\n<table><tr><th>Suite</th><th>Class</th><th>Passed</th><th>Failed</th>"
+                    + "<th>Skipped</th></tr>\n");
+            for (var entry : classes.entrySet()) {
+                var key = entry.getKey();
+                var separator = key.indexOf('\u0000');
+                var counts = entry.getValue();
+
+                out.write("<tr><td>");
+                escape(out, key.substring(0, separator));
+                out.write("</td><td>");
+                escape(out, key.substring(separator + 1));
+                out.write(String.format("</td><td>%d</td><td class='%s'>%d</td><td>%d</td></tr>%n",
+                        counts[0], counts[1] > 0 ? "FAIL" : "", counts[1], counts[2]));
+            }
+            out.write("</table>\n");
+
+            out.write("<h2>Failures</h2>\n<table><tr><th>Suite</th><th>Test</th><th>Error</th></tr>\n");
+            for (var shard : shards) {
+                try (var in = reader(shard)) {
+                    for (var line = in.readLine(); line != null; line = in.readLine()) {
+                        if (line.isBlank() || !line.contains("\"FAIL\"")) continue;
+
+                        Map<String, String> result;
+                        try {
+                            result = parse(line);
+                        } catch (IllegalArgumentException e) {
+                            continue;
+                        }
+
+                        if (status(result.get("status")) != 1) continue;
+
+                        out.write("<tr><td>");
+                        escape(out, result.getOrDefault("suite", ""));
+                        out.write("</td><td>");
+                        escape(out, result.getOrDefault("class", "") + "." + result.getOrDefault("name", ""));
+                        out.write("</td><td class='FAIL'>");
+                        escape(out, result.getOrDefault("error", ""));
+                        out.write("</td></tr>\n");
+                    }
+                }
+            }
+            out.write("</table>\n</body></html>\n");
+        }
+    }
+
+    /**
+     * @param inputs {@link Path}s of JSON lines files, or of directories holding them.
+     * @return {@link Path}s of the shard files, the ones found in a directory in name order.
+     */
+    private static List<Path> shards(@NonNull final List<Path> inputs) {
+        var shards = new ArrayList<Path>();
+
+        for (var input : inputs) {
+            if (!Files.isDirectory(input)) {
+                shards.add(input);
+                continue;
+            }
+
+            try (Stream<Path> files = Files.walk(input)) {
+                files.filter(file -> file.toString().endsWith(".jsonl")).sorted().forEach(shards::add);
+            } catch (IOException e) {
+                throw new FrameworkException(String.format("Failed to list shards in [%s]", input), e);
+            }
+        }
+
+        return shards;
+    }
+
+    /**
+     * @param shard {@link Path} of a shard.
+     * @return {@link BufferedReader} of the shard, in UTF-8.
+     */
+    private static BufferedReader reader(@NonNull final Path shard) throws IOException {
+        return Files.newBufferedReader(shard, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @param status Status of a result, e.g. FAIL.
+     * @return Index of the status in the counters, SKIP if it is not recognized.
+     */
+    private static int status(final String status) {
+        for (var i = 0; i < STATUSES.length; i++) {
+            if (STATUSES[i].equals(status)) return i;
+        }
+
+        return 2;
+    }
+
+    /**
+     * Parses a flat JSON object as written by {@link JsonLinesResultWriter}. Nested values are not supported,
+     * numbers, booleans and null are returned as text.
+     * <p>
+     *
+     * @param line JSON object.
+     * @return {@link Map} of the members.
+     * @throws IllegalArgumentException If the line is not a complete object with a status, or has a malformed
+     *                                  escape.
+     */
+    static Map<String, String> parse(@NonNull final String line) {
+        var members = new HashMap<String, String>();
+        var position = new int[]{line.indexOf('{') + 1};
+        if (position[0] == 0) throw new IllegalArgumentException("Not a JSON object");
+
+        while (true) {
+            skip(line, position, ',');
+            if (position[0] < line.length() && line.charAt(position[0]) == '}') {
+                if (!members.containsKey("status")) throw new IllegalArgumentException("Result without status");
+                return members;
+            }
+            if (position[0] >= line.length() || line.charAt(position[0]) != '"')
+                throw new IllegalArgumentException("Incomplete JSON object");
+
+            var key = readString(line, position);
+            skip(line, position, ':');
+
+            String value;
+            if (position[0] < line.length() && line.charAt(position[0]) == '"') {
+                value = readString(line, position);
+            } else {
+                var start = position[0];
+                while (position[0] < line.length() && ",}".indexOf(line.charAt(position[0])) < 0) position[0]++;
+                value = line.substring(start, position[0]).trim();
+                if (position[0] >= line.length()) throw new IllegalArgumentException("Incomplete JSON object");
+            }
+
+            members.put(key, value);
+        }
+    }
+
+    /**
+     * Moves the position past whitespace and the given separator.
+     * <p>
+     *
+     * @param line      JSON object.
+     * @param position  Current position, updated in place.
+     * @param separator Separator to be skipped, e.g. ',' or ':'.
+     */
+    private static void skip(@NonNull final String line, final int[] position, final char separator) {
+        while (position[0] < line.length()
+                && (Character.isWhitespace(line.charAt(position[0])) || line.charAt(position[0]) == separator)) {
+            position[0]++;
+        }
+    }
+
+    /**
+     * Reads a JSON string, decoding its escapes.
+     * <p>
+     *
+     * @param line     JSON object.
+     * @param position Position of the opening quote, moved past the closing quote.
+     * @return Decoded string.
+     * @throws IllegalArgumentException If the string is not closed or has a malformed escape.
+     */
+    private static String readString(@NonNull final String line, final int[] position) {
+        var value = new StringBuilder();
+
+        for (var i = position[0] + 1; i < line.length(); i++) {
+            var c = line.charAt(i);
+            if (c == '"') {
+                position[0] = i + 1;
+                return value.toString();
+            }
+
+            if (c != '\\') {
+                value.append(c);
+                continue;
+            }
+
+            if (++i >= line.length()) break;
+
+            var escaped = line.charAt(i);
+            switch (escaped) {
+                case 'n' -> value.append('\n');
+                case 'r' -> value.append('\r');
+                case 't' -> value.append('\t');
+                case 'b' -> value.append('\b');
+                case 'f' -> value.append('\f');
+                case '"', '\\', '/' -> value.append(escaped);
+                case 'u' -> {
+                    value.append(hex(line, i + 1));
+                    i += 4;
+                }
+                default -> throw new IllegalArgumentException(String.format("Invalid escape [\\%s]", escaped));
+            }
+        }
+
+        throw new IllegalArgumentException("Unterminated string");
+    }
+
+    /**
+     * @param line  JSON object.
+     * @param start Position of the 4 hex digits of a backslash-u escape.
+     * @return Decoded character.
+     * @throws IllegalArgumentException If the escape is truncated or not hexadecimal.
+     */
+    private static char hex(@NonNull final String line, final int start) {
+        if (start + 4 > line.length()) throw new IllegalArgumentException("Truncated unicode escape");
+
+        var code = 0;
+        for (var i = start; i < start + 4; i++) {
+            var digit = Character.digit(line.charAt(i), 16);
+            if (digit < 0) throw new IllegalArgumentException("Invalid unicode escape");
+            code = code * 16 + digit;
+        }
+
+        return (char) code;
+    }
+
+    /**
+     * Writes text escaped for HTML element content and single-quoted attributes.
+     * <p>
+     *
+     * @param out   {@link Writer} of the index.
+     * @param value Text to be escaped.
+     * @throws IOException If the text cannot be written.
+     */
+    private static void escape(@NonNull final Writer out, @NonNull final String value) throws IOException {
+        for (var i = 0; i < value.length(); i++) {
+            var c = value.charAt(i);
+            switch (c) {
+                case '&' -> out.write("&amp;");
+                case '<' -> out.write("&lt;");
+                case '>' -> out.write("&gt;");
+                case '\'' -> out.write("&#39;");
+                default -> out.write(c);
+            }
+        }
+    }
+}
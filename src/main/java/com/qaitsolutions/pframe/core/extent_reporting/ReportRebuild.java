@@ -0,0 +1,219 @@
+package com.qaitsolutions.pframe.core.extent_reporting;
+
+import com.aventstack.extentreports.ExtentReports;
+import com.aventstack.extentreports.ExtentTest;
+import com.aventstack.extentreports.MediaEntityBuilder;
+import com.aventstack.extentreports.Status;
+import com.qaitsolutions.pframe.core.exceptions.FrameworkException;
+import lombok.NonNull;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Renders the HTML report from a {@link ReportSpool} file. Used at the end of the suite when report.spool=render,
+ * and from the command line to recover the report of a run that did not finish:
+ * <pre>
+ *     java -cp &lt;classpath&gt; com.qaitsolutions.pframe.core.extent_reporting.ReportRebuild \
+ *         target/extent-reports/index.spool target/extent-reports/index.html
+ * </pre>
+ * The spool is read sequentially, so only the report model is kept in memory.
+ * <p>
+ *
+ * @author Iulian Andrei (iulian.andrei@qaitsolutions.com)
+ * @since 1.1
+ */
+public final class ReportRebuild {
+
+    private static final Status[] STATUSES = Status.values();
+
+    private final ExtentReports report = new ExtentReports();
+    private final Map<Integer, ExtentTest> tests = new HashMap<>();
+    private final List<String> strings = new ArrayList<>();
+
+    private ReportRebuild(@NonNull final String output) {
+        report.attachReporter(ReporterProvider.forReport(output));
+    }
+
+    /**
+     * Command line entry point.
+     * <p>
+     *
+     * @param args Path of the spool file and path of the HTML report to be written.
+     */
+    public static void main(String[] args) {
+        if (args.length != 2) {
+            System.err.println("Usage: ReportRebuild <spool file> <html report>");
+            System.exit(2);
+        }
+
+        var entries = render(Paths.get(args[0]), Paths.get(args[1]));
+        System.out.printf("Rebuilt %s from %d spool records%n", args[1], entries);
+    }
+
+    /**
+     * Renders the report stored in the spool.
+     * <p>
+     *
+     * @param spool  {@link Path} of the spool file.
+     * @param output {@link Path} of the HTML report to be written.
+     * @return Number of records read.
+     */
+    public static long render(@NonNull final Path spool, @NonNull final Path output) {
+        var rebuild = new ReportRebuild(output.toString());
+
+        try (var in = new DataInputStream(new BufferedInputStream(Files.newInputStream(spool), 64 * 1024))) {
+            var records = rebuild.replay(in);
+            rebuild.report.flush();
+
+            return records;
+        } catch (IOException e) {
+            throw new FrameworkException(String.format("Failed to read report spool [%s]", spool), e);
+        }
+    }
+
+    /**
+     * Replays the records of the spool into the report. Every record is read whole before it is applied, so a
+     * record cut short, whether its type byte was never written or the file itself was truncated, ends the replay
+     * without touching the report.
+     * <p>
+     *
+     * @param in Stream of the spool file.
+     * @return Number of records read.
+     */
+    private long replay(@NonNull final DataInputStream in) throws IOException {
+        var records = 0L;
+
+        while (true) {
+            int type;
+            byte[] payload;
+            try {
+                type = in.readByte();
+                if (type == 0) return records;
+
+                payload = new byte[in.readInt()];
+                in.readFully(payload);
+            } catch (EOFException e) {
+                return records;
+            }
+
+            apply(type, new DataInputStream(new ByteArrayInputStream(payload)));
+            records++;
+        }
+    }
+
+    /**
+     * Applies a record to the report.
+     * <p>
+     *
+     * @param type Type of the record.
+     * @param in   Stream of the payload of the record.
+     */
+    private void apply(final int type, @NonNull final DataInputStream in) throws IOException {
+        switch (type) {
+            case ReportSpool.TEST -> {
+                var id = in.readInt();
+                var test = report.createTest(readString(in));
+                test.getModel().setStartTime(new Date(in.readLong()));
+                tests.put(id, test);
+            }
+            case ReportSpool.NODE -> {
+                var id = in.readInt();
+                var parent = tests.get(in.readInt());
+                var name = readString(in);
+                var start = new Date(in.readLong());
+
+                if (parent != null) {
+                    var node = parent.createNode(name);
+                    node.getModel().setStartTime(start);
+                    tests.put(id, node);
+                }
+            }
+            case ReportSpool.RENAME -> {
+                var test = tests.get(in.readInt());
+                var name = readString(in);
+                if (test != null) test.getModel().setName(name);
+            }
+            case ReportSpool.REMOVE -> {
+                var test = tests.remove(in.readInt());
+                if (test != null) report.removeTest(test);
+            }
+            case ReportSpool.LOG, ReportSpool.MARKUP, ReportSpool.MEDIA -> entry(type, in);
+            default -> {
+            }
+        }
+    }
+
+    /**
+     * Adds an entry to its node, with the time it was logged, and extends the end time of the node and of its
+     * parents. Entries of nodes that were removed are skipped.
+     * <p>
+     *
+     * @param type Type of the record, one of {@link ReportSpool#LOG}, {@link ReportSpool#MARKUP} and
+     *             {@link ReportSpool#MEDIA}.
+     * @param in   Stream of the payload of the record.
+     */
+    private void entry(final int type, @NonNull final DataInputStream in) throws IOException {
+        var test = tests.get(in.readInt());
+        var time = new Date(in.readLong());
+        var status = STATUSES[in.readByte()];
+        var text = readString(in);
+
+        if (type == ReportSpool.MEDIA) {
+            var path = readString(in);
+            var base64 = readString(in);
+            if (test == null) return;
+
+            var media = base64 != null
+                    ? MediaEntityBuilder.createScreenCaptureFromBase64String(base64).build()
+                    : MediaEntityBuilder.createScreenCaptureFromPath(path).build();
+            test.log(status, text, media);
+        } else if (test == null) {
+            return;
+        } else if (type == ReportSpool.MARKUP) {
+            test.log(status, () -> text);
+        } else {
+            test.log(status, text);
+        }
+
+        var logs = test.getModel().getLogs();
+        logs.get(logs.size() - 1).setTimestamp(time);
+
+        for (var model = test.getModel(); model != null; model = model.getParent()) model.setEndTime(time);
+    }
+
+    /**
+     * Reads a string written by the spool, remembering the ones it defines.
+     * <p>
+     *
+     * @param in Stream of the payload of the record.
+     * @return The string, can be null.
+     */
+    private String readString(@NonNull final DataInputStream in) throws IOException {
+        var id = in.readInt();
+        if (id == ReportSpool.NULL) return null;
+        if (id >= 0) return strings.get(id);
+
+        var define = id == ReportSpool.DEFINE;
+        if (define) id = in.readInt();
+
+        var bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        var value = new String(bytes, StandardCharsets.UTF_8);
+
+        if (define) strings.add(value);
+        return value;
+    }
+}
@@ -0,0 +1,346 @@
+package com.qaitsolutions.pframe.core.extent_reporting;
+
+import com.aventstack.extentreports.ExtentTest;
+import com.aventstack.extentreports.Status;
+import com.aventstack.extentreports.model.Media;
+import com.aventstack.extentreports.model.ScreenCapture;
+import com.qaitsolutions.pframe.core.exceptions.FrameworkException;
+import com.qaitsolutions.pframe.core.logging.FileLog;
+import lombok.Getter;
+import lombok.NonNull;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Append-only binary journal of a report: tests, nodes and every entry logged into them.
+ * <p>
+ * The file is written through a memory-mapped region, so appending a record is a copy into memory and the data
+ * survives the JVM being killed. Strings seen before (node names, repeated messages such as "Configuration
+ * [Before Method] has started") are stored once and referenced by id afterwards.
+ * <p>
+ * Each record is [type:byte][length:int][payload]. The type byte is written last, so a record cut short by a
+ * crash reads as the end of the file. {@link ReportRebuild} renders the HTML report from the file.
+ * <p>
+ *
+ * @author Iulian Andrei (iulian.andrei@qaitsolutions.com)
+ * @since 1.1
+ */
+public final class ReportSpool {
+
+    static final byte TEST = 1;
+    static final byte NODE = 2;
+    static final byte RENAME = 3;
+    static final byte LOG = 4;
+    static final byte MARKUP = 5;
+    static final byte MEDIA = 6;
+    static final byte REMOVE = 7;
+
+    static final int NULL = -1;
+    static final int INLINE = -2;
+    static final int DEFINE = -3;
+
+    private static final long REGION_SIZE = 16L * 1024 * 1024;
+    private static final int MAX_STRINGS = 65_536;
+    private static final int MAX_STRING_LENGTH = 512;
+    private static final int MAX_RETAINED_PAYLOAD = 1024 * 1024;
+
+    @Getter
+    private final Path file;
+    @Getter
+    private final boolean renderOnly;
+
+    private final FileChannel channel;
+    private final Map<String, Integer> strings = new HashMap<>();
+
+    private MappedByteBuffer region;
+    private long regionStart;
+    private boolean closed;
+    private ByteBuffer payload = ByteBuffer.allocate(8192);
+
+    /**
+     * Creates the spool, replacing an existing file.
+     * <p>
+     *
+     * @param file       {@link Path} of the spool file.
+     * @param renderOnly True if the report entries are kept only in the spool and the report is rendered from it.
+     */
+    public ReportSpool(@NonNull final Path file, final boolean renderOnly) {
+        this.file = file;
+        this.renderOnly = renderOnly;
+
+        try {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+            this.region = channel.map(FileChannel.MapMode.READ_WRITE, 0, REGION_SIZE);
+        } catch (IOException e) {
+            throw new FrameworkException(String.format("Failed to create report spool [%s]", file), e);
+        }
+    }
+
+    /**
+     * Records a new test.
+     * <p>
+     *
+     * @param test {@link ExtentTest} that was created.
+     */
+    public synchronized void test(@NonNull final ExtentTest test) {
+        payload.clear();
+        putInt(test.getModel().getId());
+        putString(test.getModel().getName());
+        putLong(System.currentTimeMillis());
+        append(TEST);
+    }
+
+    /**
+     * Records a new node.
+     * <p>
+     *
+     * @param parent {@link ExtentTest} the node belongs to.
+     * @param node   {@link ExtentTest} node that was created.
+     */
+    public synchronized void node(@NonNull final ExtentTest parent, @NonNull final ExtentTest node) {
+        payload.clear();
+        putInt(node.getModel().getId());
+        putInt(parent.getModel().getId());
+        putString(node.getModel().getName());
+        putLong(System.currentTimeMillis());
+        append(NODE);
+    }
+
+    /**
+     * Records the new name of a test or node.
+     * <p>
+     *
+     * @param test {@link ExtentTest} that was renamed.
+     */
+    public synchronized void rename(@NonNull final ExtentTest test) {
+        payload.clear();
+        putInt(test.getModel().getId());
+        putString(test.getModel().getName());
+        append(RENAME);
+    }
+
+    /**
+     * Records the removal of a node from the report.
+     * <p>
+     *
+     * @param node {@link ExtentTest} node that was removed.
+     * @since 1.1
+     */
+    public synchronized void remove(@NonNull final ExtentTest node) {
+        payload.clear();
+        putInt(node.getModel().getId());
+        append(REMOVE);
+    }
+
+    /**
+     * Records a text entry.
+     * <p>
+     *
+     * @param test    {@link ExtentTest} the entry belongs to.
+     * @param status  {@link Status} of the entry.
+     * @param message Text of the entry.
+     */
+    public synchronized void log(@NonNull final ExtentTest test, @NonNull final Status status,
+                                 @NonNull final String message) {
+        entry(test, status);
+        putString(message);
+        append(LOG);
+    }
+
+    /**
+     * Records a markup entry.
+     * <p>
+     *
+     * @param test   {@link ExtentTest} the entry belongs to.
+     * @param status {@link Status} of the entry.
+     * @param markup HTML of the markup.
+     */
+    public synchronized void markup(@NonNull final ExtentTest test, @NonNull final Status status,
+                                    @NonNull final String markup) {
+        entry(test, status);
+        putString(markup);
+        append(MARKUP);
+    }
+
+    /**
+     * Records an entry with a screenshot.
+     * <p>
+     *
+     * @param test    {@link ExtentTest} the entry belongs to.
+     * @param status  {@link Status} of the entry.
+     * @param message Text of the entry.
+     * @param media   {@link Media} of the screenshot, either a path or a base64 string.
+     */
+    public synchronized void media(@NonNull final ExtentTest test, @NonNull final Status status,
+                                   @NonNull final String message, @NonNull final Media media) {
+        entry(test, status);
+        putString(message);
+        putString(media.getPath());
+        putString(media instanceof ScreenCapture capture ? capture.getBase64() : null);
+        append(MEDIA);
+    }
+
+    /**
+     * Forces the written records to the storage device.
+     */
+    public synchronized void force() {
+        if (!closed) region.force();
+    }
+
+    /**
+     * Forces the written records to the storage device, cuts the file at the end of the last record and closes
+     * it. Records logged afterwards are ignored. Does nothing if the spool is already closed.
+     * <p>
+     * Some platforms do not allow truncating a file that is still mapped; there the file keeps its zero padding,
+     * which {@link ReportRebuild} reads as the end of the records.
+     */
+    public synchronized void close() {
+        if (closed) return;
+        closed = true;
+
+        try {
+            region.force();
+            truncate(regionStart + region.position());
+            channel.close();
+        } catch (IOException e) {
+            throw new FrameworkException(String.format("Failed to close report spool [%s]", file), e);
+        }
+    }
+
+    /**
+     * Cuts the file at the given size, leaving it as is if the platform refuses while the file is mapped.
+     * <p>
+     *
+     * @param size Size of the written records.
+     */
+    private void truncate(final long size) {
+        try {
+            channel.truncate(size);
+        } catch (IOException e) {
+            FileLog.debug(String.format("Report spool [%s] keeps its padding: %s", file, e.getMessage()));
+        }
+    }
+
+    /**
+     * Starts the payload of an entry: the node, the time and the status.
+     * <p>
+     *
+     * @param test   {@link ExtentTest} the entry belongs to.
+     * @param status {@link Status} of the entry.
+     */
+    private void entry(@NonNull final ExtentTest test, @NonNull final Status status) {
+        payload.clear();
+        putInt(test.getModel().getId());
+        putLong(System.currentTimeMillis());
+        ensurePayload(1);
+        payload.put((byte) status.ordinal());
+    }
+
+    /**
+     * Copies the payload into the mapped region, mapping the next region when the current one is full. Does
+     * nothing once the spool is closed.
+     * <p>
+     *
+     * @param type Type of the record.
+     */
+    private void append(final byte type) {
+        if (closed) return;
+
+        payload.flip();
+        var size = 1 + Integer.BYTES + payload.remaining();
+
+        if (region.remaining() < size) {
+            try {
+                regionStart += region.position();
+                region.force();
+                region = channel.map(FileChannel.MapMode.READ_WRITE, regionStart, Math.max(REGION_SIZE, size));
+            } catch (IOException e) {
+                throw new FrameworkException(String.format("Failed to extend report spool [%s]", file), e);
+            }
+        }
+
+        var start = region.position();
+        region.position(start + 1);
+        region.putInt(payload.remaining());
+        region.put(payload);
+        region.put(start, type);
+
+        if (payload.capacity() > MAX_RETAINED_PAYLOAD) payload = ByteBuffer.allocate(8192);
+    }
+
+    /**
+     * Adds a string to the payload: {@link #NULL}, the id of a string defined before, {@link #DEFINE} followed by
+     * a new id and the UTF-8 bytes, or {@link #INLINE} followed by the bytes for strings too long to be kept or
+     * once the table is full.
+     * <p>
+     *
+     * @param value String to be added, can be null.
+     */
+    private void putString(final String value) {
+        if (value == null) {
+            putInt(NULL);
+            return;
+        }
+
+        var id = strings.get(value);
+        if (id != null) {
+            putInt(id);
+            return;
+        }
+
+        if (value.length() <= MAX_STRING_LENGTH && strings.size() < MAX_STRINGS) {
+            id = strings.size();
+            strings.put(value, id);
+            putInt(DEFINE);
+            putInt(id);
+        } else {
+            putInt(INLINE);
+        }
+
+        var bytes = value.getBytes(StandardCharsets.UTF_8);
+        putInt(bytes.length);
+        ensurePayload(bytes.length);
+        payload.put(bytes);
+    }
+
+    /**
+     * Adds an int to the payload.
+     */
+    private void putInt(final int value) {
+        ensurePayload(Integer.BYTES);
+        payload.putInt(value);
+    }
+
+    /**
+     * Adds a long to the payload.
+     */
+    private void putLong(final long value) {
+        ensurePayload(Long.BYTES);
+        payload.putLong(value);
+    }
+
+    /**
+     * Grows the payload buffer, keeping its content, if it cannot take the given number of bytes.
+     * <p>
+     *
+     * @param size Number of bytes about to be added.
+     */
+    private void ensurePayload(final int size) {
+        if (payload.remaining() >= size) return;
+
+        var larger = ByteBuffer.allocate(Math.max(payload.capacity() * 2, payload.position() + size));
+        larger.put(payload.flip());
+        payload = larger;
+    }
+}
@@ -0,0 +1,84 @@
+package com.qaitsolutions.pframe.core.extent_reporting;
+
+import com.aventstack.extentreports.observer.ExtentObserver;
+import com.qaitsolutions.pframe.core.config.Config;
+import com.qaitsolutions.pframe.core.exceptions.FrameworkException;
+import lombok.NonNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.ServiceLoader;
+import java.util.function.Function;
+
+/**
+ * Creates the Extent reporter that renders the HTML report. The reporter is selected with -Dreport.reporter:
+ * <ul>
+ *   <li> spark - ExtentSparkReporter, the whole report in a single HTML document (default)
+ *   <li> lite - {@link LiteReporter}, a small page loading the tests lazily, one page at a time
+ * </ul>
+ * Other reporters can be added through {@link ServiceLoader}, by listing the implementation in
+ * META-INF/services/com.qaitsolutions.pframe.core.extent_reporting.ReporterProvider and selecting its name.
+ * <p>
+ *
+ * @author Iulian Andrei (iulian.andrei@qaitsolutions.com)
+ * @since 1.1
+ */
+public interface ReporterProvider {
+
+    /**
+     * @return Unique name of the reporter, used as value of report.reporter.
+     */
+    String name();
+
+    /**
+     * Creates a reporter writing the given report file.
+     * <p>
+     *
+     * @param filename Path of the report file (e.g. target/extent-reports/index.html).
+     * @return Reporter to be attached to the ExtentReports object.
+     */
+    ExtentObserver<?> create(@NonNull String filename);
+
+    /**
+     * Creates the reporter selected with report.reporter.
+     * <p>
+     *
+     * @param filename Path of the report file.
+     * @return Reporter to be attached to the ExtentReports object.
+     */
+    static ExtentObserver<?> forReport(@NonNull final String filename) {
+        var name = Config.VALUES.getReportReporter();
+
+        var providers = new ArrayList<ReporterProvider>(List.of(
+                of("spark", Reporting::generateSparkReporter),
+                of("lite", LiteReporter::new)));
+        ServiceLoader.load(ReporterProvider.class).forEach(providers::add);
+
+        return providers.stream()
+                .filter(provider -> provider.name().equals(name))
+                .findFirst()
+                .orElseThrow(() -> new FrameworkException(
+                        String.format("Unknown reporter [%s] in report.reporter, use spark or lite", name)))
+                .create(filename);
+    }
+
+    /**
+     * @param name    Name of the reporter, as given in report.reporter.
+     * @param factory Creates the reporter from the path of the report file.
+     * @return Provider of one of the bundled reporters.
+     */
+    private static ReporterProvider of(@NonNull final String name,
+                                       @NonNull final Function<String, ExtentObserver<?>> factory) {
+        return new ReporterProvider() {
+            @Override
+            public String name() {
+                return name;
+            }
+
+            @Override
+            public ExtentObserver<?> create(@NonNull final String filename) {
+                return factory.apply(filename);
+            }
+        };
+    }
+}
@@ -2,14 +2,54 @@ package com.qaitsolutions.pframe.core.extent_reporting;
 
 import com.aventstack.extentreports.ExtentReports;
 import com.aventstack.extentreports.ExtentTest;
+import com.aventstack.extentreports.Status;
 import com.aventstack.extentreports.reporter.ExtentSparkReporter;
 import com.qaitsolutions.pframe.core.config.Config;
 import com.qaitsolutions.pframe.core.exceptions.FrameworkException;
+import com.qaitsolutions.pframe.core.logging.AttachmentPipeline;
+import com.qaitsolutions.pframe.core.logging.FileLog;
 import lombok.NonNull;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
 /**
  * Handles the logic of the ExtentReport in a user-friendly manner.
  * <p>
+ * The current test and node are tracked per thread, so tests running in parallel each log into their own node.
+ * Tests are indexed by name, which means that all threads running methods of the same class share one test.
+ * <p>
+ * Besides the final {@link #flush()}, the report can be written while the suite runs, see {@link #flushIfDue()}.
+ * A node is considered finished once the thread that created it moves on to another node.
+ * <p>
+ * Changes to the Extent model (tests, nodes, entries) hold the read side of a {@link ReadWriteLock}, so they run in
+ * parallel with each other, and flushing holds the write side, so the report is always written from a model no
+ * thread is changing.
+ * <p>
+ * With -Dreport.spool=journal every test, node and entry is also appended to a {@link ReportSpool} next to the
+ * report, from which {@link ReportRebuild} can recover the report of a run that was killed. With
+ * -Dreport.spool=render the entries are kept only in the spool and the report is rendered from it when flushed.
+ * <p>
+ * With -Dreport.search=true the words of every entry are added to a {@link SearchIndex}, written next to the report
+ * on every flush.
+ * <p>
+ * Invocations of a parameterized method can be grouped, see {@link #startInvocation(String)}: passed invocations
+ * are only counted in a group node, which lists the others with their parameters. An invocation is logged into a
+ * deferred node, see {@link #createDeferredNode(String)}, which is added to the report only if it did not pass.
+ * <p>
  *
  * @author Iulian Andrei (iulian.andrei@qaitsolutions.com)
  * @since 1.0
@@ -17,9 +57,29 @@ import lombok.NonNull;
 public final class Reporting {
 
     private ExtentReports report;
-    private ExtentLogger logger;
-    private ExtentTest currentTest;
-    private ExtentTest currentNode;
+    private ReportSpool spool;
+    private SearchIndex search;
+    private String reportFile;
+    private String partPrefix;
+    private int parts;
+
+    private final long flushInterval = TimeUnit.SECONDS.toNanos(Config.VALUES.getReportFlushInterval());
+    private final int flushNodes = Config.VALUES.getReportFlushNodes();
+    private final int segmentNodes = Config.VALUES.getReportSegmentNodes();
+
+    private final Queue<ExtentTest> finishedNodes = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger finishedSinceFlush = new AtomicInteger();
+    private volatile long lastFlush = System.nanoTime();
+
+    private final ExtentReports deferredReport = new ExtentReports();
+    private final ExtentTest deferredTest = deferredReport.createTest("Deferred");
+
+    private final Map<String, ExtentTest> tests = new ConcurrentHashMap<>();
+    private final Map<String, InvocationGroup> groups = new ConcurrentHashMap<>();
+    private final ThreadLocal<ExtentTest> currentTest = new ThreadLocal<>();
+    private final ThreadLocal<ExtentTest> currentNode = new ThreadLocal<>();
+    private final ThreadLocal<ExtentLogger> logger = new ThreadLocal<>();
+    private final ReadWriteLock modelLock = new ReentrantReadWriteLock();
 
     /**
      * Creates an Extent Report object with current report path
@@ -44,21 +104,28 @@ public final class Reporting {
         if (!path.endsWith("/")) path = path + "/";
         if (!filename.contains(".html")) filename = filename + ".html";
 
+        var baseName = filename.substring(0, filename.lastIndexOf(".html"));
+
+        this.reportFile = path + filename;
+        this.partPrefix = baseName + "-part-";
+        this.spool = createSpool(path + baseName + ".spool");
+        this.search = Config.VALUES.isReportSearch() ? new SearchIndex(Paths.get(path + baseName + "-search")) : null;
         this.report = new ExtentReports();
-        this.report.attachReporter(generateSparkReporter(path + filename));
+        if (spool == null || !spool.isRenderOnly()) this.report.attachReporter(ReporterProvider.forReport(reportFile));
 
         return this;
     }
 
     /**
-     * Creates a new test with given name.
+     * Sets the test with given name as current test for the calling thread. The test is created only if no
+     * test with the same name exists in the report.
      * <p>
      *
      * @param name Name of the new test.
      * @return A self reference.
      */
     public Reporting createTest(@NonNull final String name) {
-        if (!isCurrentTest(name)) this.currentTest = report.createTest(name);
+        if (!isCurrentTest(name)) this.currentTest.set(tests.computeIfAbsent(name, this::newTest));
         return this;
     }
 
@@ -70,8 +137,19 @@ public final class Reporting {
      * @return A self reference.
      */
     public Reporting renameCurrentTest(@NonNull final String name) {
-        if (this.currentTest != null)
-            this.currentTest.getModel().setName(name);
+        var test = this.currentTest.get();
+
+        if (test != null) {
+            tests.remove(test.getModel().getName(), test);
+            modelLock.readLock().lock();
+            try {
+                test.getModel().setName(name);
+            } finally {
+                modelLock.readLock().unlock();
+            }
+            tests.putIfAbsent(name, test);
+            if (spool != null) spool.rename(test);
+        }
 
         return this;
     }
@@ -84,7 +162,8 @@ public final class Reporting {
      * @return True if the current test name is as given | False if the current test name is not as given.
      */
     public boolean isCurrentTest(@NonNull final String name) {
-        return currentTest != null && currentTest.getModel().getName().equals(name);
+        var test = currentTest.get();
+        return test != null && test.getModel().getName().equals(name);
     }
 
     /**
@@ -95,10 +174,82 @@ public final class Reporting {
      * @return A self reference.
      */
     public Reporting createNode(@NonNull final String name) {
-        if (this.currentTest == null)
+        var test = this.currentTest.get();
+
+        if (test == null)
             throw new FrameworkException("Create test before trying to create node");
 
-        if (!isCurrentNode(name)) currentNode = currentTest.createNode(name);
+        if (!isCurrentNode(name)) {
+            var node = createNode(test, name);
+            if (spool != null) spool.node(test, node);
+            if (search != null) search.node(test, node);
+
+            switchNode(node, new ExtentLogger(node, spool, search, modelLock.readLock()));
+        }
+
+        return this;
+    }
+
+    /**
+     * Creates a node that is kept out of the report until {@link #keepCurrentNode()} adds it, with its entries. If
+     * the thread moves on to another node first, the deferred node is dropped; its messages are still in the log
+     * file. Used for the invocations of a grouped method, which are only shown if they did not pass.
+     * <p>
+     *
+     * @param name Name of the new node.
+     * @return A self reference.
+     * @since 1.1
+     */
+    public Reporting createDeferredNode(@NonNull final String name) {
+        if (this.currentTest.get() == null)
+            throw new FrameworkException("Create test before trying to create node");
+
+        var node = deferredTest.createNode(name);
+        switchNode(node, new ExtentLogger(node));
+
+        return this;
+    }
+
+    /**
+     * Adds the current node of the calling thread to the report, with its entries, if it is a deferred node. Does
+     * nothing otherwise.
+     * <p>
+     *
+     * @return A self reference.
+     * @since 1.1
+     */
+    public Reporting keepCurrentNode() {
+        var deferred = currentNode.get();
+        var test = currentTest.get();
+        if (deferred == null || test == null || !isDeferred(deferred)) return this;
+
+        var node = createNode(test, deferred.getModel().getName());
+        if (spool != null) spool.node(test, node);
+        if (search != null) search.node(test, node);
+
+        var entries = List.copyOf(deferred.getModel().getLogs());
+        if (spool == null || !spool.isRenderOnly()) {
+            modelLock.readLock().lock();
+            try {
+                node.getModel().setStartTime(deferred.getModel().getStartTime());
+                entries.forEach(node.getModel()::addLog);
+            } finally {
+                modelLock.readLock().unlock();
+            }
+        }
+
+        for (var entry : entries) {
+            var details = entry.getDetails() != null ? entry.getDetails() : "";
+            if (search != null) search.add(node, details);
+            if (spool == null) continue;
+
+            if (entry.getMedia() != null) spool.media(node, entry.getStatus(), details, entry.getMedia());
+            else spool.markup(node, entry.getStatus(), details);
+        }
+
+        dropDeferred(deferred);
+        currentNode.set(node);
+        logger.set(new ExtentLogger(node, spool, search, modelLock.readLock()));
 
         return this;
     }
@@ -111,10 +262,19 @@ public final class Reporting {
      * @return A self reference.
      */
     public Reporting renameCurrentNode(@NonNull final String name) {
-        if (this.currentTest == null)
+        if (this.currentTest.get() == null)
             throw new FrameworkException("Create test before trying to create node");
 
-        currentNode.getModel().setName(name);
+        modelLock.readLock().lock();
+        try {
+            currentNode.get().getModel().setName(name);
+        } finally {
+            modelLock.readLock().unlock();
+        }
+        if (isDeferred(currentNode.get())) return this;
+
+        if (spool != null) spool.rename(currentNode.get());
+        if (search != null) search.node(currentTest.get(), currentNode.get());
 
         return this;
     }
@@ -127,28 +287,315 @@ public final class Reporting {
      * @return True if the current node name is as given | False if the current node name is not as given.
      */
     public boolean isCurrentNode(@NonNull final String name) {
-        return currentNode != null && currentNode.getModel().getName().equals(name);
+        var node = currentNode.get();
+        return node != null && node.getModel().getName().equals(name);
     }
 
     /**
-     * Generates report.
+     * Starts an invocation of a parameterized method of the current test. The first invocation creates the group
+     * node of the method, named as given; the invocation itself is logged into its own node, created by the caller,
+     * preferably with {@link #createDeferredNode(String)}.
+     * <p>
+     *
+     * @param group Name of the group, e.g. the method name.
+     * @return Number of the invocation in the group, starting with 1.
+     * @since 1.1
      */
-    public void flush() {
+    public int startInvocation(@NonNull final String group) {
+        var test = this.currentTest.get();
+
+        if (test == null)
+            throw new FrameworkException("Create test before trying to create node");
+
+        return groups.computeIfAbsent(test.getModel().getId() + "/" + group, key -> {
+            var node = createNode(test, group);
+            if (spool != null) spool.node(test, node);
+            if (search != null) search.node(test, node);
+
+            return new InvocationGroup(new ExtentLogger(node, spool, search, modelLock.readLock()));
+        }).next();
+    }
+
+    /**
+     * Ends an invocation started with {@link #startInvocation(String)}. If it passed, it is only counted in the
+     * group: a deferred node is dropped, any other node removed from the report. Otherwise the node is kept and the
+     * group gets a row with the number, parameters and error of the invocation.
+     * <p>
+     *
+     * @param group      Name of the group.
+     * @param invocation Number of the invocation.
+     * @param status     {@link Status} of the invocation.
+     * @param parameters Renders the parameters of the invocation, called only if it did not pass.
+     * @param error      Error of the invocation, can be null.
+     * @since 1.1
+     */
+    public void finishInvocation(@NonNull final String group, final int invocation, @NonNull final Status status,
+                                 @NonNull final Supplier<String> parameters, final String error) {
+        var test = this.currentTest.get();
+        var invocations = test != null ? groups.get(test.getModel().getId() + "/" + group) : null;
+        if (invocations == null) return;
+
+        var node = currentNode.get();
+        if (status == Status.PASS && (node == null || node.getStatus() == Status.PASS)) {
+            invocations.passed();
+            if (node != null && !isDeferred(node)) removeNode(node);
+        } else {
+            keepCurrentNode();
+            invocations.row(invocation, node != null ? Status.max(status, node.getStatus()) : status,
+                    parameters.get(), error);
+        }
+    }
+
+    /**
+     * Waits for the attachments of the report that are still being processed, see
+     * {@link AttachmentPipeline#await(ExtentReports)}.
+     * <p>
+     *
+     * @return True if all attachments were added to the report, false if the timeout expired first.
+     * @since 1.1
+     */
+    public boolean awaitAttachments() {
+        return this.report == null
+                || (AttachmentPipeline.await(this.report) && AttachmentPipeline.await(deferredReport));
+    }
+
+    /**
+     * Generates report. Suites sharing the same report may call this concurrently, so flushing is serialized. The
+     * group nodes of grouped invocations are finished first, see {@link #startInvocation(String)}.
+     */
+    public synchronized void flush() {
         if (this.report == null) throw new FrameworkException("Report was not created");
-        this.report.flush();
+
+        groups.values().forEach(InvocationGroup::finish);
+        write();
+    }
+
+    /**
+     * Closes the spool, if any, once no suite writes into the report anymore. The report must have been flushed
+     * before; entries logged afterwards are kept out of the spool.
+     * <p>
+     *
+     * @since 1.1
+     */
+    public synchronized void close() {
+        if (spool != null) spool.close();
+    }
+
+    /**
+     * Writes the report as it is now, while the suite runs.
+     */
+    private synchronized void write() {
+        groups.values().forEach(InvocationGroup::flush);
+
+        if (spool != null && spool.isRenderOnly()) {
+            spool.force();
+            ReportRebuild.render(spool.getFile(), Paths.get(reportFile));
+        } else {
+            modelLock.writeLock().lock();
+            try {
+                this.report.flush();
+            } finally {
+                modelLock.writeLock().unlock();
+            }
+            if (spool != null) spool.force();
+        }
+
+        if (search != null) search.write();
+
+        this.lastFlush = System.nanoTime();
+        this.finishedSinceFlush.set(0);
+    }
+
+    /**
+     * Writes the report if the flush policy says so:
+     * <ul>
+     *   <li> report.flush.interval - seconds since the previous flush
+     *   <li> report.flush.nodes - nodes finished since the previous flush
+     *   <li> report.segment.nodes - finished nodes kept in memory; when reached, the report is also copied to
+     *   &lt;name&gt;-part-&lt;n&gt;.html and the finished nodes are released, so memory use does not grow with
+     *   the length of the suite. The report keeps a link to every part in its system info.
+     * </ul>
+     * All of them are off by default. While the report is written, threads changing the model wait for it. A
+     * failure to write the report is logged, and the report is written again on the next call. With
+     * report.spool=render the policy is ignored, the spool already keeps the entries on disk and rendering is left
+     * for the end of the suite.
+     */
+    public void flushIfDue() {
+        if ((spool != null && spool.isRenderOnly()) || !isFlushDue()) return;
+
+        synchronized (this) {
+            if (!isFlushDue()) return;
+
+            try {
+                write();
+                if (segmentNodes > 0 && finishedNodes.size() >= segmentNodes) segment();
+            } catch (RuntimeException | IOException e) {
+                FileLog.warn("Failed to write the report while the suite is running", e);
+            }
+        }
+    }
+
+    /**
+     * @return True if one of the flush policy limits was reached.
+     */
+    private boolean isFlushDue() {
+        return (flushInterval > 0 && System.nanoTime() - lastFlush >= flushInterval)
+                || (flushNodes > 0 && finishedSinceFlush.get() >= flushNodes)
+                || (segmentNodes > 0 && finishedNodes.size() >= segmentNodes);
+    }
+
+    /**
+     * Keeps the freshly written report as the next part and removes the finished nodes from memory. With the lite
+     * reporter the part also takes over the data directory, see {@link LiteReporter#copyPart(Path, Path)}.
+     * <p>
+     *
+     * @throws IOException If the part cannot be written.
+     */
+    private void segment() throws IOException {
+        var file = Paths.get(reportFile);
+        var part = partPrefix + (++parts) + ".html";
+        if ("lite".equals(Config.VALUES.getReportReporter())) LiteReporter.copyPart(file, file.resolveSibling(part));
+        else Files.copy(file, file.resolveSibling(part), StandardCopyOption.REPLACE_EXISTING);
+
+        modelLock.writeLock().lock();
+        try {
+            for (var node = finishedNodes.poll(); node != null; node = finishedNodes.poll()) report.removeTest(node);
+        } finally {
+            modelLock.writeLock().unlock();
+        }
+
+        report.setSystemInfo("Report part " + parts, String.format("<a href='%s' target='_blank'>%s</a>", part, part));
+        write();
+    }
+
+    /**
+     * Removes a node from the report, the spool and the search index.
+     * <p>
+     *
+     * @param node {@link ExtentTest} node to be removed.
+     */
+    private void removeNode(@NonNull final ExtentTest node) {
+        modelLock.writeLock().lock();
+        try {
+            report.removeTest(node);
+        } finally {
+            modelLock.writeLock().unlock();
+        }
+        if (spool != null) spool.remove(node);
+        if (search != null) search.remove(node);
+    }
+
+    /**
+     * Makes the node current for the calling thread. The previous node is finished: it waits for its attachments,
+     * writes the entries held back by its entry limit and becomes eligible for segmenting, or is dropped if it was
+     * a deferred node.
+     * <p>
+     *
+     * @param node {@link ExtentTest} node.
+     * @param log  {@link ExtentLogger} of the node.
+     */
+    private void switchNode(@NonNull final ExtentTest node, @NonNull final ExtentLogger log) {
+        var previous = currentNode.get();
+
+        if (previous != null) {
+            if (logger.get() != null) {
+                AttachmentPipeline.await(logger.get());
+                logger.get().finish();
+            }
+
+            if (isDeferred(previous)) {
+                dropDeferred(previous);
+            } else {
+                finishedNodes.add(previous);
+                finishedSinceFlush.incrementAndGet();
+            }
+        }
+
+        currentNode.set(node);
+        logger.set(log);
+    }
+
+    /**
+     * @param node {@link ExtentTest} node.
+     * @return True if the node was created with {@link #createDeferredNode(String)} and is not in the report.
+     */
+    private boolean isDeferred(@NonNull final ExtentTest node) {
+        return node.getExtent() == deferredReport;
     }
 
     /**
-     * Provides access to current log.
+     * Forgets a deferred node. It only has to be detached from its holder test, nothing else refers to it.
      * <p>
      *
-     * @return Log from existing reporting.
+     * @param node Deferred {@link ExtentTest} node.
+     */
+    private void dropDeferred(@NonNull final ExtentTest node) {
+        synchronized (deferredTest) {
+            deferredTest.getModel().getChildren().remove(node.getModel());
+        }
+    }
+
+    /**
+     * Provides access to the log of the current node of the calling thread.
+     * <p>
+     *
+     * @return Log from existing reporting, or null if the calling thread has no current node.
      */
     public ExtentLogger log() {
-        if (this.logger == null) this.logger = new ExtentLogger();
-        logger.setLog(this.currentNode);
+        return logger.get();
+    }
 
-        return logger;
+    /**
+     * Creates a node, holding the model lock.
+     * <p>
+     *
+     * @param test {@link ExtentTest} the node belongs to.
+     * @param name Name of the node.
+     * @return New {@link ExtentTest} node.
+     */
+    private ExtentTest createNode(@NonNull final ExtentTest test, @NonNull final String name) {
+        modelLock.readLock().lock();
+        try {
+            return test.createNode(name);
+        } finally {
+            modelLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Creates a test and records it in the spool.
+     * <p>
+     *
+     * @param name Name of the test.
+     * @return New {@link ExtentTest}.
+     */
+    private ExtentTest newTest(@NonNull final String name) {
+        modelLock.readLock().lock();
+        try {
+            var test = report.createTest(name);
+            if (spool != null) spool.test(test);
+
+            return test;
+        } finally {
+            modelLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Creates the spool requested by report.spool.
+     * <p>
+     *
+     * @param file Path of the spool file.
+     * @return New {@link ReportSpool}, or null if the spool is off.
+     */
+    private static ReportSpool createSpool(@NonNull final String file) {
+        return switch (Config.VALUES.getReportSpool()) {
+            case "off" -> null;
+            case "journal" -> new ReportSpool(Paths.get(file), false);
+            case "render" -> new ReportSpool(Paths.get(file), true);
+            default -> throw new FrameworkException(
+                    "report.spool parameter is not set correctly, use off, journal or render");
+        };
     }
 
     /**
@@ -158,7 +605,7 @@ public final class Reporting {
      * @param filename Name of the report file that will be generated.
      * @return {@link ExtentSparkReporter}.
      */
-    private ExtentSparkReporter generateSparkReporter(@NonNull final String filename) {
+    static ExtentSparkReporter generateSparkReporter(@NonNull final String filename) {
         var reporter = new ExtentSparkReporter(filename);
 
         reporter.config().setDocumentTitle(filename);
@@ -0,0 +1,92 @@
+package com.qaitsolutions.pframe.core.extent_reporting;
+
+import com.qaitsolutions.pframe.core.config.Config;
+import com.qaitsolutions.pframe.core.exceptions.FrameworkException;
+import lombok.NonNull;
+import org.testng.ITestResult;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Writes test results to a machine-readable file as they arrive, next to the Extent report. Each result is
+ * appended as soon as the test finishes and nothing is kept in memory, so the file is complete right after the
+ * last test.
+ * <p>
+ * The writers of a suite are selected with -Dreport.results (e.g. junit,jsonl) and write under the results
+ * directory of the report:
+ * <ul>
+ *   <li> junit - {@link JUnitXmlWriter}, JUnit XML for CI dashboards
+ *   <li> jsonl - {@link JsonLinesResultWriter}, one JSON object per result
+ * </ul>
+ * Implementations must be thread safe, results of parallel tests are written concurrently.
+ * <p>
+ *
+ * @author Iulian Andrei (iulian.andrei@qaitsolutions.com)
+ * @since 1.1
+ */
+public interface ResultWriter {
+
+    /**
+     * Writes one test result.
+     * <p>
+     *
+     * @param result {@link ITestResult} of the finished test.
+     * @param name   Name of the test as shown in the report, with its parameters.
+     */
+    void write(@NonNull ITestResult result, @NonNull String name);
+
+    /**
+     * Completes and closes the file. No result can be written afterwards.
+     */
+    void close();
+
+    /**
+     * Creates the writers selected with -Dreport.results.
+     * <p>
+     *
+     * @param suite    Name of the suite.
+     * @param filename Name of the files without extension, e.g. the name of the report of the suite.
+     * @return {@link List} of {@link ResultWriter}, empty if none is selected.
+     */
+    static List<ResultWriter> create(@NonNull final String suite, @NonNull final String filename) {
+        var writers = new ArrayList<ResultWriter>();
+        var directory = Paths.get(Config.VALUES.getReportPath(), Config.VALUES.getResultsDirectory());
+
+        for (var type : Config.VALUES.getReportResults()) {
+            writers.add(switch (type) {
+                case "junit" -> new JUnitXmlWriter(file(directory, filename, ".xml"), suite);
+                case "jsonl" -> new JsonLinesResultWriter(file(directory, filename, ".jsonl"), suite);
+                default -> throw new FrameworkException(
+                        String.format("Unknown result writer [%s] in report.results, use junit or jsonl", type));
+            });
+        }
+
+        return writers;
+    }
+
+    /**
+     * @param directory {@link Path} of the results directory.
+     * @param filename  Name of the report, without extension.
+     * @param extension Extension of the results file.
+     * @return {@link Path} of the results file.
+     */
+    private static Path file(@NonNull final Path directory, @NonNull final String filename,
+                             @NonNull final String extension) {
+        return directory.resolve(filename + extension);
+    }
+
+    /**
+     * @param result {@link ITestResult} of a finished test.
+     * @return PASS, FAIL or SKIP.
+     */
+    static String status(@NonNull final ITestResult result) {
+        return switch (result.getStatus()) {
+            case ITestResult.SUCCESS -> "PASS";
+            case ITestResult.FAILURE, ITestResult.SUCCESS_PERCENTAGE_FAILURE -> "FAIL";
+            default -> "SKIP";
+        };
+    }
+}
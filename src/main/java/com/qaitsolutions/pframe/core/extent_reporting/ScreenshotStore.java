@@ -0,0 +1,116 @@
+package com.qaitsolutions.pframe.core.extent_reporting;
+
+import com.qaitsolutions.pframe.core.config.Config;
+import com.qaitsolutions.pframe.core.exceptions.FrameworkException;
+import lombok.NonNull;
+import org.apache.commons.codec.digest.DigestUtils;
+
+import java.io.IOException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Base64;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Stores screenshots as files under the screenshots directory of the report, named by the SHA-256 of their
+ * content. An image taken several times (e.g. the same error page) is written once, and the report only holds
+ * a relative link to it instead of the encoded image.
+ * <p>
+ *
+ * @author Iulian Andrei (iulian.andrei@qaitsolutions.com)
+ * @since 1.1
+ */
+public final class ScreenshotStore {
+
+    private static final Set<String> STORED = ConcurrentHashMap.newKeySet();
+
+    private ScreenshotStore() {
+    }
+
+    /**
+     * Decodes a base64 screenshot and stores it.
+     * <p>
+     *
+     * @param base64 Image in base64 encoding, with or without a "data:image/...;base64," prefix.
+     * @return Path of the stored image, relative to the report directory (e.g. screenshots/ab12....png).
+     */
+    public static String storeBase64(@NonNull final String base64) {
+        return store(decode(base64));
+    }
+
+    /**
+     * Decodes a base64 image.
+     * <p>
+     *
+     * @param base64 Image in base64 encoding, with or without a "data:image/...;base64," prefix.
+     * @return Bytes of the image.
+     */
+    public static byte[] decode(@NonNull final String base64) {
+        var start = base64.startsWith("data:") ? base64.indexOf(',') + 1 : 0;
+        return Base64.getMimeDecoder().decode(base64.substring(start));
+    }
+
+    /**
+     * Stores a screenshot, unless an identical one was already stored.
+     * <p>
+     *
+     * @param image Bytes of the image.
+     * @return Path of the stored image, relative to the report directory (e.g. screenshots/ab12....png).
+     */
+    public static String store(@NonNull final byte[] image) {
+        var name = DigestUtils.sha256Hex(image) + "." + extension(image);
+        var relative = Config.VALUES.getScreenshotDirectory() + "/" + name;
+
+        if (STORED.contains(name)) return relative;
+
+        var file = Paths.get(Config.VALUES.getScreenshotPath(), name);
+        try {
+            if (!Files.exists(file)) write(file, image);
+        } catch (IOException e) {
+            throw new FrameworkException(String.format("Failed to store screenshot [%s]", file), e);
+        }
+
+        STORED.add(name);
+        return relative;
+    }
+
+    /**
+     * Writes the image through a temporary file, so a reader never sees a partial image and two threads storing
+     * the same image do not interfere.
+     * <p>
+     *
+     * @param file  {@link Path} of the image.
+     * @param image Bytes of the image.
+     * @throws IOException If the image cannot be written.
+     */
+    private static void write(@NonNull final Path file, @NonNull final byte[] image) throws IOException {
+        Files.createDirectories(file.getParent());
+
+        var temporary = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+        try {
+            Files.write(temporary, image);
+            Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE);
+        } catch (FileAlreadyExistsException e) {
+            // stored by another thread in the meantime
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    /**
+     * @param image Bytes of the image.
+     * @return File extension matching the image format, png if it is not recognized.
+     */
+    private static String extension(@NonNull final byte[] image) {
+        if (image.length > 3 && (image[0] & 0xFF) == 0xFF && (image[1] & 0xFF) == 0xD8) return "jpg";
+        if (image.length > 6 && image[0] == 'G' && image[1] == 'I' && image[2] == 'F') return "gif";
+        if (image.length > 12 && image[0] == 'R' && image[8] == 'W' && image[9] == 'E' && image[10] == 'B')
+            return "webp";
+
+        return "png";
+    }
+}
@@ -0,0 +1,428 @@
+package com.qaitsolutions.pframe.core.extent_reporting;
+
+import com.aventstack.extentreports.ExtentTest;
+import com.qaitsolutions.pframe.core.exceptions.FrameworkException;
+import com.qaitsolutions.pframe.core.logging.Json;
+import lombok.NonNull;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Inverted index of the words logged in the report, mapping each word to the nodes it appears in. It is built
+ * while the entries are logged and written with the report, so the report page can find "all nodes mentioning
+ * order 4711" without scanning the entries.
+ * <p>
+ * Words are the runs of letters and numbers (Unicode \p{L} and \p{N}, the same classes the search page uses to
+ * split the query) of the entries, lower-cased, with HTML tags skipped. The index is written to
+ * &lt;report&gt;-search/ as JSONP files:
+ * <ul>
+ *   <li> index-&lt;n&gt;.js - the words whose String hash code, taken as unsigned, modulo {@value #SHARDS} is n,
+ *   each with the sorted ids of its nodes
+ *   <li> nodes-&lt;n&gt;.js - id, name and test name of the nodes whose id divided by {@value #NODE_BLOCK} is n
+ * </ul>
+ * so a search loads one index file per word and one nodes file per block of results. After
+ * {@value #MAX_WORDS} distinct words, new words are no longer indexed.
+ * <p>
+ * The directory also gets search.js, which runs the search in the browser and is used by {@link LiteReporter},
+ * and search.html, a search page that can be used next to any report.
+ * <p>
+ *
+ * @author Iulian Andrei (iulian.andrei@qaitsolutions.com)
+ * @since 1.1
+ */
+public final class SearchIndex {
+
+    static final int SHARDS = 64;
+    static final int NODE_BLOCK = 1024;
+
+    private static final String SCRIPT = """
+            (function () {
+              var base = document.currentScript.src.replace(/[^/]*$/, "");
+              var cache = {index: {}, nodes: {}}, waiting = {};
+              window.pframe = window.pframe || {};
+              pframe.index = function (shard, data) { cache.index[shard] = data; loaded("index-" + shard); };
+              pframe.nodes = function (block, data) { cache.nodes[block] = data; loaded("nodes-" + block); };
+              function loaded(key) {
+                var callbacks = waiting[key] || [];
+                delete waiting[key];
+                callbacks.forEach(function (callback) { callback(); });
+              }
+              function fetchFile(key, present, callback) {
+                if (present) return callback();
+                if (waiting[key]) return waiting[key].push(callback);
+                waiting[key] = [callback];
+                var script = document.createElement("script");
+                script.src = base + key + ".js?" + Date.now();
+                document.head.appendChild(script);
+              }
+              function shard(word) {
+                var hash = 0;
+                for (var i = 0; i < word.length; i++) hash = (Math.imul(31, hash) + word.charCodeAt(i)) | 0;
+                return (hash >>> 0) % @SHARDS@;
+              }
+              window.pframeSearch = function (query, callback) {
+                var words = (query.toLowerCase().match(/[\\p{L}\\p{N}]+/gu) || []).filter(function (word) {
+                  return word.length >= @MIN@ && word.length <= @MAX@;
+                });
+                if (!words.length) return callback([]);
+                var pending = words.length;
+                words.forEach(function (word) {
+                  fetchFile("index-" + shard(word), cache.index[shard(word)], function () {
+                    if (--pending === 0) intersect();
+                  });
+                });
+                function intersect() {
+                  var ids = null;
+                  words.forEach(function (word) {
+                    var list = cache.index[shard(word)][word] || [];
+                    if (ids === null) { ids = list; return; }
+                    var set = new Set(list);
+                    ids = ids.filter(function (id) { return set.has(id); });
+                  });
+                  var blocks = {};
+                  ids.forEach(function (id) { blocks[Math.floor(id / @BLOCK@)] = true; });
+                  var keys = Object.keys(blocks), left = keys.length;
+                  if (!left) return callback([]);
+                  keys.forEach(function (block) {
+                    fetchFile("nodes-" + block, cache.nodes[block], function () {
+                      if (--left > 0) return;
+                      callback(ids.map(function (id) {
+                        var node = cache.nodes[Math.floor(id / @BLOCK@)][id] || ["", ""];
+                        return {id: id, name: node[0], test: node[1]};
+                      }));
+                    });
+                  });
+                }
+              };
+            })();
+            """;
+
+    private static final String PAGE = """
+            <!DOCTYPE html>
+            <html><head><meta charset="utf-8"><title>Search</title>
+            <style>body{font-family:sans-serif;margin:2em}li{margin:3px 0}</style></head><body>
+            <input id="query" size="60" placeholder="Search the report, e.g. order 4711" autofocus/>
+            <p id="count"></p><ul id="results"></ul>
+            <script src="search.js"></script>
+            <script>
+            document.getElementById("query").onchange = function () {
+              pframeSearch(this.value, function (results) {
+                document.getElementById("count").textContent = results.length + " node(s)";
+                var list = document.getElementById("results");
+                list.innerHTML = "";
+                results.slice(0, 500).forEach(function (result) {
+                  var item = document.createElement("li");
+                  item.textContent = result.test + " / " + result.name;
+                  list.appendChild(item);
+                });
+              });
+            };
+            </script></body></html>
+            """;
+
+    private static final int MAX_WORDS = 1_000_000;
+    private static final int MIN_WORD_LENGTH = 2;
+    private static final int MAX_WORD_LENGTH = 40;
+
+    private final Path directory;
+    private final Map<String, Postings> words = new HashMap<>();
+    private final Map<Integer, String[]> nodes = new HashMap<>();
+
+    private int removed;
+
+    /**
+     * @param directory {@link Path} of the directory the index is written to.
+     */
+    public SearchIndex(@NonNull final Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Records the name of a node and of its test. Called again when the node is renamed.
+     * <p>
+     *
+     * @param test {@link ExtentTest} the node belongs to.
+     * @param node {@link ExtentTest} node.
+     */
+    public synchronized void node(@NonNull final ExtentTest test, @NonNull final ExtentTest node) {
+        nodes.put(node.getModel().getId(), new String[]{node.getModel().getName(), test.getModel().getName()});
+    }
+
+    /**
+     * Forgets a node removed from the report. Its id is purged from the words once as many nodes were removed as
+     * are left (at least {@value #NODE_BLOCK}), or when the index is written, so the cost of purging is spread over
+     * the removals and the index does not grow with removed nodes.
+     * <p>
+     *
+     * @param node {@link ExtentTest} node that was removed.
+     */
+    public synchronized void remove(@NonNull final ExtentTest node) {
+        if (nodes.remove(node.getModel().getId()) == null) return;
+
+        if (++removed >= Math.max(NODE_BLOCK, nodes.size())) purge();
+    }
+
+    /**
+     * Indexes the words of an entry.
+     * <p>
+     *
+     * @param node {@link ExtentTest} node the entry belongs to.
+     * @param text Text or HTML of the entry.
+     */
+    public void add(@NonNull final ExtentTest node, final String text) {
+        if (text == null || text.isEmpty()) return;
+
+        var found = tokenize(text);
+        if (found.isEmpty()) return;
+
+        var id = node.getModel().getId();
+        synchronized (this) {
+            for (var word : found) {
+                var postings = words.get(word);
+                if (postings == null) {
+                    if (words.size() >= MAX_WORDS) continue;
+
+                    postings = new Postings();
+                    words.put(word, postings);
+                }
+
+                postings.add(id);
+            }
+        }
+    }
+
+    /**
+     * Writes the index, replacing the previous files.
+     */
+    public synchronized void write() {
+        purge();
+
+        try {
+            Files.createDirectories(directory);
+
+            var shards = new ArrayList<Map<String, Postings>>(SHARDS);
+            for (var i = 0; i < SHARDS; i++) shards.add(new TreeMap<>());
+            words.forEach((word, postings) -> shards.get(shard(word)).put(word, postings));
+
+            for (var i = 0; i < SHARDS; i++) writeShard(i, shards.get(i));
+
+            var blocks = new TreeMap<Integer, Map<Integer, String[]>>();
+            nodes.forEach((id, names) ->
+                    blocks.computeIfAbsent(id / NODE_BLOCK, block -> new TreeMap<>()).put(id, names));
+            for (var block : blocks.entrySet()) writeNodes(block.getKey(), block.getValue());
+
+            Files.writeString(directory.resolve("search.js"), SCRIPT
+                    .replace("@SHARDS@", Integer.toString(SHARDS))
+                    .replace("@BLOCK@", Integer.toString(NODE_BLOCK))
+                    .replace("@MIN@", Integer.toString(MIN_WORD_LENGTH))
+                    .replace("@MAX@", Integer.toString(MAX_WORD_LENGTH)), StandardCharsets.UTF_8);
+            Files.writeString(directory.resolve("search.html"), PAGE, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new FrameworkException(String.format("Failed to write search index [%s]", directory), e);
+        }
+    }
+
+    /**
+     * Removes the ids of removed nodes and repeated ids from the words, and the words left without nodes.
+     */
+    private void purge() {
+        words.values().removeIf(postings -> postings.retain(nodes) == 0);
+        removed = 0;
+    }
+
+    /**
+     * @param word Indexed word.
+     * @return Shard of the word, computed the same way by the report page.
+     */
+    static int shard(@NonNull final String word) {
+        return (int) (Integer.toUnsignedLong(word.hashCode()) % SHARDS);
+    }
+
+    /**
+     * Splits the text in lower-cased words, skipping HTML tags and entities.
+     * <p>
+     *
+     * @param text Text or HTML.
+     * @return {@link Set} of the distinct words, in order of appearance.
+     */
+    static Set<String> tokenize(@NonNull final String text) {
+        var found = new LinkedHashSet<String>();
+        var start = -1;
+
+        for (var i = 0; i <= text.length(); i++) {
+            var c = i < text.length() ? text.codePointAt(i) : ' ';
+
+            if (isWordCharacter(c)) {
+                if (start < 0) start = i;
+                if (Character.isSupplementaryCodePoint(c)) i++;
+                continue;
+            }
+
+            if (start >= 0) {
+                var length = i - start;
+                if (length >= MIN_WORD_LENGTH && length <= MAX_WORD_LENGTH) {
+                    found.add(text.substring(start, i).toLowerCase(Locale.ROOT));
+                }
+                start = -1;
+            }
+
+            if (c == '<') i = skip(text, i, '>');
+            else if (c == '&') i = skip(text, i, ';');
+        }
+
+        return found;
+    }
+
+    /**
+     * @param c Code point.
+     * @return True if the code point is a letter or a number, as matched by [\p{L}\p{N}] in the search page.
+     */
+    static boolean isWordCharacter(final int c) {
+        if (Character.isLetter(c)) return true;
+
+        var type = Character.getType(c);
+        return type == Character.DECIMAL_DIGIT_NUMBER || type == Character.LETTER_NUMBER
+                || type == Character.OTHER_NUMBER;
+    }
+
+    /**
+     * Finds the end of an HTML tag or entity.
+     * <p>
+     *
+     * @param text Text or HTML.
+     * @param from Position of the opening character ('&lt;' or '&amp;').
+     * @param end  Closing character ('&gt;' or ';').
+     * @return Position of the closing character, or the opening position if there is none (an entity is at most
+     * 10 characters long).
+     */
+    private static int skip(@NonNull final String text, final int from, final char end) {
+        var limit = end == ';' ? Math.min(text.length(), from + 10) : text.length();
+        for (var i = from + 1; i < limit; i++) {
+            if (text.charAt(i) == end) return i;
+        }
+
+        return from;
+    }
+
+    /**
+     * Writes index-&lt;n&gt;.js with the words of a shard and the ids of their nodes.
+     * <p>
+     *
+     * @param shard    Number of the shard.
+     * @param postings Words of the shard, in order, with their {@link Postings}.
+     * @throws IOException If the file cannot be written.
+     */
+    private void writeShard(final int shard, @NonNull final Map<String, Postings> postings) throws IOException {
+        try (var out = Files.newBufferedWriter(directory.resolve("index-" + shard + ".js"), StandardCharsets.UTF_8)) {
+            out.write("pframe.index(" + shard + ",{");
+
+            var first = true;
+            for (var entry : postings.entrySet()) {
+                if (!first) out.write(',');
+                first = false;
+
+                Json.writeString(out, entry.getKey());
+                out.write(':');
+                entry.getValue().write(out);
+            }
+            out.write("});\n");
+        }
+    }
+
+    /**
+     * Writes nodes-&lt;n&gt;.js with the id, name and test name of the nodes of a block.
+     * <p>
+     *
+     * @param block Number of the block.
+     * @param names Names of the nodes of the block, by id.
+     * @throws IOException If the file cannot be written.
+     */
+    private void writeNodes(final int block, @NonNull final Map<Integer, String[]> names) throws IOException {
+        try (var out = Files.newBufferedWriter(directory.resolve("nodes-" + block + ".js"), StandardCharsets.UTF_8)) {
+            out.write("pframe.nodes(" + block + ",{");
+
+            var first = true;
+            for (var entry : names.entrySet()) {
+                if (!first) out.write(',');
+                first = false;
+
+                out.write("\"" + entry.getKey() + "\":[");
+                Json.writeString(out, entry.getValue()[0]);
+                out.write(',');
+                Json.writeString(out, entry.getValue()[1]);
+                out.write(']');
+            }
+            out.write("});\n");
+        }
+    }
+
+    /**
+     * Growable list of node ids. Entries of a node come one after the other, so repeated ids are mostly caught by
+     * comparing with the last one; the rest are removed by {@link #retain(Map)}, together with the ids of removed
+     * nodes.
+     */
+    private static final class Postings {
+
+        private int[] ids = new int[2];
+        private int size;
+
+        /**
+         * @param id Id of a node the word appears in.
+         */
+        void add(final int id) {
+            if (size > 0 && ids[size - 1] == id) return;
+            if (size == ids.length) ids = Arrays.copyOf(ids, size * 2);
+
+            ids[size++] = id;
+        }
+
+        /**
+         * Sorts the ids and keeps each id of a known node once.
+         * <p>
+         *
+         * @param nodes Known nodes, by id.
+         * @return Number of ids left.
+         */
+        int retain(@NonNull final Map<Integer, ?> nodes) {
+            Arrays.sort(ids, 0, size);
+
+            var kept = 0;
+            for (var i = 0; i < size; i++) {
+                if ((kept > 0 && ids[i] == ids[kept - 1]) || !nodes.containsKey(ids[i])) continue;
+                ids[kept++] = ids[i];
+            }
+            size = kept;
+            if (ids.length > 2 * Math.max(2, size)) ids = Arrays.copyOf(ids, Math.max(2, size));
+
+            return size;
+        }
+
+        /**
+         * Writes the ids as a JSON array. Called after {@link #retain(Map)}, so the ids are sorted and unique.
+         * <p>
+         *
+         * @param out {@link Writer} of the shard file.
+         * @throws IOException If the ids cannot be written.
+         */
+        void write(@NonNull final Writer out) throws IOException {
+            out.write('[');
+            for (var i = 0; i < size; i++) {
+                if (i > 0) out.write(',');
+                out.write(Integer.toString(ids[i]));
+            }
+            out.write(']');
+        }
+    }
+}
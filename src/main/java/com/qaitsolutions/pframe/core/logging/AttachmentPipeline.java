@@ -0,0 +1,346 @@
+package com.qaitsolutions.pframe.core.logging;
+
+import com.aventstack.extentreports.ExtentReports;
+import com.aventstack.extentreports.MediaEntityBuilder;
+import com.aventstack.extentreports.markuputils.Markup;
+import com.qaitsolutions.pframe.core.config.Config;
+import com.qaitsolutions.pframe.core.extent_reporting.ExtentLogger;
+import com.qaitsolutions.pframe.core.extent_reporting.ScreenshotStore;
+import lombok.NonNull;
+import org.apache.commons.codec.digest.DigestUtils;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Processes attachments (screenshots) on a small pool of worker threads, so the test thread only hands the image
+ * over and returns. A job decodes the image, optionally recompresses it to JPEG, creates a thumbnail, stores the
+ * files through {@link ScreenshotStore} and then adds the entry to the report node the image was logged from.
+ * The entry therefore shows up in the node once the job is done, possibly after entries logged later.
+ * <p>
+ * An image is recognized by the hash of its bytes before it is decoded, so an image logged again (e.g. the same
+ * error page) reuses the files stored the first time instead of being decoded and thumbnailed again.
+ * <p>
+ * The pool has report.attachments.threads workers and a bounded queue; when the queue is full the test thread
+ * runs the job itself. With report.attachments.threads=0 every job runs on the test thread. Either way, a failed
+ * job is logged and does not reach the test. Pending jobs are counted per node and per report: a node waits for its
+ * own jobs before it is finished, see {@link #await(ExtentLogger)}, and the end of a suite only for the jobs of its
+ * report, see {@link #await(ExtentReports)}, each at most report.attachments.timeout seconds.
+ * <p>
+ *
+ * @author Iulian Andrei (iulian.andrei@qaitsolutions.com)
+ * @since 1.1
+ */
+public final class AttachmentPipeline {
+
+    private static final int QUEUE_SIZE = 256;
+
+    private static final int THUMBNAIL_WIDTH = Config.VALUES.getReportScreenshotsThumbnail();
+    private static final float JPEG_QUALITY = Config.VALUES.getReportScreenshotsJpegQuality() / 100f;
+
+    private static final ThreadPoolExecutor EXECUTOR = createExecutor(Config.VALUES.getReportAttachmentsThreads());
+    private static final Map<Object, AtomicInteger> PENDING = new ConcurrentHashMap<>();
+    private static final Map<String, Stored> PROCESSED = new ConcurrentHashMap<>();
+    private static final Object DONE = new Object();
+
+    private AttachmentPipeline() {
+    }
+
+    /**
+     * Waits for the pending jobs of a node, at most report.attachments.timeout seconds. Called before the node is
+     * finished, so no entry lands in it after it was summarized, removed or moved to another part of the report.
+     * <p>
+     *
+     * @param node {@link ExtentLogger} of the node.
+     * @return True if all jobs of the node completed, false if the timeout expired first.
+     */
+    public static boolean await(@NonNull final ExtentLogger node) {
+        return await(node, "node");
+    }
+
+    /**
+     * Waits for the pending jobs of a report, at most report.attachments.timeout seconds. Jobs of other reports,
+     * e.g. of suites running in parallel, are not waited for.
+     * <p>
+     *
+     * @param report {@link ExtentReports} the jobs write into.
+     * @return True if all jobs of the report completed, false if the timeout expired first.
+     */
+    public static boolean await(@NonNull final ExtentReports report) {
+        return await(report, "report");
+    }
+
+    /**
+     * Queues a screenshot. The caller must not change the image array afterwards.
+     * <p>
+     *
+     * @param report  {@link ExtentLogger} of the node the screenshot belongs to.
+     * @param message Message shown with the screenshot.
+     * @param base64  Image in base64 encoding, or null if bytes are given.
+     * @param image   Bytes of the image, or null if base64 is given.
+     */
+    static void screenshot(@NonNull final ExtentLogger report, @NonNull final String message, final String base64,
+                           final byte[] image) {
+        submit(report, () -> {
+            var bytes = image != null ? image : ScreenshotStore.decode(base64);
+            var files = store(bytes);
+            var caption = escape(message);
+
+            if (files.thumbnail() == null) {
+                var media = MediaEntityBuilder.createScreenCaptureFromPath(files.image()).build();
+                LogDispatcher.dispatch(LogRecord.ofReport(report, caption, media, null));
+            } else {
+                Markup markup = () -> String.format("%s<br/><a href='%s' target='_blank'><img src='%s'/></a>",
+                        caption, files.image(), files.thumbnail());
+                LogDispatcher.dispatch(LogRecord.ofReport(report, null, null, markup));
+            }
+        });
+    }
+
+    /**
+     * Stores the files of an image, unless an image with the same bytes was already processed.
+     * <p>
+     *
+     * @param bytes Bytes of the image.
+     * @return {@link Stored} files of the image.
+     */
+    private static Stored store(@NonNull final byte[] bytes) {
+        var hash = DigestUtils.sha256Hex(bytes);
+
+        var stored = PROCESSED.get(hash);
+        if (stored == null) {
+            stored = process(bytes);
+            PROCESSED.put(hash, stored);
+        }
+
+        return stored;
+    }
+
+    /**
+     * Decodes the image only if it has to be recompressed or thumbnailed, then stores the files. An image ImageIO
+     * cannot decode (e.g. WebP) or fails to encode is stored as given, without a thumbnail, so the screenshot is
+     * never lost.
+     * <p>
+     *
+     * @param bytes Bytes of the image.
+     * @return {@link Stored} files of the image.
+     */
+    private static Stored process(@NonNull final byte[] bytes) {
+        if (JPEG_QUALITY <= 0 && THUMBNAIL_WIDTH <= 0) return new Stored(ScreenshotStore.store(bytes), null);
+
+        byte[] image;
+        String thumbnail;
+        try {
+            var decoded = read(bytes);
+            image = JPEG_QUALITY > 0 ? toJpeg(decoded, JPEG_QUALITY) : bytes;
+            thumbnail = THUMBNAIL_WIDTH > 0 ? thumbnail(decoded) : null;
+        } catch (RuntimeException e) {
+            FileLog.debug(String.format("Screenshot stored as is, it could not be processed: %s", e.getMessage()));
+            image = bytes;
+            thumbnail = null;
+        }
+
+        return new Stored(ScreenshotStore.store(image), thumbnail);
+    }
+
+    /**
+     * Runs the job on the pool, or on the calling thread if there is no pool, counting it as pending for the node
+     * and for the report until it completes. A failed job is only logged.
+     * <p>
+     *
+     * @param node {@link ExtentLogger} of the node the job writes into.
+     * @param job  Job to run.
+     */
+    private static void submit(@NonNull final ExtentLogger node, @NonNull final Runnable job) {
+        var owners = node.getLog() != null ? new Object[]{node, node.getLog().getExtent()} : new Object[]{node};
+        synchronized (DONE) {
+            for (var owner : owners) PENDING.computeIfAbsent(owner, key -> new AtomicInteger()).incrementAndGet();
+        }
+
+        Runnable counted = () -> {
+            try {
+                job.run();
+            } catch (RuntimeException e) {
+                FileLog.warn("Failed to process attachment", e);
+            } finally {
+                for (var owner : owners) done(owner);
+            }
+        };
+
+        if (EXECUTOR == null) counted.run();
+        else EXECUTOR.execute(counted);
+    }
+
+    /**
+     * Counts a job of the owner as completed and wakes up the threads waiting for it.
+     * <p>
+     *
+     * @param owner Node or report of the job.
+     */
+    private static void done(@NonNull final Object owner) {
+        synchronized (DONE) {
+            var pending = PENDING.get(owner);
+            if (pending != null && pending.decrementAndGet() == 0) {
+                PENDING.remove(owner);
+                DONE.notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Waits until the owner has no pending job, at most report.attachments.timeout seconds.
+     * <p>
+     *
+     * @param owner Node or report of the jobs.
+     * @param kind  Kind of the owner, used in the warning.
+     * @return True if all jobs completed, false if the timeout expired first.
+     */
+    private static boolean await(@NonNull final Object owner, @NonNull final String kind) {
+        var deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(Config.VALUES.getReportAttachmentsTimeout());
+
+        synchronized (DONE) {
+            while (PENDING.containsKey(owner)) {
+                var left = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                if (left <= 0) {
+                    FileLog.warn(String.format("%d attachments of the %s were still pending after %d seconds",
+                            PENDING.get(owner).get(), kind, Config.VALUES.getReportAttachmentsTimeout()));
+                    return false;
+                }
+
+                try {
+                    DONE.wait(left);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Stores a scaled down copy of the image, if it is wider than report.screenshots.thumbnail.
+     * <p>
+     *
+     * @param image Decoded image.
+     * @return Relative path of the thumbnail, or null if the image is small enough to be shown as is.
+     */
+    private static String thumbnail(@NonNull final BufferedImage image) {
+        if (image.getWidth() <= THUMBNAIL_WIDTH) return null;
+
+        var height = Math.max(1, image.getHeight() * THUMBNAIL_WIDTH / image.getWidth());
+        var scaled = new BufferedImage(THUMBNAIL_WIDTH, height, BufferedImage.TYPE_INT_RGB);
+
+        var graphics = scaled.createGraphics();
+        graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        graphics.drawImage(image, 0, 0, THUMBNAIL_WIDTH, height, null);
+        graphics.dispose();
+
+        return ScreenshotStore.store(toJpeg(scaled, 0.8f));
+    }
+
+    /**
+     * @param bytes Encoded image.
+     * @return Decoded image.
+     * @throws UncheckedIOException if the bytes are not an image in a format ImageIO reads.
+     */
+    private static BufferedImage read(@NonNull final byte[] bytes) {
+        try {
+            var image = ImageIO.read(new ByteArrayInputStream(bytes));
+            if (image == null) throw new IOException("Unsupported image format");
+
+            return image;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Encodes an image as JPEG, first drawing it on an RGB canvas if it has an alpha channel or a palette.
+     * <p>
+     *
+     * @param image   Image to be encoded.
+     * @param quality JPEG quality, between 0 and 1.
+     * @return JPEG bytes.
+     */
+    private static byte[] toJpeg(@NonNull final BufferedImage image, final float quality) {
+        var rgb = image;
+        if (image.getType() != BufferedImage.TYPE_INT_RGB) {
+            rgb = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_INT_RGB);
+            var graphics = rgb.createGraphics();
+            graphics.drawImage(image, 0, 0, null);
+            graphics.dispose();
+        }
+
+        var writer = ImageIO.getImageWritersByFormatName("jpg").next();
+        var params = writer.getDefaultWriteParam();
+        params.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+        params.setCompressionQuality(quality);
+
+        var out = new ByteArrayOutputStream();
+        try (var stream = ImageIO.createImageOutputStream(out)) {
+            writer.setOutput(stream);
+            writer.write(null, new IIOImage(rgb, null, null), params);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            writer.dispose();
+        }
+
+        return out.toByteArray();
+    }
+
+    /**
+     * Creates the pool of daemon threads encoding attachments. Its queue is bounded; once it is full, the logging
+     * thread encodes the attachment itself, which slows down a test producing screenshots faster than they are
+     * encoded instead of holding them all in memory.
+     * <p>
+     *
+     * @param threads Number of threads, as configured with -Dreport.attachments.threads.
+     * @return The pool, or null if threads is 0 and attachments are encoded on the logging thread.
+     */
+    private static ThreadPoolExecutor createExecutor(final int threads) {
+        if (threads <= 0) return null;
+
+        var counter = new AtomicInteger();
+        return new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(QUEUE_SIZE),
+                r -> {
+                    var thread = new Thread(r, "pframe-attachments-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    /**
+     * @return Text with the HTML special characters escaped, to be shown as is in the report.
+     */
+    private static String escape(@NonNull final String value) {
+        return value.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;");
+    }
+
+    /**
+     * Files of a processed image.
+     * <p>
+     *
+     * @param image     Relative path of the stored image.
+     * @param thumbnail Relative path of the thumbnail, or null if the image is shown as is.
+     */
+    private record Stored(String image, String thumbnail) {
+    }
+}
@@ -0,0 +1,137 @@
+package com.qaitsolutions.pframe.core.logging;
+
+import com.qaitsolutions.pframe.core.config.Config;
+import com.qaitsolutions.pframe.core.exceptions.FrameworkException;
+import com.qaitsolutions.pframe.core.logging.ConsoleLog.AnsiColor;
+import lombok.NonNull;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link LogSink} that prints messages to the console, in the color of their level.
+ * <p>
+ * Lines are collected in a buffer and written to {@link System#out} in batches, when the buffer reaches
+ * log.console.buffer characters, every log.console.flush.ms milliseconds (unless it is 0) and whenever
+ * {@link Log#flush()} is called. Batches are written outside the buffer lock, so a slow console does not block
+ * the logging threads.
+ * <p>
+ * Colors are only used when the output is a terminal or the IDE console, unless log.console.ansi says otherwise.
+ * Each line is prefixed with the thread name or the report node id, as set by log.console.prefix, so the output
+ * of tests running in parallel can be told apart.
+ * <p>
+ *
+ * @author Iulian Andrei (iulian.andrei@qaitsolutions.com)
+ * @since 1.1
+ */
+final class ConsoleSink implements LogSink {
+
+    private final int bufferSize = Config.VALUES.getLogConsoleBuffer();
+    private final boolean ansi = useAnsi(Config.VALUES.getLogConsoleAnsi());
+    private final String prefix = Config.VALUES.getLogConsolePrefix();
+
+    private final Object writeLock = new Object();
+    private StringBuilder buffer;
+
+    /**
+     * Creates the sink and schedules the periodic flush, unless log.console.flush.ms is 0.
+     */
+    ConsoleSink() {
+        if (!prefix.equals("thread") && !prefix.equals("node") && !prefix.equals("none"))
+            throw new FrameworkException("log.console.prefix parameter is not set correctly, use thread, node or none");
+
+        this.buffer = new StringBuilder(bufferSize + 256);
+
+        var interval = Config.VALUES.getLogConsoleFlushMs();
+        if (interval < 0)
+            throw new FrameworkException("log.console.flush.ms parameter is not set correctly, use 0 or more");
+
+        Runtime.getRuntime().addShutdownHook(new Thread(this::flush, "pframe-console-flush-hook"));
+        if (interval == 0) return;
+
+        var flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+            var thread = new Thread(r, "pframe-console-flush");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        flusher.scheduleWithFixedDelay(this::flush, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public String name() {
+        return "console";
+    }
+
+    @Override
+    public void write(@NonNull final LogRecord record) {
+        if (record.isReportOnly()) return;
+
+        boolean full;
+
+        synchronized (this) {
+            appendPrefix(record);
+
+            if (ansi) buffer.append(record.getLevel().getColor().getColor());
+            buffer.append(record.getMessage());
+            if (ansi) buffer.append(AnsiColor.RESET_COLOR.getColor());
+
+            buffer.append(System.lineSeparator());
+            full = buffer.length() >= bufferSize;
+        }
+
+        if (full) flush();
+    }
+
+    @Override
+    public void flush() {
+        synchronized (writeLock) {
+            StringBuilder batch;
+
+            synchronized (this) {
+                if (buffer.length() == 0) return;
+
+                batch = buffer;
+                buffer = new StringBuilder(bufferSize + 256);
+            }
+
+            var out = System.out;
+            out.append(batch);
+            out.flush();
+        }
+    }
+
+    /**
+     * Adds the configured prefix of the line to the buffer.
+     * <p>
+     *
+     * @param record {@link LogRecord} being printed.
+     */
+    private void appendPrefix(@NonNull final LogRecord record) {
+        switch (prefix) {
+            case "thread" -> buffer.append('[').append(record.getThread()).append("] ");
+            case "node" -> {
+                if (record.getReport() != null && record.getReport().getLog() != null)
+                    buffer.append("[#").append(record.getReport().getLog().getModel().getId()).append("] ");
+            }
+            default -> { }
+        }
+    }
+
+    /**
+     * Decides if ANSI colors are used.
+     * <p>
+     *
+     * @param mode Value of log.console.ansi: auto, true or false.
+     * @return True if colors should be printed.
+     */
+    private static boolean useAnsi(@NonNull final String mode) {
+        return switch (mode) {
+            case "true" -> true;
+            case "false" -> false;
+            case "auto" -> System.console() != null || System.getProperty("java.class.path", "").contains("idea_rt");
+            default -> throw new FrameworkException(
+                    "log.console.ansi parameter is not set correctly, use auto, true or false");
+        };
+    }
+}
@@ -0,0 +1,91 @@
+package com.qaitsolutions.pframe.core.logging;
+
+import com.qaitsolutions.pframe.core.config.Config;
+import lombok.NonNull;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * {@link LogSink} that writes the {@link LogEvent} records as JSON lines to events.jsonl in the report directory.
+ * Plain text records are ignored. The file is replaced with the first event of the run. Each line holds the time,
+ * level, thread and report node of the event followed by its fields:
+ * <pre>
+ *     {"ts":1700000000000,"level":"INFO","thread":"main","node":"Login","event":"http.call","status":200}
+ * </pre>
+ * <p>
+ *
+ * @author Iulian Andrei (iulian.andrei@qaitsolutions.com)
+ * @since 1.1
+ */
+final class EventSink implements LogSink {
+
+    private static final String FILE_NAME = "events.jsonl";
+
+    private Writer writer;
+
+    /**
+     * Creates the sink and makes sure the buffered lines are written when the JVM stops.
+     */
+    EventSink() {
+        Runtime.getRuntime().addShutdownHook(new Thread(this::flush, "pframe-events-flush-hook"));
+    }
+
+    @Override
+    public String name() {
+        return "events";
+    }
+
+    @Override
+    public synchronized void write(@NonNull final LogRecord record) {
+        var event = record.getEvent();
+        if (event == null) return;
+
+        try {
+            var out = writer();
+            out.write("{\"ts\":");
+            out.write(Long.toString(record.getTimestamp()));
+            out.write(",\"level\":\"");
+            out.write(record.getLevel().name());
+            out.write("\",\"thread\":");
+            Json.writeString(out, record.getThread());
+            out.write(",\"node\":");
+            Json.writeValue(out, record.getReport() != null ? record.getReport().getLog().getModel().getName() : null);
+            out.write(",\"event\":");
+            Json.writeString(out, event.getName());
+            event.writeFields(out);
+            out.write("}\n");
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to write " + FILE_NAME, e);
+        }
+    }
+
+    @Override
+    public synchronized void flush() {
+        if (writer == null) return;
+
+        try {
+            writer.flush();
+        } catch (IOException e) {
+            LogSinks.failed(String.format("Failed to flush %s", FILE_NAME), e);
+        }
+    }
+
+    /**
+     * @return Writer of the events file, opened on the first event so that runs without events leave no file.
+     */
+    private Writer writer() throws IOException {
+        if (writer == null) {
+            Path file = Paths.get(Config.VALUES.getReportPath(), FILE_NAME);
+            Files.createDirectories(file.toAbsolutePath().getParent());
+
+            writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8);
+        }
+
+        return writer;
+    }
+}
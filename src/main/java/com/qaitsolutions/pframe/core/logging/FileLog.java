@@ -1,23 +1,58 @@
 package com.qaitsolutions.pframe.core.logging;
 
+import com.qaitsolutions.pframe.core.config.Config;
+import com.qaitsolutions.pframe.core.exceptions.FrameworkException;
 import lombok.NonNull;
-import org.apache.commons.codec.digest.DigestUtils;
 import org.apache.logging.log4j.Level;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.ThreadContext;
+import org.apache.logging.log4j.core.config.Configurator;
+import org.apache.logging.log4j.message.ReusableMessageFactory;
+import org.apache.logging.log4j.util.PropertiesUtil;
 
-import java.util.Arrays;
+import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Wrapper class for log4j logging {@link Logger}.
  * <p>
+ * With -Dlog.file.mode=async the bundled log4j2-async.properties configuration is applied, which writes the file
+ * from a background thread through an async root logger and a garbage-free layout. The size of its queue is set
+ * with -Dlog.file.queue. An explicit log4j.configurationFile always takes precedence. Messages are created through
+ * {@link ReusableMessageFactory}, so steady-state logging does not allocate message objects.
+ * <p>
  *
  * @author Iulian Andrei (iulian.andrei@qaitsolutions.com)
  * @since 1.0
  */
 public final class FileLog {
 
-    private static final Logger LOGGER = LogManager.getLogger();
+    private static final String ASYNC_CONFIGURATION = "log4j2-async.properties";
+    private static final String ASYNC_QUEUE_PROPERTY = "log4j2.asyncLoggerConfigRingBufferSize";
+
+    private static final Logger LOGGER = createLogger();
+
+    private static final int MAX_TRACKED_INCIDENTS = 10_000;
+    private static final AtomicLong INCIDENT_COUNTER = new AtomicLong();
+    private static final Map<Long, Incident> INCIDENTS = new ConcurrentHashMap<>();
+
+    /**
+     * Checks if messages of the given level reach the log file. Wrapper over {@link Logger#isEnabled(Level)}.
+     * <p>
+     *
+     * @param level {@link Level} to be checked.
+     * @return True if the level is enabled | False if the level is filtered out by the log4j configuration.
+     */
+    public static boolean isEnabled(@NonNull final Level level) {
+        return LOGGER.isEnabled(level);
+    }
 
     /**
      * Logs a message at debug level. Wrapper over {@link Logger#log(Level, String)}.
@@ -57,7 +92,7 @@ public final class FileLog {
      * @param cause   {@link Throwable} that will be used to log the stack trace
      */
     public static void warn(@NonNull final String message, @NonNull final Throwable cause) {
-        Level level = Level.WARN;
+        var level = Level.WARN;
 
         LOGGER.log(level, message);
         exceptionChainLog(level, cause);
@@ -88,51 +123,204 @@ public final class FileLog {
     }
 
     /**
-     * Handles detailed information logging for full exception chain.
+     * Applies the configured file log mode, attaches the node log files if enabled and creates the logger.
+     * <p>
+     *
+     * @return {@link Logger} using reusable messages.
+     */
+    private static Logger createLogger() {
+        switch (Config.VALUES.getLogFileMode()) {
+            case "async" -> configureAsync();
+            case "sync" -> { }
+            default -> throw new FrameworkException("log.file.mode parameter is not set correctly, use sync or async");
+        }
+
+        if (Config.VALUES.isLogNodeFiles()) NodeLogFiles.enableRouting();
+
+        return LogManager.getLogger(FileLog.class, ReusableMessageFactory.INSTANCE);
+    }
+
+    /**
+     * Reconfigures log4j with the bundled asynchronous configuration, unless a configuration file was given
+     * explicitly. Log4j may have been initialized already (e.g. by TestNG through slf4j), so the configuration is
+     * replaced instead of only being set as default.
+     */
+    private static void configureAsync() {
+        if (System.getProperty("log4j.configurationFile") != null
+                || System.getProperty("log4j2.configurationFile") != null) return;
+
+        var queue = Config.VALUES.getLogFileQueue();
+        if (queue > 0) {
+            System.setProperty(ASYNC_QUEUE_PROPERTY, Integer.toString(queue));
+            PropertiesUtil.getProperties().reload();
+        }
+
+        var configuration = FileLog.class.getClassLoader().getResource(ASYNC_CONFIGURATION);
+        if (configuration == null)
+            throw new FrameworkException(String.format("Log configuration [%s] was not found", ASYNC_CONFIGURATION));
+
+        try {
+            Configurator.reconfigure(configuration.toURI());
+        } catch (URISyntaxException e) {
+            throw new FrameworkException(String.format("Failed to load log configuration [%s]", configuration), e);
+        }
+    }
+
+    /**
+     * Handles detailed information logging for full exception chain. The causes are logged as a single event at
+     * the given level, and their stack frames as a single debug event, both under a new incident id. Chains with
+     * the same stack trace as an earlier incident are logged as a one line reference to it, which keeps repeated
+     * failures from flooding the log.
+     * <p>
+     * With -Dlog.node.files=true, the first occurrence of an incident in each node is logged in full again, under
+     * the same incident id, so the file of every node holds the traces its references point to.
      * <p>
      *
      * @param level {@link Level} to be logged at.
      * @param e     {@link Throwable} to be parsed and logged.
      */
-    private static void exceptionChainLog(@NonNull final Level level, @NonNull Throwable e) {
-        Throwable cause;
-        var incidentHash = generateDebugLogHash();
+    private static void exceptionChainLog(@NonNull final Level level, @NonNull final Throwable e) {
+        var fingerprint = fingerprint(e);
+        var incident = INCIDENTS.get(fingerprint);
+        var node = ThreadContext.get(NodeLogFiles.CONTEXT_KEY);
+
+        if (incident == null) {
+            var created = new Incident(INCIDENT_COUNTER.incrementAndGet(), node);
 
-        stackLog(level, e, incidentHash);
+            incident = INCIDENTS.size() < MAX_TRACKED_INCIDENTS
+                    ? INCIDENTS.putIfAbsent(fingerprint, created)
+                    : null;
 
-        while ((cause = e.getCause()) != null && e != cause) {
-            e = cause;
-            stackLog(level, e, incidentHash);
+            if (incident == null) {
+                fullLog(level, e, created.id);
+                return;
+            }
         }
+
+        var seen = incident.seen.incrementAndGet();
+        if (node != null && !node.equals(incident.node)) {
+            incident.node = node;
+            fullLog(level, e, incident.id);
+            return;
+        }
+
+        LOGGER.log(level, "[caused_by] [{}] {} - stack trace seen {} times, see incident [#{}]",
+                e.getClass().getSimpleName(), Redactor.redact(e.getMessage()), seen, incident.id);
     }
 
     /**
-     * Method handles detailed information logging exception stack.
+     * Logs the causes of the exception chain at the given level and its stack frames at debug level.
      * <p>
      *
-     * @param level        {@link Level} to be logged at.
-     * @param e            {@link Throwable} to be parsed and logged.
-     * @param incidentHash Hash that will be used to keep track of the stack trace.
-     */
-    private static void stackLog(
-            @NonNull final Level level,
-            @NonNull final Throwable e,
-            @NonNull final String incidentHash
-    ) {
-        var message = "[caused_by] " + "[" + e.getClass().getSimpleName() + "] " + e.getMessage();
-        LOGGER.log(level, message);
+     * @param level      {@link Level} to be logged at.
+     * @param e          {@link Throwable} to be logged.
+     * @param incidentId Id of the incident.
+     */
+    private static void fullLog(@NonNull final Level level, @NonNull final Throwable e, final long incidentId) {
+        LOGGER.log(level, causeLog(e, incidentId));
+        if (LOGGER.isDebugEnabled()) LOGGER.log(Level.DEBUG, stackLog(e, incidentId));
+    }
+
+    /**
+     * Builds the text of the exception chain, one line per cause.
+     * <p>
+     *
+     * @param e          {@link Throwable} to be parsed and logged.
+     * @param incidentId Id that will be used to keep track of the stack trace.
+     * @return Text of the causes.
+     */
+    private static String causeLog(@NonNull final Throwable e, final long incidentId) {
+        var builder = new StringBuilder(256).append("[#").append(incidentId).append("] ");
+        var newLine = System.lineSeparator();
+
+        for (var cause : chain(e)) {
+            if (cause != e) builder.append(newLine);
+
+            builder.append("[caused_by] [").append(cause.getClass().getSimpleName()).append("] ")
+                    .append(Redactor.redact(cause.getMessage()));
+        }
+
+        return builder.toString();
+    }
+
+    /**
+     * Builds the text of the stack frames of the exception chain, one line per frame, headed by the type of
+     * each cause.
+     * <p>
+     *
+     * @param e          {@link Throwable} to be parsed and logged.
+     * @param incidentId Id that will be used to keep track of the stack trace.
+     * @return Text of the stack frames.
+     */
+    private static String stackLog(@NonNull final Throwable e, final long incidentId) {
+        var builder = new StringBuilder(4096).append("[#").append(incidentId).append("] ");
+        var newLine = System.lineSeparator();
+
+        for (var cause : chain(e)) {
+            if (cause != e) builder.append(newLine);
+
+            builder.append("[caused_by] [").append(cause.getClass().getSimpleName()).append("]");
+
+            for (var frame : cause.getStackTrace())
+                builder.append(newLine).append("[stacktrace] ").append(frame);
+        }
 
-        var stack = e.getStackTrace();
-        Arrays.stream(stack).forEach(t -> debug(incidentHash + "[stacktrace] " + t));
+        return builder.toString();
     }
 
     /**
-     * Generates a random hash that will be used to keep track of a stack trace.
+     * Computes a 64 bit fingerprint of the exception chain, from the exception types and stack frames. Messages
+     * are left out, so failures that only differ in data still match.
      * <p>
      *
-     * @return Random generated hash as {@link String}.
+     * @param e {@link Throwable} to be fingerprinted.
+     * @return Fingerprint of the chain.
      */
-    private static String generateDebugLogHash() {
-        return "[#" + DigestUtils.sha256Hex(Long.toString(System.currentTimeMillis())).substring(0, 7) + "]";
+    private static long fingerprint(@NonNull final Throwable e) {
+        var hash = 1125899906842597L;
+
+        for (var cause : chain(e)) {
+            hash = 31 * hash + cause.getClass().getName().hashCode();
+
+            for (var frame : cause.getStackTrace()) {
+                hash = 31 * hash + frame.getClassName().hashCode();
+                hash = 31 * hash + frame.getMethodName().hashCode();
+                hash = 31 * hash + frame.getLineNumber();
+            }
+        }
+
+        return hash;
+    }
+
+    /**
+     * Lists the exception and its causes, stopping at the first cause already seen.
+     * <p>
+     *
+     * @param e {@link Throwable} at the top of the chain.
+     * @return The exceptions of the chain, outermost first.
+     */
+    private static List<Throwable> chain(@NonNull final Throwable e) {
+        var chain = new ArrayList<Throwable>();
+        var seen = Collections.newSetFromMap(new IdentityHashMap<Throwable, Boolean>());
+
+        for (var cause = e; cause != null && seen.add(cause); cause = cause.getCause())
+            chain.add(cause);
+
+        return chain;
+    }
+
+    /**
+     * Stack trace logged in full, the number of times it was seen afterwards and the node file it was last logged
+     * in full to.
+     */
+    private static final class Incident {
+        private final long id;
+        private final AtomicLong seen = new AtomicLong(1);
+        private volatile String node;
+
+        private Incident(final long id, final String node) {
+            this.id = id;
+            this.node = node;
+        }
     }
 }
@@ -0,0 +1,84 @@
+package com.qaitsolutions.pframe.core.logging;
+
+import lombok.NonNull;
+import org.apache.logging.log4j.ThreadContext;
+
+import java.util.Objects;
+
+/**
+ * {@link LogSink} that writes messages to the log file through {@link FileLog}. Besides its own threshold, the
+ * levels filtered out by the log4j configuration are skipped as well.
+ * <p>
+ * When the record is written by another thread than the one that published it (async logging), the node id of
+ * the publishing thread is set in the log4j {@link ThreadContext} for the duration of the write, so per node log
+ * files stay correct.
+ * <p>
+ *
+ * @author Iulian Andrei (iulian.andrei@qaitsolutions.com)
+ * @since 1.1
+ */
+final class FileSink implements LogSink {
+
+    @Override
+    public String name() {
+        return "file";
+    }
+
+    @Override
+    public boolean isEnabled(@NonNull final LogLevel level) {
+        return FileLog.isEnabled(level.getFileLevel());
+    }
+
+    @Override
+    public void write(@NonNull final LogRecord record) {
+        if (record.isReportOnly()) return;
+
+        var context = ThreadContext.get(NodeLogFiles.CONTEXT_KEY);
+        if (Objects.equals(context, record.getNodeContext())) {
+            log(record);
+            return;
+        }
+
+        setNodeContext(record.getNodeContext());
+        try {
+            log(record);
+        } finally {
+            setNodeContext(context);
+        }
+    }
+
+    /**
+     * Writes the record through {@link FileLog}.
+     * <p>
+     *
+     * @param record {@link LogRecord} to be written.
+     */
+    private static void log(@NonNull final LogRecord record) {
+        var message = record.getMessage();
+        var cause = record.getCause();
+
+        switch (record.getLevel()) {
+            case DEBUG -> FileLog.debug(message);
+            case INFO, PASS -> FileLog.info(message);
+            case WARN, SKIP -> {
+                if (cause != null) FileLog.warn(message, cause);
+                else FileLog.warn(message);
+            }
+            case FAIL -> {
+                if (cause != null) FileLog.error(message, cause);
+                else FileLog.error(message);
+            }
+        }
+    }
+
+    /**
+     * Sets or clears the node id in the log4j {@link ThreadContext} of the calling thread.
+     * <p>
+     *
+     * @param value Node id, or null to clear it.
+     */
+    private static void setNodeContext(final String value) {
+        if (value == null) ThreadContext.remove(NodeLogFiles.CONTEXT_KEY);
+        else ThreadContext.put(NodeLogFiles.CONTEXT_KEY, value);
+    }
+}
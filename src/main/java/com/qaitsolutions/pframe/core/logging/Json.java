@@ -0,0 +1,74 @@
+package com.qaitsolutions.pframe.core.logging;
+
+import lombok.NonNull;
+
+import java.io.IOException;
+
+/**
+ * Minimal JSON encoder writing straight into an {@link Appendable}, used for the machine-readable outputs of the
+ * framework. Nothing is built in between, values are escaped while they are written.
+ * <p>
+ *
+ * @author Iulian Andrei (iulian.andrei@qaitsolutions.com)
+ * @since 1.1
+ */
+public final class Json {
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private Json() {
+    }
+
+    /**
+     * Writes a value: null, booleans and finite numbers as themselves, anything else as a string.
+     * <p>
+     *
+     * @param out   {@link Appendable} to write to.
+     * @param value Value to be written, can be null.
+     * @throws IOException If the output fails.
+     */
+    public static void writeValue(@NonNull final Appendable out, final Object value) throws IOException {
+        if (value == null) {
+            out.append("null");
+        } else if (value instanceof Boolean || value instanceof Integer || value instanceof Long
+                || value instanceof Short || value instanceof Byte) {
+            out.append(value.toString());
+        } else if (value instanceof Number number && Double.isFinite(number.doubleValue())) {
+            out.append(number.toString());
+        } else {
+            writeString(out, value instanceof CharSequence text ? text : String.valueOf(value));
+        }
+    }
+
+    /**
+     * Writes a quoted and escaped string.
+     * <p>
+     *
+     * @param out   {@link Appendable} to write to.
+     * @param value Text to be written.
+     * @throws IOException If the output fails.
+     */
+    public static void writeString(@NonNull final Appendable out, @NonNull final CharSequence value)
+            throws IOException {
+        out.append('"');
+
+        var start = 0;
+        for (var i = 0; i < value.length(); i++) {
+            var c = value.charAt(i);
+            if (c >= 0x20 && c != '"' && c != '\\') continue;
+
+            out.append(value, start, i);
+            switch (c) {
+                case '"' -> out.append("\\\"");
+                case '\\' -> out.append("\\\\");
+                case '\n' -> out.append("\\n");
+                case '\r' -> out.append("\\r");
+                case '\t' -> out.append("\\t");
+                default -> out.append("\\u00").append(HEX[c >> 4]).append(HEX[c & 0xF]);
+            }
+            start = i + 1;
+        }
+
+        out.append(value, start, value.length()).append('"');
+    }
+}
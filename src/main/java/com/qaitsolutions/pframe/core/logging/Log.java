@@ -2,13 +2,33 @@ package com.qaitsolutions.pframe.core.logging;
 
 import com.aventstack.extentreports.MediaEntityBuilder;
 import com.aventstack.extentreports.markuputils.CodeLanguage;
+import com.aventstack.extentreports.markuputils.Markup;
 import com.aventstack.extentreports.markuputils.MarkupHelper;
+import com.qaitsolutions.pframe.core.config.Config;
+import com.qaitsolutions.pframe.core.exceptions.FrameworkException;
+import com.qaitsolutions.pframe.core.extent_reporting.AttachmentStore;
+import com.qaitsolutions.pframe.core.extent_reporting.ScreenshotStore;
 import com.qaitsolutions.pframe.core.testng.PFrameListener;
 import lombok.NonNull;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Base64;
+import java.util.function.Supplier;
+
 /**
  * Framework central log that incorporates extent logging, console logging, log4j logging.
  * <p>
+ * Messages are written on the calling thread, unless asynchronous logging is enabled with -Dlog.async=true. In
+ * that case they are handed over to a writer thread, and {@link #flush()} waits for the pending messages.
+ * <p>
+ * Repeated messages can be rate limited per call site and consecutive duplicates collapsed, see
+ * {@link LogThrottle}. Secrets are masked by {@link Redactor} before a message reaches any destination.
+ * <p>
  *
  * @author Iulian Andrei (iulian.andrei@qaitsolutions.com)
  * @since 1.0
@@ -27,14 +47,13 @@ public final class Log {
      * @since 1.0
      */
     public static void info(@NonNull final String message) {
-        PFrameListener.getLog().ifPresent(c -> c.info(message));
-        ConsoleLog.CYAN.log(message);
-        FileLog.info(message);
+        log(LogLevel.INFO, message, null);
     }
 
     /**
      * Convenience method for {@link #info(String)} with added {@link String#format(String, Object...)}
      * functionality.
+     * The message is formatted only if at least one destination accepts the level.
      * <p>
      *
      * @param message Message that will be printed in the log.
@@ -42,7 +61,19 @@ public final class Log {
      * @since 1.0
      */
     public static void info(@NonNull final String message, final Object... args) {
-        info(String.format(message, args));
+        logFormatted(LogLevel.INFO, message, args);
+    }
+
+    /**
+     * Lazy variant of {@link #info(String)}. The supplier is called only if at least one destination accepts
+     * the level, so building the message costs nothing when it is filtered out.
+     * <p>
+     *
+     * @param message Supplier of the message that will be printed in the log.
+     * @since 1.1
+     */
+    public static void info(@NonNull final Supplier<String> message) {
+        logLazy(LogLevel.INFO, message);
     }
 
     /**
@@ -57,15 +88,13 @@ public final class Log {
      * @since 1.0
      */
     public static void warn(@NonNull final String message) {
-        PFrameListener.getLog().ifPresent(c -> c.warning(message));
-        ConsoleLog.YELLOW.log(message);
-
-        FileLog.warn(message);
+        log(LogLevel.WARN, message, null);
     }
 
     /**
      * Convenience method for {@link #warn(String)} with added {@link String#format(String, Object...)}
      * functionality.
+     * The message is formatted only if at least one destination accepts the level.
      * <p>
      *
      * @param message Message that will be printed in the log.
@@ -73,7 +102,19 @@ public final class Log {
      * @since 1.0
      */
     public static void warn(@NonNull final String message, final Object... args) {
-        warn(String.format(message, args));
+        logFormatted(LogLevel.WARN, message, args);
+    }
+
+    /**
+     * Lazy variant of {@link #warn(String)}. The supplier is called only if at least one destination accepts
+     * the level, so building the message costs nothing when it is filtered out.
+     * <p>
+     *
+     * @param message Supplier of the message that will be printed in the log.
+     * @since 1.1
+     */
+    public static void warn(@NonNull final Supplier<String> message) {
+        logLazy(LogLevel.WARN, message);
     }
 
     /**
@@ -86,9 +127,7 @@ public final class Log {
      * @since 1.0
      */
     public static void warn(@NonNull final String message, @NonNull final Throwable e) {
-        PFrameListener.getLog().ifPresent(c -> c.warning(message));
-        ConsoleLog.YELLOW.log(message);
-        FileLog.warn(message, e);
+        log(LogLevel.WARN, message, e);
     }
 
     /**
@@ -106,14 +145,13 @@ public final class Log {
      * @since 1.0
      */
     public static void fail(@NonNull final String message) {
-        PFrameListener.getLog().ifPresent(c -> c.fail(message));
-        ConsoleLog.RED.log(message);
-        FileLog.error(message);
+        log(LogLevel.FAIL, message, null);
     }
 
     /**
      * Convenience method for {@link #fail(String)} with added {@link String#format(String, Object...)}
      * functionality.
+     * The message is formatted only if at least one destination accepts the level.
      * <p>
      *
      * @param message Message that will be printed in the log.
@@ -121,7 +159,19 @@ public final class Log {
      * @since 1.0
      */
     public static void fail(@NonNull final String message, final Object... args) {
-        fail(String.format(message, args));
+        logFormatted(LogLevel.FAIL, message, args);
+    }
+
+    /**
+     * Lazy variant of {@link #fail(String)}. The supplier is called only if at least one destination accepts
+     * the level, so building the message costs nothing when it is filtered out.
+     * <p>
+     *
+     * @param message Supplier of the message that will be printed in the log.
+     * @since 1.1
+     */
+    public static void fail(@NonNull final Supplier<String> message) {
+        logLazy(LogLevel.FAIL, message);
     }
 
     /**
@@ -134,16 +184,7 @@ public final class Log {
      * @since 1.0
      */
     public static void fail(@NonNull final String message, final Throwable e) {
-        var rawException = e.toString();
-        var exceptionDescription = rawException.contains("\n")
-                ? rawException.replaceAll("\n", " ")
-                : rawException;
-
-        var fullMessage = message + " - " + exceptionDescription.replaceAll("\n", " ");
-
-        PFrameListener.getLog().ifPresent(c -> c.fail(fullMessage));
-        ConsoleLog.RED.log(message);
-        FileLog.error(message, e);
+        log(LogLevel.FAIL, message, e);
     }
 
     /**
@@ -161,14 +202,13 @@ public final class Log {
      * @since 1.0
      */
     public static void pass(@NonNull final String message) {
-        PFrameListener.getLog().ifPresent(c -> c.pass(message));
-        ConsoleLog.GREEN.log(message);
-        FileLog.info(message);
+        log(LogLevel.PASS, message, null);
     }
 
     /**
      * Convenience method for {@link #pass(String)} with added {@link String#format(String, Object...)}
      * functionality.
+     * The message is formatted only if at least one destination accepts the level.
      * <p>
      *
      * @param message Message that will be printed in the log.
@@ -176,7 +216,19 @@ public final class Log {
      * @since 1.0
      */
     public static void pass(@NonNull final String message, final Object... args) {
-        pass(String.format(message, args));
+        logFormatted(LogLevel.PASS, message, args);
+    }
+
+    /**
+     * Lazy variant of {@link #pass(String)}. The supplier is called only if at least one destination accepts
+     * the level, so building the message costs nothing when it is filtered out.
+     * <p>
+     *
+     * @param message Supplier of the message that will be printed in the log.
+     * @since 1.1
+     */
+    public static void pass(@NonNull final Supplier<String> message) {
+        logLazy(LogLevel.PASS, message);
     }
 
     /**
@@ -195,14 +247,13 @@ public final class Log {
      * @since 1.0
      */
     public static void skip(@NonNull final String message) {
-        PFrameListener.getLog().ifPresent(c -> c.skip(message));
-        ConsoleLog.YELLOW.log(message);
-        FileLog.warn(message);
+        log(LogLevel.SKIP, message, null);
     }
 
     /**
      * Convenience method for {@link #skip(String)} with added {@link String#format(String, Object...)}
      * functionality.
+     * The message is formatted only if at least one destination accepts the level.
      * <p>
      *
      * @param message Message that will be printed in the log.
@@ -210,7 +261,19 @@ public final class Log {
      * @since 1.0
      */
     public static void skip(@NonNull final String message, Object... args) {
-        skip(String.format(message, args));
+        logFormatted(LogLevel.SKIP, message, args);
+    }
+
+    /**
+     * Lazy variant of {@link #skip(String)}. The supplier is called only if at least one destination accepts
+     * the level, so building the message costs nothing when it is filtered out.
+     * <p>
+     *
+     * @param message Supplier of the message that will be printed in the log.
+     * @since 1.1
+     */
+    public static void skip(@NonNull final Supplier<String> message) {
+        logLazy(LogLevel.SKIP, message);
     }
 
     /**
@@ -224,13 +287,13 @@ public final class Log {
      * @since 1.0
      */
     public static void debug(@NonNull final String message) {
-        ConsoleLog.MAGENTA.log(message);
-        FileLog.debug(message);
+        log(LogLevel.DEBUG, message, null);
     }
 
     /**
      * Convenience method for {@link #debug(String)} with added {@link String#format(String, Object...)}
      * functionality.
+     * The message is formatted only if at least one destination accepts the level.
      * <p>
      *
      * @param message Message that will be printed in the log.
@@ -238,7 +301,19 @@ public final class Log {
      * @since 1.0
      */
     public static void debug(@NonNull final String message, final Object... args) {
-        debug(String.format(message, args));
+        logFormatted(LogLevel.DEBUG, message, args);
+    }
+
+    /**
+     * Lazy variant of {@link #debug(String)}. The supplier is called only if at least one destination accepts
+     * the level, so building the message costs nothing when it is filtered out.
+     * <p>
+     *
+     * @param message Supplier of the message that will be printed in the log.
+     * @since 1.1
+     */
+    public static void debug(@NonNull final Supplier<String> message) {
+        logLazy(LogLevel.DEBUG, message);
     }
 
     /**
@@ -252,8 +327,8 @@ public final class Log {
      * @since 1.0
      */
     public static void infoWithScreenshotByPath(@NonNull final String message, @NonNull final String path) {
-        PFrameListener.getLog()
-                .ifPresent(l -> l.info(message, MediaEntityBuilder.createScreenCaptureFromPath(path).build()));
+        var media = MediaEntityBuilder.createScreenCaptureFromPath(path).build();
+        LogDispatcher.dispatch(LogRecord.ofReport(Redactor.redact(message), media, null));
     }
 
     /**
@@ -261,17 +336,108 @@ public final class Log {
      * <ul>
      *  <li> REPORT
      * </ul>
+     * <p>
+     * Unless -Dreport.screenshots=inline, the image is handed to the {@link AttachmentPipeline} and the method
+     * returns right away. The image is decoded and stored once under the screenshots directory by
+     * {@link ScreenshotStore}, and the report links to the file (or its thumbnail) instead of embedding it.
+     * <p>
      *
      * @param message Message that will be printed in the report.
      * @param base64  {@link String} image in base64 encoding.
      * @since 1.0
      */
     public static void infoWithScreenshotByBase64String(@NonNull final String message, @NonNull final String base64) {
-        PFrameListener.getLog()
-                .ifPresent(l -> l.info(message, MediaEntityBuilder
-                        .createScreenCaptureFromBase64String(base64)
-                        .build())
-                );
+        if (isInlineScreenshots()) {
+            var media = MediaEntityBuilder.createScreenCaptureFromBase64String(base64).build();
+            LogDispatcher.dispatch(LogRecord.ofReport(Redactor.redact(message), media, null));
+            return;
+        }
+
+        PFrameListener.getLog().ifPresent(report ->
+                AttachmentPipeline.screenshot(report, Redactor.redact(message), base64, null));
+    }
+
+    /**
+     * Logs info level messages with a screenshot given as raw bytes (e.g. Selenium's OutputType.BYTES), which
+     * avoids encoding the image to base64 at all. This will long in:
+     * <ul>
+     *  <li> REPORT
+     * </ul>
+     * The image is stored as described in {@link #infoWithScreenshotByBase64String(String, String)}, and must
+     * not be changed after the call.
+     * <p>
+     *
+     * @param message Message that will be printed in the report.
+     * @param image   Bytes of the image.
+     * @since 1.1
+     */
+    public static void infoWithScreenshot(@NonNull final String message, @NonNull final byte[] image) {
+        if (isInlineScreenshots()) {
+            var base64 = Base64.getEncoder().encodeToString(image);
+            var media = MediaEntityBuilder.createScreenCaptureFromBase64String(base64).build();
+            LogDispatcher.dispatch(LogRecord.ofReport(Redactor.redact(message), media, null));
+            return;
+        }
+
+        PFrameListener.getLog().ifPresent(report ->
+                AttachmentPipeline.screenshot(report, Redactor.redact(message), null, image));
+    }
+
+    /**
+     * Attaches the given bytes to the report. This will long in:
+     * <ul>
+     *   <li> REPORT
+     * </ul>
+     * The content is written to the attachments directory of the report by {@link AttachmentStore} and the node
+     * gets a link to it; images (image/*) are shown like screenshots. Any kind of content can be attached, e.g.
+     * HAR files, CSVs or logs.
+     * <p>
+     *
+     * @param content   Bytes of the attachment.
+     * @param mediaType Media type of the content (e.g. text/csv).
+     * @since 1.1
+     */
+    public static void attach(@NonNull final byte[] content, @NonNull final String mediaType) {
+        attached(AttachmentStore.store(content, mediaType), mediaType);
+    }
+
+    /**
+     * Attaches the remaining bytes of the given buffer to the report, as described in
+     * {@link #attach(byte[], String)}. The position of the buffer is not changed.
+     * <p>
+     *
+     * @param content   {@link ByteBuffer} holding the attachment, heap or direct.
+     * @param mediaType Media type of the content (e.g. text/csv).
+     * @since 1.1
+     */
+    public static void attach(@NonNull final ByteBuffer content, @NonNull final String mediaType) {
+        attached(AttachmentStore.store(content, mediaType), mediaType);
+    }
+
+    /**
+     * Attaches a copy of the given file to the report, as described in {@link #attach(byte[], String)}. The file
+     * is copied by the operating system, without passing through the heap.
+     * <p>
+     *
+     * @param file      {@link Path} of the file to be attached.
+     * @param mediaType Media type of the content (e.g. application/har+json).
+     * @since 1.1
+     */
+    public static void attach(@NonNull final Path file, @NonNull final String mediaType) {
+        attached(AttachmentStore.store(file), mediaType);
+    }
+
+    /**
+     * Attaches the content of the given stream to the report, as described in {@link #attach(byte[], String)}.
+     * The stream is read until its end and is not closed.
+     * <p>
+     *
+     * @param content   {@link InputStream} of the attachment.
+     * @param mediaType Media type of the content (e.g. text/plain).
+     * @since 1.1
+     */
+    public static void attach(@NonNull final InputStream content, @NonNull final String mediaType) {
+        attached(AttachmentStore.store(content, mediaType), mediaType);
     }
 
     /**
@@ -279,13 +445,22 @@ public final class Log {
      * <ul>
      *   <li> REPORT
      * </ul>
+     * Payloads longer than -Dlog.payload.inline characters are written to the attachments directory instead, and
+     * the report shows a link to the file with a pretty-printed preview of its beginning.
+     * <p>
      *
      * @param json Json to be printed in the report.
      * @since 1.0
      */
     public static void infoWithJson(@NonNull final String json) {
-        PFrameListener.getLog()
-                .ifPresent(l -> l.info(MarkupHelper.createCodeBlock(json, CodeLanguage.JSON)));
+        var payload = Redactor.redact(json);
+        if (payload.length() > Config.VALUES.getLogPayloadInline()) {
+            logPayload(payload, "application/json", PayloadPreview.json(payload, Config.VALUES.getLogPayloadPreview()));
+            return;
+        }
+
+        var markup = MarkupHelper.createCodeBlock(payload, CodeLanguage.JSON);
+        LogDispatcher.dispatch(LogRecord.ofReport(null, null, markup));
     }
 
     /**
@@ -293,11 +468,164 @@ public final class Log {
      * <ul>
      *   <li> REPORT
      * </ul>
+     * Large payloads are handled as described in {@link #infoWithJson(String)}.
+     * <p>
      *
      * @param xml XML to be printed in the report.
      */
     public static void infoWithXml(@NonNull final String xml) {
-        PFrameListener.getLog()
-                .ifPresent(l -> l.info(MarkupHelper.createCodeBlock(xml, CodeLanguage.XML)));
+        var payload = Redactor.redact(xml);
+        if (payload.length() > Config.VALUES.getLogPayloadInline()) {
+            logPayload(payload, "application/xml", PayloadPreview.xml(payload, Config.VALUES.getLogPayloadPreview()));
+            return;
+        }
+
+        var markup = MarkupHelper.createCodeBlock(payload, CodeLanguage.XML);
+        LogDispatcher.dispatch(LogRecord.ofReport(null, null, markup));
+    }
+
+    /**
+     * Starts a structured event, written once {@link LogEvent#log()} is called:
+     * <pre>
+     *     Log.event("http.call").with("status", 200).with("ms", 43).log();
+     * </pre>
+     * Besides the usual destinations, events are written as JSON lines to events.jsonl in the report directory.
+     * <p>
+     *
+     * @param name Name of the event.
+     * @return New {@link LogEvent}.
+     * @since 1.1
+     */
+    public static LogEvent event(@NonNull final String name) {
+        return new LogEvent(name);
+    }
+
+    /**
+     * Waits until all pending messages have been written. Only has an effect when asynchronous logging is
+     * enabled; it is called automatically at the end of each test and suite.
+     *
+     * @since 1.1
+     */
+    public static void flush() {
+        LogThrottle.flush();
+        LogDispatcher.drain();
+    }
+
+    /**
+     * Stores a payload too large to be embedded as an attachment and logs a link to it, followed by the preview.
+     * <p>
+     *
+     * @param payload   Full payload.
+     * @param mediaType Media type of the payload.
+     * @param preview   Pretty-printed beginning of the payload.
+     */
+    private static void logPayload(@NonNull final String payload, @NonNull final String mediaType,
+                                   @NonNull final String preview) {
+        var path = AttachmentStore.store(payload, mediaType);
+        var link = String.format("Payload of %,d characters attached as <a href='%s' target='_blank'>%s</a>",
+                payload.length(), path, path.substring(path.lastIndexOf('/') + 1));
+        var code = MarkupHelper.createCodeBlock(preview);
+
+        Markup markup = () -> link + code.getMarkup();
+        LogDispatcher.dispatch(LogRecord.ofReport(null, null, markup));
+    }
+
+    /**
+     * Logs a link to a stored attachment with its media type and size. Images are also shown in the report.
+     * <p>
+     *
+     * @param path      Path of the attachment, relative to the report.
+     * @param mediaType Media type of the attachment.
+     */
+    private static void attached(@NonNull final String path, @NonNull final String mediaType) {
+        long size;
+        try {
+            size = Files.size(Paths.get(Config.VALUES.getReportPath(), path));
+        } catch (IOException e) {
+            throw new FrameworkException(String.format("Failed to read attachment [%s]", path), e);
+        }
+
+        var name = path.substring(path.lastIndexOf('/') + 1);
+        var message = String.format("Attachment <a href='%s' target='_blank'>%s</a> (%s, %,d bytes)",
+                path, name, mediaType, size);
+
+        var media = mediaType.startsWith("image/")
+                ? MediaEntityBuilder.createScreenCaptureFromPath(path).build()
+                : null;
+        LogDispatcher.dispatch(LogRecord.ofReport(message, media, null));
+    }
+
+    /**
+     * @return True if screenshots are embedded in the report as base64 (-Dreport.screenshots=inline) rather than
+     * stored as files.
+     */
+    private static boolean isInlineScreenshots() {
+        return "inline".equals(Config.VALUES.getReportScreenshots());
+    }
+
+    /**
+     * Logs a plain message. Its call site is looked up only if the level is rate limited.
+     * <p>
+     *
+     * @param level   {@link LogLevel} of the message.
+     * @param message Text of the message.
+     * @param cause   Exception logged with the message, can be null.
+     */
+    private static void log(@NonNull final LogLevel level, @NonNull final String message, final Throwable cause) {
+        var suppressed = LogThrottle.isLimited(level) ? LogThrottle.acquire(level, LogThrottle.callSite()) : 0;
+        if (suppressed != LogThrottle.SUPPRESSED) emit(level, message, suppressed, cause);
+    }
+
+    /**
+     * Logs a message built from a template, which is also the key of the rate limit. The message is only formatted
+     * if the level is enabled and the message gets through the limit.
+     * <p>
+     *
+     * @param level    {@link LogLevel} of the message.
+     * @param template Template of the message, same syntax as {@link String#format(String, Object...)}.
+     * @param args     Arguments referenced by the format specifiers in the template.
+     */
+    private static void logFormatted(@NonNull final LogLevel level, @NonNull final String template,
+                                     final Object[] args) {
+        if (!LogDispatcher.isEnabled(level)) return;
+
+        var suppressed = LogThrottle.acquire(level, template);
+        if (suppressed == LogThrottle.SUPPRESSED) return;
+
+        emit(level, MessageFormatter.format(template, args), suppressed, null);
+    }
+
+    /**
+     * Logs a message computed by a supplier, whose class is the key of the rate limit. The supplier is only called
+     * if the level is enabled and the message gets through the limit.
+     * <p>
+     *
+     * @param level   {@link LogLevel} of the message.
+     * @param message Supplier of the text of the message.
+     */
+    private static void logLazy(@NonNull final LogLevel level, @NonNull final Supplier<String> message) {
+        if (!LogDispatcher.isEnabled(level)) return;
+
+        var suppressed = LogThrottle.acquire(level, message.getClass());
+        if (suppressed != LogThrottle.SUPPRESSED) emit(level, message.get(), suppressed, null);
+    }
+
+    /**
+     * Redacts the message, notes the messages suppressed before it and hands it to the sinks, unless it repeats
+     * the previous message of the thread.
+     * <p>
+     *
+     * @param level      {@link LogLevel} of the message.
+     * @param message    Text of the message.
+     * @param suppressed Number of messages of the call site dropped before this one.
+     * @param cause      Exception logged with the message, can be null.
+     */
+    private static void emit(@NonNull final LogLevel level, @NonNull final String message, final long suppressed,
+                             final Throwable cause) {
+        var redacted = Redactor.redact(message);
+        var text = suppressed > 0 ? LogThrottle.withSuppressed(redacted, suppressed) : redacted;
+        if (LogThrottle.collapse(level, text, cause)) return;
+
+        LogDispatcher.dispatch(LogRecord.of(level, text, cause));
     }
 }
@@ -0,0 +1,199 @@
+package com.qaitsolutions.pframe.core.logging;
+
+import com.qaitsolutions.pframe.core.config.Config;
+import com.qaitsolutions.pframe.core.exceptions.FrameworkException;
+import lombok.NonNull;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Fans out {@link LogRecord} objects to the registered {@link LogSinks}.
+ * <p>
+ * By default records are written on the calling thread. When log.async=true, records are published into a
+ * bounded {@link LogRingBuffer} and written by a single worker thread, which keeps the order of the messages.
+ * What happens when the buffer is full is decided by log.async.backpressure:
+ * <ul>
+ *   <li> block - the calling thread waits for a free slot
+ *   <li> drop_debug - debug messages are dropped, other messages wait for a free slot
+ *   <li> spill - the calling thread writes the message itself. Spilled messages overtake the ones still waiting
+ *   in the buffer, so the log order is only kept as long as the buffer does not fill up
+ * </ul>
+ * The worker polls briefly after each message and then sleeps until a producer wakes it up, so an idle pipeline
+ * does not keep a core busy.
+ * <p>
+ *
+ * @author Iulian Andrei (iulian.andrei@qaitsolutions.com)
+ * @since 1.1
+ */
+final class LogDispatcher {
+
+    private static final long IDLE_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+    private static final long SLEEP_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final int IDLE_POLLS = 100;
+    private static final long DRAIN_TIMEOUT_NANOS = TimeUnit.SECONDS.toNanos(30);
+
+    private static final Backpressure BACKPRESSURE = Backpressure.from(Config.VALUES.getLogAsyncBackpressure());
+    private static final LogRingBuffer<LogRecord> BUFFER = Config.VALUES.isLogAsync()
+            ? new LogRingBuffer<>(Config.VALUES.getLogAsyncBuffer())
+            : null;
+
+    private static final AtomicLong WRITTEN = new AtomicLong();
+    private static volatile boolean sleeping;
+
+    private static final Thread WORKER = BUFFER != null ? startWorker() : null;
+
+    /**
+     * Writes the record immediately, or publishes it to the worker when async logging is enabled.
+     * <p>
+     *
+     * @param record {@link LogRecord} to be written.
+     */
+    static void dispatch(@NonNull final LogRecord record) {
+        if (BUFFER == null || Thread.currentThread() == WORKER) {
+            LogSinks.write(record);
+            return;
+        }
+
+        while (!BUFFER.offer(record)) {
+            switch (BACKPRESSURE) {
+                case DROP_DEBUG -> {
+                    if (record.getLevel() == LogLevel.DEBUG) return;
+                }
+                case SPILL -> {
+                    LogSinks.write(record);
+                    return;
+                }
+                default -> { }
+            }
+
+            LockSupport.parkNanos(IDLE_PARK_NANOS);
+        }
+
+        if (sleeping) LockSupport.unpark(WORKER);
+    }
+
+    /**
+     * Checks if a message of the given level would be written anywhere. Used to skip formatting messages
+     * nobody consumes.
+     * <p>
+     *
+     * @param level {@link LogLevel} of the message.
+     * @return True if at least one destination accepts the level.
+     */
+    static boolean isEnabled(@NonNull final LogLevel level) {
+        return LogSinks.isEnabled(level);
+    }
+
+    /**
+     * Waits until all records published so far, including the ones of other threads, have been written, then
+     * flushes the sinks. The worker writes the records in the order of their buffer positions, so once it has
+     * written as many records as positions were claimed when this method was called, the records of the calling
+     * thread are written too.
+     */
+    static void drain() {
+        if (BUFFER == null || Thread.currentThread() == WORKER) {
+            LogSinks.flush();
+            return;
+        }
+
+        var target = BUFFER.claimed();
+        var deadline = System.nanoTime() + DRAIN_TIMEOUT_NANOS;
+
+        while (WRITTEN.get() < target && WORKER.isAlive()) {
+            if (System.nanoTime() - deadline > 0) {
+                FileLog.warn(String.format("Log drain timed out, %d messages are still pending",
+                        target - WRITTEN.get()));
+                break;
+            }
+
+            LockSupport.unpark(WORKER);
+            LockSupport.parkNanos(IDLE_PARK_NANOS);
+        }
+
+        LogSinks.flush();
+    }
+
+    /**
+     * Starts the daemon thread that writes the published records. A shutdown hook drains the buffer, so the
+     * messages published right before the JVM exits are not lost.
+     * <p>
+     *
+     * @return The started worker thread.
+     */
+    private static Thread startWorker() {
+        var worker = new Thread(LogDispatcher::work, "pframe-log-writer");
+        worker.setDaemon(true);
+        worker.start();
+
+        Runtime.getRuntime().addShutdownHook(new Thread(LogDispatcher::drain, "pframe-log-drain"));
+
+        return worker;
+    }
+
+    /**
+     * Worker loop that takes records from the buffer and writes them. After {@value #IDLE_POLLS} empty polls the
+     * worker sleeps until {@link #dispatch(LogRecord)} wakes it up. The flag is set before the buffer is checked
+     * again and read by producers after publishing, so a record published while the worker falls asleep is not
+     * missed; the timed park is only a safety net.
+     */
+    private static void work() {
+        var idle = 0;
+
+        while (true) {
+            var record = BUFFER.poll();
+
+            if (record == null) {
+                if (++idle < IDLE_POLLS) {
+                    LockSupport.parkNanos(IDLE_PARK_NANOS);
+                    continue;
+                }
+
+                sleeping = true;
+                record = BUFFER.poll();
+                if (record == null) {
+                    LockSupport.parkNanos(SLEEP_PARK_NANOS);
+                    sleeping = false;
+                    continue;
+                }
+                sleeping = false;
+            }
+
+            idle = 0;
+            try {
+                LogSinks.write(record);
+            } catch (RuntimeException e) {
+                LogSinks.failed("Log record could not be written", e);
+            } finally {
+                WRITTEN.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Strategies applied when the buffer is full.
+     */
+    private enum Backpressure {
+        BLOCK,
+        DROP_DEBUG,
+        SPILL;
+
+        /**
+         * Parses the configured strategy.
+         * <p>
+         *
+         * @param value Value of log.async.backpressure.
+         * @return Matching {@link Backpressure}.
+         */
+        private static Backpressure from(final String value) {
+            return switch (value) {
+                case "block" -> BLOCK;
+                case "drop_debug" -> DROP_DEBUG;
+                case "spill" -> SPILL;
+                default -> throw new FrameworkException(
+                        "log.async.backpressure parameter is not set correctly, use block, drop_debug or spill");
+            };
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.qaitsolutions.pframe.core.logging;
+
+import com.aventstack.extentreports.markuputils.Markup;
+import com.aventstack.extentreports.markuputils.MarkupHelper;
+import lombok.Getter;
+import lombok.NonNull;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Structured log message made of an event name and key-value fields, created with {@link Log#event(String)}:
+ * <pre>
+ *     Log.event("http.call").with("status", 200).with("ms", 43).log();
+ * </pre>
+ * The event is written as a line of events.jsonl in the report directory, as a table in the report node and as
+ * "name key=value ..." in the console and the file log. Nothing is written until {@link #log()} is called, and
+ * the event must not be changed afterwards.
+ * <p>
+ *
+ * @author Iulian Andrei (iulian.andrei@qaitsolutions.com)
+ * @since 1.1
+ */
+public final class LogEvent {
+
+    @Getter
+    private final String name;
+
+    private String[] keys = new String[4];
+    private Object[] values = new Object[4];
+    private int size;
+
+    LogEvent(@NonNull final String name) {
+        this.name = name;
+    }
+
+    /**
+     * Adds a field. Numbers and booleans are kept as such in the JSON output, other values are written as text.
+     * <p>
+     *
+     * @param key   Name of the field.
+     * @param value Value of the field, can be null.
+     * @return This event.
+     */
+    public LogEvent with(@NonNull final String key, final Object value) {
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, size * 2);
+            values = Arrays.copyOf(values, size * 2);
+        }
+
+        keys[size] = key;
+        values[size++] = value;
+        return this;
+    }
+
+    /**
+     * Logs the event with info level.
+     */
+    public void log() {
+        log(LogLevel.INFO);
+    }
+
+    /**
+     * Logs the event with the given level.
+     * <p>
+     *
+     * @param level {@link LogLevel} of the event.
+     */
+    public void log(@NonNull final LogLevel level) {
+        if (!LogDispatcher.isEnabled(level)) return;
+
+        for (var i = 0; i < size; i++) {
+            if (values[i] instanceof CharSequence text) values[i] = Redactor.redact(text.toString());
+        }
+
+        LogDispatcher.dispatch(LogRecord.ofEvent(level, this));
+    }
+
+    /**
+     * Writes the fields as members of a JSON object, each preceded by a comma.
+     * <p>
+     *
+     * @param out {@link Appendable} to write to.
+     * @throws IOException If the output fails.
+     */
+    void writeFields(@NonNull final Appendable out) throws IOException {
+        for (var i = 0; i < size; i++) {
+            out.append(',');
+            Json.writeString(out, keys[i]);
+            out.append(':');
+            Json.writeValue(out, values[i]);
+        }
+    }
+
+    /**
+     * @return Two rows table with the event name and the field names, followed by their values.
+     */
+    Markup toMarkup() {
+        var table = new String[2][size + 1];
+        table[0][0] = "event";
+        table[1][0] = escapeHtml(name);
+
+        for (var i = 0; i < size; i++) {
+            table[0][i + 1] = escapeHtml(keys[i]);
+            table[1][i + 1] = escapeHtml(String.valueOf(values[i]));
+        }
+
+        return MarkupHelper.createTable(table);
+    }
+
+    /**
+     * @return Event as "name key=value ...", used by the text destinations.
+     */
+    @Override
+    public String toString() {
+        var text = new StringBuilder(name);
+        for (var i = 0; i < size; i++) text.append(' ').append(keys[i]).append('=').append(values[i]);
+
+        return text.toString();
+    }
+
+    /**
+     * @return Text with the HTML special characters escaped, to be shown as is in the report.
+     */
+    private static String escapeHtml(@NonNull final String value) {
+        return value.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;");
+    }
+}
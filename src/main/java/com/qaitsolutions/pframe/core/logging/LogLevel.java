@@ -0,0 +1,58 @@
+package com.qaitsolutions.pframe.core.logging;
+
+import com.qaitsolutions.pframe.core.exceptions.FrameworkException;
+import com.qaitsolutions.pframe.core.logging.ConsoleLog.AnsiColor;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NonNull;
+import org.apache.logging.log4j.Level;
+
+import java.util.Locale;
+
+/**
+ * Levels supported by {@link Log}, together with their severity, console color and file log level. Levels with
+ * the same severity (e.g. info and pass) pass the same thresholds.
+ * <p>
+ *
+ * @author Iulian Andrei (iulian.andrei@qaitsolutions.com)
+ * @since 1.1
+ */
+@AllArgsConstructor @Getter
+public enum LogLevel {
+    DEBUG(0, AnsiColor.MAGENTA, Level.DEBUG),
+    INFO(1, AnsiColor.CYAN, Level.INFO),
+    PASS(1, AnsiColor.GREEN, Level.INFO),
+    WARN(2, AnsiColor.YELLOW, Level.WARN),
+    SKIP(2, AnsiColor.YELLOW, Level.WARN),
+    FAIL(3, AnsiColor.RED, Level.ERROR);
+
+    private final int severity;
+    private final AnsiColor color;
+    private final Level fileLevel;
+
+    /**
+     * Checks if this level passes the given threshold.
+     * <p>
+     *
+     * @param threshold Minimum {@link LogLevel} accepted.
+     * @return True if this level is at least as severe as the threshold.
+     */
+    public boolean isAtLeast(@NonNull final LogLevel threshold) {
+        return severity >= threshold.severity;
+    }
+
+    /**
+     * Parses a level name, ignoring case.
+     * <p>
+     *
+     * @param name Name of the level (e.g. debug, info, warn).
+     * @return Matching {@link LogLevel}.
+     */
+    public static LogLevel from(@NonNull final String name) {
+        try {
+            return valueOf(name.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new FrameworkException(String.format("Unknown log level [%s]", name), e);
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.qaitsolutions.pframe.core.logging;
+
+import com.aventstack.extentreports.markuputils.Markup;
+import com.aventstack.extentreports.model.Media;
+import com.qaitsolutions.pframe.core.extent_reporting.ExtentLogger;
+import com.qaitsolutions.pframe.core.testng.PFrameListener;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NonNull;
+import org.apache.logging.log4j.ThreadContext;
+
+/**
+ * Single message published by {@link Log}. The report log is captured when the record is created, so the
+ * message lands in the node of the calling test even if it is written later by another thread.
+ * <p>
+ *
+ * @author Iulian Andrei (iulian.andrei@qaitsolutions.com)
+ * @since 1.1
+ */
+@Getter
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public final class LogRecord {
+
+    private final LogLevel level;
+    private String message;
+    private final Throwable cause;
+    private final ExtentLogger report;
+    private final Media media;
+    private final Markup markup;
+    private final boolean reportOnly;
+    private final String thread;
+    private final String nodeContext;
+    private final LogEvent event;
+    private final long timestamp;
+
+    /**
+     * Creates a record that will be sent to all destinations.
+     * <p>
+     *
+     * @param level   {@link LogLevel} of the message.
+     * @param message Text of the message.
+     * @param cause   {@link Throwable} to be logged with the message, can be null.
+     * @return New {@link LogRecord} bound to the current report node.
+     */
+    static LogRecord of(@NonNull final LogLevel level, @NonNull final String message, final Throwable cause) {
+        return new LogRecord(level, message, cause, currentReport(), null, null, false, currentThread(),
+                currentNodeContext(), null, System.currentTimeMillis());
+    }
+
+    /**
+     * Creates an info record that will be sent only to the report.
+     * <p>
+     *
+     * @param message Text of the message, can be null if markup is given.
+     * @param media   {@link Media} to be attached, can be null.
+     * @param markup  {@link Markup} to be added instead of the message, can be null.
+     * @return New {@link LogRecord} bound to the current report node.
+     */
+    static LogRecord ofReport(final String message, final Media media, final Markup markup) {
+        return new LogRecord(LogLevel.INFO, message, null, currentReport(), media, markup, true, currentThread(),
+                currentNodeContext(), null, System.currentTimeMillis());
+    }
+
+    /**
+     * Creates an info record that will be sent only to the given report node. Used when the record is produced
+     * by another thread than the one running the node.
+     * <p>
+     *
+     * @param report  {@link ExtentLogger} of the node.
+     * @param message Text of the message, can be null if markup is given.
+     * @param media   {@link Media} to be attached, can be null.
+     * @param markup  {@link Markup} to be added instead of the message, can be null.
+     * @return New {@link LogRecord} bound to the given report node.
+     */
+    static LogRecord ofReport(@NonNull final ExtentLogger report, final String message, final Media media,
+                              final Markup markup) {
+        return new LogRecord(LogLevel.INFO, message, null, report, media, markup, true, currentThread(),
+                null, null, System.currentTimeMillis());
+    }
+
+    /**
+     * Creates a record holding a structured event, sent to all destinations.
+     * <p>
+     *
+     * @param level {@link LogLevel} of the event.
+     * @param event {@link LogEvent} to be written.
+     * @return New {@link LogRecord} bound to the current report node.
+     */
+    static LogRecord ofEvent(@NonNull final LogLevel level, @NonNull final LogEvent event) {
+        return new LogRecord(level, null, null, currentReport(), null, null, false, currentThread(),
+                currentNodeContext(), event, System.currentTimeMillis());
+    }
+
+    /**
+     * Text of the record. For events it is rendered on first use, so it is not built when only the JSON output
+     * needs the event.
+     * <p>
+     *
+     * @return Text of the message.
+     */
+    public String getMessage() {
+        if (message == null && event != null) message = event.toString();
+        return message;
+    }
+
+    /**
+     * @return Report log of the node the calling thread is running, or null if there is none.
+     */
+    private static ExtentLogger currentReport() {
+        return PFrameListener.getLog().orElse(null);
+    }
+
+    /**
+     * @return Node id set by {@link NodeLogFiles} for the calling thread, or null.
+     */
+    private static String currentNodeContext() {
+        return ThreadContext.get(NodeLogFiles.CONTEXT_KEY);
+    }
+
+    /**
+     * @return Name of the calling thread.
+     */
+    private static String currentThread() {
+        return Thread.currentThread().getName();
+    }
+}
@@ -0,0 +1,106 @@
+package com.qaitsolutions.pframe.core.logging;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bounded lock-free queue backed by a ring buffer. Every slot carries a sequence number that tells producers
+ * and consumers whether the slot is free or filled, so neither side needs a lock.
+ * <p>
+ *
+ * @param <E> Type of the stored elements.
+ * @author Iulian Andrei (iulian.andrei@qaitsolutions.com)
+ * @since 1.1
+ */
+final class LogRingBuffer<E> {
+
+    private final Object[] elements;
+    private final AtomicLongArray sequences;
+    private final int mask;
+
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicLong tail = new AtomicLong();
+
+    /**
+     * Creates a ring buffer with a capacity of at least the given size, rounded up to a power of two.
+     * <p>
+     *
+     * @param size Minimum number of elements the buffer can hold.
+     */
+    LogRingBuffer(final int size) {
+        var capacity = Integer.highestOneBit(Math.max(2, size - 1)) << 1;
+
+        this.elements = new Object[capacity];
+        this.sequences = new AtomicLongArray(capacity);
+        this.mask = capacity - 1;
+
+        for (var i = 0; i < capacity; i++) sequences.set(i, i);
+    }
+
+    /**
+     * Adds an element to the buffer.
+     * <p>
+     *
+     * @param element Element to be added.
+     * @return True if the element was added | False if the buffer is full.
+     */
+    boolean offer(final E element) {
+        var position = tail.get();
+
+        while (true) {
+            var index = (int) (position & mask);
+            var difference = sequences.get(index) - position;
+
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    elements[index] = element;
+                    sequences.set(index, position + 1);
+                    return true;
+                }
+                position = tail.get();
+            } else if (difference < 0) {
+                return false;
+            } else {
+                position = tail.get();
+            }
+        }
+    }
+
+    /**
+     * @return Number of positions claimed by producers so far. Every element offered before this call has a
+     * position below the returned value, even if it is still being stored.
+     */
+    long claimed() {
+        return tail.get();
+    }
+
+    /**
+     * Removes the oldest element from the buffer.
+     * <p>
+     *
+     * @return The oldest element, or null if the buffer is empty.
+     */
+    @SuppressWarnings("unchecked")
+    E poll() {
+        var position = head.get();
+
+        while (true) {
+            var index = (int) (position & mask);
+            var difference = sequences.get(index) - (position + 1);
+
+            if (difference == 0) {
+                if (head.compareAndSet(position, position + 1)) {
+                    var element = (E) elements[index];
+                    elements[index] = null;
+                    sequences.set(index, position + mask + 1);
+                    return element;
+                }
+                position = head.get();
+            } else if (difference < 0) {
+                return null;
+            } else {
+                position = head.get();
+            }
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.qaitsolutions.pframe.core.logging;
+
+import lombok.NonNull;
+
+/**
+ * Destination of the messages published through {@link Log}.
+ * <p>
+ * Besides the built-in report, console and file sinks, additional sinks can be registered with
+ * {@link LogSinks#register(LogSink)} or discovered through {@link java.util.ServiceLoader}, by listing the
+ * implementation in META-INF/services/com.qaitsolutions.pframe.core.logging.LogSink. Each sink only receives the
+ * levels that pass its threshold, which is read from -Dlog.&lt;name&gt;.level and defaults to
+ * {@link #defaultLevel()}.
+ * <p>
+ * Records for which {@link LogRecord#isReportOnly()} is true carry media or markup meant for the report and are
+ * usually ignored by other sinks. Sinks may be called from several threads at once.
+ * <p>
+ *
+ * @author Iulian Andrei (iulian.andrei@qaitsolutions.com)
+ * @since 1.1
+ */
+public interface LogSink {
+
+    /**
+     * @return Unique name of the sink, used in configuration keys (e.g. console for log.console.level).
+     */
+    String name();
+
+    /**
+     * @return {@link LogLevel} used as threshold when no level is configured for the sink.
+     */
+    default LogLevel defaultLevel() {
+        return LogLevel.DEBUG;
+    }
+
+    /**
+     * Additional check, next to the threshold, that tells if the sink would write a message of the given level
+     * right now. Used to avoid formatting messages nobody consumes.
+     * <p>
+     *
+     * @param level {@link LogLevel} of the message.
+     * @return True if the sink would write the message.
+     */
+    default boolean isEnabled(@NonNull final LogLevel level) {
+        return true;
+    }
+
+    /**
+     * Writes the record. Only called for records that passed the threshold of the sink.
+     * <p>
+     *
+     * @param record {@link LogRecord} to be written.
+     */
+    void write(@NonNull LogRecord record);
+
+    /**
+     * Writes any buffered output. Called when {@link Log#flush()} is called.
+     */
+    default void flush() {
+    }
+}
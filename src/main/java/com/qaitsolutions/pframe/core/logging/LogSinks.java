@@ -0,0 +1,179 @@
+package com.qaitsolutions.pframe.core.logging;
+
+import com.qaitsolutions.pframe.core.config.Config;
+import lombok.NonNull;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.ServiceLoader;
+import java.util.function.Supplier;
+
+/**
+ * Registry of the {@link LogSink} objects that {@link Log} writes to.
+ * <p>
+ * The registry starts with the built-in report, console, file and events sinks plus the sinks found through
+ * {@link ServiceLoader}. With -Dlog.sinks=console,file only the listed sinks are kept. The threshold of each sink
+ * is read from -Dlog.&lt;name&gt;.level (e.g. -Dlog.console.level=warn). Built-in sinks left out by log.sinks are
+ * not created at all, so they start no threads or shutdown hooks.
+ * <p>
+ * Report-only records ({@link LogRecord#isReportOnly()}: screenshots, payloads, attachments) are handed to every
+ * sink whatever its threshold, so -Dlog.report.level=warn does not drop them from the report.
+ * <p>
+ * For every level the registry keeps the array of sinks accepting it, so a message nobody accepts is dropped
+ * with a single array lookup.
+ * <p>
+ *
+ * @author Iulian Andrei (iulian.andrei@qaitsolutions.com)
+ * @since 1.1
+ */
+public final class LogSinks {
+
+    private static final List<LogSink> SINKS = new ArrayList<>();
+    private static volatile LogSink[][] byLevel;
+    private static volatile LogSink[] all;
+
+    static {
+        Map<String, Supplier<LogSink>> builtIn = new LinkedHashMap<>();
+        builtIn.put("report", ReportSink::new);
+        builtIn.put("console", ConsoleSink::new);
+        builtIn.put("file", FileSink::new);
+        builtIn.put("events", EventSink::new);
+
+        var enabled = Config.VALUES.getLogSinks();
+        builtIn.forEach((name, sink) -> {
+            if (enabled.isEmpty() || enabled.contains(name)) SINKS.add(sink.get());
+        });
+
+        ServiceLoader.load(LogSink.class).forEach(sink -> {
+            if (enabled.isEmpty() || enabled.contains(sink.name())) SINKS.add(sink);
+        });
+
+        rebuild();
+    }
+
+    /**
+     * Adds a sink, using its configured or default threshold. A sink with the same name is replaced.
+     * <p>
+     *
+     * @param sink {@link LogSink} to be added.
+     */
+    public static synchronized void register(@NonNull final LogSink sink) {
+        SINKS.removeIf(s -> s.name().equals(sink.name()));
+        SINKS.add(sink);
+        rebuild();
+    }
+
+    /**
+     * Removes the sink with the given name.
+     * <p>
+     *
+     * @param name Name of the sink (e.g. console).
+     */
+    public static synchronized void unregister(@NonNull final String name) {
+        SINKS.removeIf(s -> s.name().equals(name));
+        rebuild();
+    }
+
+    /**
+     * Checks if at least one sink would write a message of the given level.
+     * <p>
+     *
+     * @param level {@link LogLevel} of the message.
+     * @return True if at least one sink accepts the level.
+     */
+    public static boolean isEnabled(@NonNull final LogLevel level) {
+        for (var sink : byLevel[level.ordinal()])
+            if (sink.isEnabled(level)) return true;
+
+        return false;
+    }
+
+    /**
+     * Checks if the sink with the given name is registered.
+     * <p>
+     *
+     * @param name Name of the sink (e.g. file).
+     * @return True if the sink is registered.
+     */
+    public static boolean isRegistered(@NonNull final String name) {
+        for (var sink : all)
+            if (sink.name().equals(name)) return true;
+
+        return false;
+    }
+
+    /**
+     * Writes the record to all sinks accepting its level, or to all sinks if the record is report-only. A failing
+     * sink does not stop the others.
+     * <p>
+     *
+     * @param record {@link LogRecord} to be written.
+     */
+    static void write(@NonNull final LogRecord record) {
+        for (var sink : record.isReportOnly() ? all : byLevel[record.getLevel().ordinal()]) {
+            try {
+                sink.write(record);
+            } catch (RuntimeException e) {
+                failed(String.format("Log sink [%s] failed", sink.name()), e);
+            }
+        }
+    }
+
+    /**
+     * Reports a failure of the logging pipeline in the log file. The file log may be the failing part itself, so
+     * a failure to log it is ignored instead of being thrown into the test.
+     * <p>
+     *
+     * @param message Description of the failure.
+     * @param cause   {@link Throwable} that was caught.
+     */
+    static void failed(@NonNull final String message, @NonNull final Throwable cause) {
+        try {
+            FileLog.warn(message, cause);
+        } catch (RuntimeException ignored) {
+            // nothing left to report to
+        }
+    }
+
+    /**
+     * Flushes all sinks.
+     */
+    static void flush() {
+        for (var sink : snapshot()) sink.flush();
+    }
+
+    /**
+     * @return Copy of the registered sinks.
+     */
+    private static synchronized List<LogSink> snapshot() {
+        return List.copyOf(SINKS);
+    }
+
+    /**
+     * Recomputes the sinks accepting each level.
+     */
+    private static void rebuild() {
+        var levels = LogLevel.values();
+        var result = new LogSink[levels.length][];
+
+        for (var level : levels) {
+            result[level.ordinal()] = SINKS.stream()
+                    .filter(s -> level.isAtLeast(threshold(s)))
+                    .toArray(LogSink[]::new);
+        }
+
+        byLevel = result;
+        all = SINKS.toArray(LogSink[]::new);
+    }
+
+    /**
+     * @param sink {@link LogSink} for which to get the threshold.
+     * @return Configured threshold of the sink, or its default one.
+     */
+    private static LogLevel threshold(@NonNull final LogSink sink) {
+        var configured = Config.VALUES.getLogLevels().get(sink.name());
+        return configured != null ? LogLevel.from(configured) : sink.defaultLevel();
+    }
+}
@@ -0,0 +1,292 @@
+package com.qaitsolutions.pframe.core.logging;
+
+import com.qaitsolutions.pframe.core.config.Config;
+import lombok.NonNull;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Limits repeated log messages before they reach the sinks. Both features are off by default.
+ * <p>
+ * Rate limiting is configured per level with -Dlog.throttle.&lt;level&gt;=&lt;messages per second&gt;. Each call
+ * site (the format template, the supplier class of the lazy overloads, or for plain messages the line of the
+ * calling code found with {@link StackWalker}) gets its own token bucket, allowing a burst of one second worth of
+ * messages. Messages over the limit are dropped and counted, and the next message that gets through reports how
+ * many were suppressed. Up to {@value #MAX_SITES} call sites are tracked per level. When that number is reached,
+ * idle buckets (full again and with nothing suppressed) are evicted, at most once per second; new call sites are
+ * only left unlimited while all tracked ones are busy.
+ * <p>
+ * Collapsing is configured with -Dlog.collapse=&lt;levels&gt;. Consecutive identical messages logged by the same
+ * thread at one of those levels are written once, followed by "previous message repeated N times" when a
+ * different message is logged or {@link Log#flush()} is called.
+ * <p>
+ *
+ * @author Iulian Andrei (iulian.andrei@qaitsolutions.com)
+ * @since 1.1
+ */
+final class LogThrottle {
+
+    static final long SUPPRESSED = -1;
+
+    private static final int MAX_SITES = 10_000;
+    private static final long EVICTION_INTERVAL = TimeUnit.SECONDS.toNanos(1);
+    private static final String FRAMEWORK_PACKAGE = "com.qaitsolutions.pframe.core.";
+
+    private static final StackWalker WALKER = StackWalker.getInstance(StackWalker.Option.RETAIN_CLASS_REFERENCE);
+    private static final Function<Stream<StackWalker.StackFrame>, Site> FIND_SITE =
+            frames -> frames
+                    .filter(frame -> !frame.getClassName().startsWith(FRAMEWORK_PACKAGE))
+                    .findFirst()
+                    .map(frame -> new Site(frame.getDeclaringClass(), frame.getMethodName(), frame.getDescriptor(),
+                            frame.getByteCodeIndex()))
+                    .orElse(Site.UNKNOWN);
+
+    private static final Rate[] RATES = rates();
+    private static final boolean[] COLLAPSE = collapse();
+    private static final boolean COLLAPSE_ANY = anyOf(COLLAPSE);
+
+    private static final ThreadLocal<Repeat> LAST = ThreadLocal.withInitial(Repeat::new);
+
+    private LogThrottle() {
+    }
+
+    /**
+     * @param level {@link LogLevel} of the message.
+     * @return True if messages of the level are rate limited.
+     */
+    static boolean isLimited(@NonNull final LogLevel level) {
+        return RATES[level.ordinal()] != null;
+    }
+
+    /**
+     * Finds the call site of a plain message: the first frame outside the framework, identified by class, method
+     * and bytecode index. Only used when the level is rate limited, since walking the stack is not free.
+     * <p>
+     *
+     * @return Key identifying the calling line.
+     */
+    static Object callSite() {
+        return WALKER.walk(FIND_SITE);
+    }
+
+    /**
+     * Takes a permit for the call site.
+     * <p>
+     *
+     * @param level {@link LogLevel} of the message.
+     * @param site  Key identifying the call site.
+     * @return {@link #SUPPRESSED} if the message must be dropped, otherwise the number of messages of the call site
+     * dropped since the previous one that got through.
+     */
+    static long acquire(@NonNull final LogLevel level, @NonNull final Object site) {
+        var rate = RATES[level.ordinal()];
+        if (rate == null) return 0;
+
+        var bucket = rate.bucket(site);
+        if (bucket == null) return 0;
+
+        var now = System.nanoTime();
+        while (true) {
+            var next = bucket.next.get();
+            var start = Math.max(next, now);
+
+            if (start - now > rate.tolerance) {
+                bucket.suppressed.incrementAndGet();
+                return SUPPRESSED;
+            }
+
+            if (bucket.next.compareAndSet(next, start + rate.interval)) break;
+        }
+
+        return bucket.suppressed.get() == 0 ? 0 : bucket.suppressed.getAndSet(0);
+    }
+
+    /**
+     * Appends the number of suppressed messages to a message.
+     * <p>
+     *
+     * @param message    Message that got through the limit.
+     * @param suppressed Number of messages dropped before it.
+     * @return Message with the note appended.
+     */
+    static String withSuppressed(@NonNull final String message, final long suppressed) {
+        return message + String.format(Locale.ROOT, " (%,d similar messages suppressed)", suppressed);
+    }
+
+    /**
+     * Checks whether the message repeats the previous one of the calling thread. If it does not and the previous
+     * one was repeated, the repeat count is written first.
+     * <p>
+     *
+     * @param level   {@link LogLevel} of the message.
+     * @param message Message to be written.
+     * @param cause   Exception logged with the message, messages with an exception are never collapsed.
+     * @return True if the message must be dropped.
+     */
+    static boolean collapse(@NonNull final LogLevel level, @NonNull final String message, final Throwable cause) {
+        if (!COLLAPSE_ANY) return false;
+
+        var last = LAST.get();
+        if (cause == null && COLLAPSE[level.ordinal()] && level == last.level && message.equals(last.message)) {
+            last.count++;
+            return true;
+        }
+
+        flush(last);
+        if (cause == null && COLLAPSE[level.ordinal()]) {
+            last.level = level;
+            last.message = message;
+        }
+
+        return false;
+    }
+
+    /**
+     * Writes the repeat count of the calling thread, if any.
+     */
+    static void flush() {
+        if (COLLAPSE_ANY) flush(LAST.get());
+    }
+
+    /**
+     * Writes the repeat count of a thread, if any, and forgets its last message.
+     * <p>
+     *
+     * @param last {@link Repeat} of the thread.
+     */
+    private static void flush(@NonNull final Repeat last) {
+        if (last.count > 0) {
+            var message = String.format(Locale.ROOT, "previous message repeated %,d times", last.count);
+            LogDispatcher.dispatch(LogRecord.of(last.level, message, null));
+        }
+
+        last.level = null;
+        last.message = null;
+        last.count = 0;
+    }
+
+    /**
+     * @return Limit of each level as configured with -Dlog.throttle.&lt;level&gt;, indexed by ordinal; null for
+     * the levels that are not limited.
+     */
+    private static Rate[] rates() {
+        var rates = new Rate[LogLevel.values().length];
+
+        for (Map.Entry<String, String> entry : Config.VALUES.getLogThrottle().entrySet()) {
+            var perSecond = Double.parseDouble(entry.getValue());
+            if (perSecond > 0) rates[LogLevel.from(entry.getKey()).ordinal()] = new Rate(perSecond);
+        }
+
+        return rates;
+    }
+
+    /**
+     * @return Levels whose repeated messages are collapsed, as configured with -Dlog.collapse, indexed by ordinal.
+     */
+    private static boolean[] collapse() {
+        var collapse = new boolean[LogLevel.values().length];
+        Config.VALUES.getLogCollapse().forEach(level -> collapse[LogLevel.from(level).ordinal()] = true);
+
+        return collapse;
+    }
+
+    /**
+     * @return True if at least one of the values is true.
+     */
+    private static boolean anyOf(final boolean[] values) {
+        for (var value : values) if (value) return true;
+        return false;
+    }
+
+    /**
+     * Limit of one level. Buckets use the generic cell rate algorithm: a single timestamp per call site holding
+     * the earliest time the next message is due, updated with one compare-and-set.
+     */
+    private static final class Rate {
+
+        private final long interval;
+        private final long tolerance;
+        private final Map<Object, Bucket> buckets = new ConcurrentHashMap<>();
+        private final AtomicLong lastEviction = new AtomicLong(System.nanoTime() - EVICTION_INTERVAL);
+
+        private Rate(final double perSecond) {
+            var burst = Math.max(1, (long) Math.ceil(perSecond));
+
+            this.interval = Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / perSecond));
+            this.tolerance = interval * (burst - 1);
+        }
+
+        /**
+         * @param site Key identifying the call site.
+         * @return Bucket of the call site, or null if it cannot be tracked.
+         */
+        private Bucket bucket(@NonNull final Object site) {
+            var bucket = buckets.get(site);
+            if (bucket != null) return bucket;
+
+            if (buckets.size() >= MAX_SITES && !evict()) return null;
+
+            return buckets.computeIfAbsent(site, key -> new Bucket(System.nanoTime()));
+        }
+
+        /**
+         * Removes the buckets that are full again and have nothing suppressed, which behave like new ones.
+         * <p>
+         *
+         * @return True if there is room for a new bucket.
+         */
+        private boolean evict() {
+            var now = System.nanoTime();
+            var last = lastEviction.get();
+
+            if (now - last >= EVICTION_INTERVAL && lastEviction.compareAndSet(last, now))
+                buckets.values().removeIf(b -> b.next.get() - now <= 0 && b.suppressed.get() == 0);
+
+            return buckets.size() < MAX_SITES;
+        }
+    }
+
+    /**
+     * Token bucket of one call site: the earliest time the next message is due and the number of messages
+     * dropped since the last one that got through.
+     */
+    private static final class Bucket {
+
+        private final AtomicLong next;
+        private final AtomicLong suppressed = new AtomicLong();
+
+        private Bucket(final long now) {
+            this.next = new AtomicLong(now);
+        }
+    }
+
+    /**
+     * Line of code outside the framework that logged a plain message.
+     * <p>
+     *
+     * @param type          Class of the caller.
+     * @param method        Name of the calling method.
+     * @param descriptor    Descriptor of the calling method, which tells overloads apart.
+     * @param byteCodeIndex Position of the call in the bytecode of the method.
+     */
+    private record Site(Class<?> type, String method, String descriptor, int byteCodeIndex) {
+
+        private static final Site UNKNOWN = new Site(LogThrottle.class, "", "", -1);
+    }
+
+    /**
+     * Last message logged by a thread at a collapsed level and the number of times it was repeated since.
+     */
+    private static final class Repeat {
+
+        private LogLevel level;
+        private String message;
+        private long count;
+    }
+}
@@ -0,0 +1,100 @@
+package com.qaitsolutions.pframe.core.logging;
+
+import lombok.NonNull;
+
+import java.text.DecimalFormatSymbols;
+import java.util.Formattable;
+import java.util.Locale;
+
+/**
+ * Allocation-light replacement for {@link String#format(String, Object...)} used by {@link Log}.
+ * <p>
+ * The common specifiers %s, %d, %% and %n are resolved with a reusable, per thread {@link StringBuilder}.
+ * Templates using anything else (widths, precision, argument indexes, other conversions) are handed over to
+ * {@link String#format(String, Object...)}, so the output is always the same as before.
+ * <p>
+ *
+ * @author Iulian Andrei (iulian.andrei@qaitsolutions.com)
+ * @since 1.1
+ */
+final class MessageFormatter {
+
+    private static final int MAX_RETAINED_CAPACITY = 16 * 1024;
+    private static final boolean ASCII_DIGITS =
+            DecimalFormatSymbols.getInstance(Locale.getDefault(Locale.Category.FORMAT)).getZeroDigit() == '0';
+
+    private static final ThreadLocal<StringBuilder> BUILDER = ThreadLocal.withInitial(() -> new StringBuilder(256));
+
+    /**
+     * Formats the template with the given arguments.
+     * <p>
+     *
+     * @param template Format string, same syntax as {@link String#format(String, Object...)}.
+     * @param args     Arguments referenced by the format specifiers in the template.
+     * @return Formatted message.
+     */
+    static String format(@NonNull final String template, final Object... args) {
+        if ((args == null || args.length == 0) && template.indexOf('%') < 0) return template;
+
+        var builder = BUILDER.get();
+        builder.setLength(0);
+
+        var message = tryFormat(builder, template, args) ? builder.toString() : String.format(template, args);
+
+        if (builder.capacity() > MAX_RETAINED_CAPACITY) BUILDER.remove();
+
+        return message;
+    }
+
+    /**
+     * Formats the template into the builder, supporting only the common specifiers.
+     * <p>
+     *
+     * @param builder  {@link StringBuilder} the message is written into.
+     * @param template Format string.
+     * @param args     Arguments referenced by the format specifiers in the template.
+     * @return True if the template was formatted | False if the template needs {@link String#format}.
+     */
+    private static boolean tryFormat(final StringBuilder builder, final String template, final Object[] args) {
+        var argIndex = 0;
+        var length = template.length();
+        var start = 0;
+
+        for (var i = template.indexOf('%'); i >= 0; i = template.indexOf('%', start)) {
+            if (i + 1 >= length) return false;
+
+            builder.append(template, start, i);
+            var conversion = template.charAt(i + 1);
+
+            switch (conversion) {
+                case '%' -> builder.append('%');
+                case 'n' -> builder.append(System.lineSeparator());
+                case 's' -> {
+                    if (args == null || argIndex >= args.length) return false;
+
+                    var arg = args[argIndex++];
+                    if (arg instanceof Formattable) return false;
+
+                    builder.append(arg);
+                }
+                case 'd' -> {
+                    if (!ASCII_DIGITS || args == null || argIndex >= args.length) return false;
+
+                    var arg = args[argIndex++];
+                    if (!(arg instanceof Integer || arg instanceof Long || arg instanceof Short || arg instanceof Byte))
+                        return false;
+
+                    builder.append(((Number) arg).longValue());
+                }
+                default -> {
+                    return false;
+                }
+            }
+
+            start = i + 2;
+        }
+
+        builder.append(template, start, length);
+        return true;
+    }
+}
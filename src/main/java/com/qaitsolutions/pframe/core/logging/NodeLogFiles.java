@@ -0,0 +1,121 @@
+package com.qaitsolutions.pframe.core.logging;
+
+import com.aventstack.extentreports.markuputils.MarkupHelper;
+import com.qaitsolutions.pframe.core.config.Config;
+import com.qaitsolutions.pframe.core.extent_reporting.ExtentLogger;
+import lombok.NonNull;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.ThreadContext;
+import org.apache.logging.log4j.core.LoggerContext;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Links each report node to a log file holding only the lines logged while the node was running.
+ * <p>
+ * When -Dlog.node.files=true, the id of the current node is put in the log4j {@link ThreadContext} under
+ * {@value #CONTEXT_KEY}, and the routing appender of the bundled configuration writes one file per node under
+ * ${results.directory}/logs/. The appender is only attached to the root logger when node files are enabled, so
+ * otherwise log events do not go through the route lookup at all. At the end of the node the file is embedded in
+ * the report if it is smaller than log.node.files.embed bytes, otherwise a link to it is added. With
+ * log.file.mode=async the file may not be written yet when the node ends, so it is always linked.
+ * <p>
+ *
+ * @author Iulian Andrei (iulian.andrei@qaitsolutions.com)
+ * @since 1.1
+ */
+public final class NodeLogFiles {
+
+    /**
+     * Key of the node id in the log4j {@link ThreadContext}.
+     */
+    public static final String CONTEXT_KEY = "pframe.node";
+
+    private static final String RUN_ID = Long.toString(System.currentTimeMillis(), 36);
+    private static final String APPENDER_NAME = "NodeLogger";
+
+    /**
+     * Binds the given node to the calling thread, so its log lines are routed to the node's file. Files are named
+     * by node id rather than node name, since a before method node is renamed once its test starts.
+     * <p>
+     *
+     * @param report {@link ExtentLogger} of the node.
+     */
+    public static void bind(@NonNull final ExtentLogger report) {
+        if (!Config.VALUES.isLogNodeFiles() || report.getLog() == null) return;
+
+        ThreadContext.put(CONTEXT_KEY, RUN_ID + "/node-" + report.getLog().getModel().getId());
+    }
+
+    /**
+     * Adds the log file of the node bound to the calling thread to its report node, then unbinds it.
+     * <p>
+     *
+     * @param report {@link ExtentLogger} of the node.
+     */
+    public static void attach(@NonNull final ExtentLogger report) {
+        var key = ThreadContext.get(CONTEXT_KEY);
+        if (key == null) return;
+
+        ThreadContext.remove(CONTEXT_KEY);
+
+        var file = Paths.get(resultsDirectory(), "logs", key + ".log");
+        if (!Files.isRegularFile(file)) return;
+
+        try {
+            if (!"async".equalsIgnoreCase(Config.VALUES.getLogFileMode())
+                    && Files.size(file) <= Config.VALUES.getLogNodeFilesEmbed()) {
+                report.info(MarkupHelper.createCodeBlock(Files.readString(file, StandardCharsets.UTF_8)));
+                return;
+            }
+        } catch (IOException e) {
+            FileLog.warn(String.format("Failed to read node log [%s]", file), e);
+        }
+
+        var link = relativeToReport(file);
+        report.info(String.format("<a href='%s' target='_blank'>Node log</a>", link));
+    }
+
+    /**
+     * Attaches the routing appender of the active log4j configuration to the root logger. Called by {@link FileLog}
+     * once the configuration is applied, when -Dlog.node.files=true. Configurations without the appender (e.g.
+     * given with log4j.configurationFile) are left unchanged.
+     */
+    static void enableRouting() {
+        var context = (LoggerContext) LogManager.getContext(false);
+        var configuration = context.getConfiguration();
+        var appender = configuration.getAppender(APPENDER_NAME);
+        var root = configuration.getRootLogger();
+
+        if (appender == null || root.getAppenders().containsKey(APPENDER_NAME)) return;
+
+        root.addAppender(appender, null, null);
+        context.updateLoggers();
+    }
+
+    /**
+     * @return Value of the results.directory property of the active log4j configuration.
+     */
+    private static String resultsDirectory() {
+        var context = (LoggerContext) LogManager.getContext(false);
+        return context.getConfiguration().getStrSubstitutor().replace("${results.directory}");
+    }
+
+    /**
+     * Path of the file relative to the report directory, so the link keeps working when the results are moved.
+     * <p>
+     *
+     * @param file {@link Path} of the node log.
+     * @return Relative path using forward slashes.
+     */
+    private static String relativeToReport(@NonNull final Path file) {
+        var reportDirectory = Paths.get(Config.VALUES.getReportPath()).toAbsolutePath().normalize();
+        var relative = reportDirectory.relativize(file.toAbsolutePath().normalize());
+
+        return relative.toString().replace('\\', '/');
+    }
+}
@@ -0,0 +1,224 @@
+package com.qaitsolutions.pframe.core.logging;
+
+import lombok.NonNull;
+
+/**
+ * Pretty-prints the beginning of a JSON or XML payload that is too large to be embedded in the report. The
+ * payload is read in a single pass and only the first characters of the pretty-printed form are kept, so no
+ * second full-size String is built. The payload does not have to be well-formed.
+ * <p>
+ *
+ * @author Iulian Andrei (iulian.andrei@qaitsolutions.com)
+ * @since 1.1
+ */
+final class PayloadPreview {
+
+    private static final String INDENT = "  ";
+
+    private PayloadPreview() {
+    }
+
+    /**
+     * @param json  JSON payload.
+     * @param limit Maximum number of characters of the preview.
+     * @return Pretty-printed beginning of the payload, at most limit characters long.
+     */
+    static String json(@NonNull final CharSequence json, final int limit) {
+        var out = new StringBuilder(Math.min(limit, json.length() * 2) + 16);
+        var depth = 0;
+        var inString = false;
+        var escaped = false;
+
+        for (var i = 0; i < json.length() && out.length() < limit; i++) {
+            var c = json.charAt(i);
+
+            if (inString) {
+                out.append(c);
+                if (escaped) escaped = false;
+                else if (c == '\\') escaped = true;
+                else if (c == '"') inString = false;
+                continue;
+            }
+
+            switch (c) {
+                case '"' -> {
+                    inString = true;
+                    out.append(c);
+                }
+                case '{', '[' -> {
+                    out.append(c);
+                    if (isEmpty(json, i + 1)) break;
+                    newLine(out, ++depth);
+                }
+                case '}', ']' -> {
+                    if (out.length() > 0 && out.charAt(out.length() - 1) != '{' && out.charAt(out.length() - 1) != '[')
+                        newLine(out, depth = Math.max(0, depth - 1));
+                    out.append(c);
+                }
+                case ',' -> {
+                    out.append(c);
+                    newLine(out, depth);
+                }
+                case ':' -> out.append(": ");
+                case ' ', '\t', '\n', '\r' -> {
+                }
+                default -> out.append(c);
+            }
+        }
+
+        return truncate(out, limit);
+    }
+
+    /**
+     * @param xml   XML payload.
+     * @param limit Maximum number of characters of the preview.
+     * @return Pretty-printed beginning of the payload, at most limit characters long.
+     */
+    static String xml(@NonNull final CharSequence xml, final int limit) {
+        var out = new StringBuilder(Math.min(limit, xml.length() * 2) + 16);
+        var depth = 0;
+        var afterText = false;
+
+        for (var i = 0; i < xml.length() && out.length() < limit; ) {
+            if (xml.charAt(i) != '<') {
+                var end = indexOf(xml, '<', i);
+                var start = skipWhitespace(xml, i, end);
+                if (start < end) {
+                    out.append(xml, start, trimEnd(xml, start, end));
+                    afterText = true;
+                }
+                i = end;
+                continue;
+            }
+
+            var end = tagEnd(xml, i);
+            var closing = i + 1 < xml.length() && xml.charAt(i + 1) == '/';
+            var standalone = i + 1 < xml.length() && (xml.charAt(i + 1) == '?' || xml.charAt(i + 1) == '!')
+                    || end > i && end < xml.length() && xml.charAt(end - 1) == '/';
+
+            if (closing) depth = Math.max(0, depth - 1);
+            if (!(closing && afterText) && out.length() > 0) newLine(out, depth);
+            out.append(xml, i, Math.min(end + 1, xml.length()));
+            if (!closing && !standalone) depth++;
+
+            afterText = false;
+            i = end + 1;
+        }
+
+        return truncate(out, limit);
+    }
+
+    /**
+     * Finds the end of the markup starting at the given position. Comments and CDATA sections end with their own
+     * terminator and a '&gt;' inside a quoted attribute value does not end a tag.
+     * <p>
+     *
+     * @param xml  XML payload.
+     * @param from Position of the '&lt;' starting the markup.
+     * @return Position of the closing '&gt;', or the length of the payload if it is cut short.
+     */
+    private static int tagEnd(@NonNull final CharSequence xml, final int from) {
+        if (startsWith(xml, from, "<!--")) return terminator(xml, from + 4, "-->");
+        if (startsWith(xml, from, "<![CDATA[")) return terminator(xml, from + 9, "]]>");
+
+        var quote = (char) 0;
+        for (var i = from + 1; i < xml.length(); i++) {
+            var c = xml.charAt(i);
+            if (quote != 0) {
+                if (c == quote) quote = 0;
+            } else if (c == '"' || c == '\'') {
+                quote = c;
+            } else if (c == '>') {
+                return i;
+            }
+        }
+
+        return xml.length();
+    }
+
+    /**
+     * @return Position of the last character of the terminator, or the length of the text if it is not found.
+     */
+    private static int terminator(@NonNull final CharSequence text, final int from, @NonNull final String terminator) {
+        for (var i = from; i + terminator.length() <= text.length(); i++) {
+            if (startsWith(text, i, terminator)) return i + terminator.length() - 1;
+        }
+
+        return text.length();
+    }
+
+    /**
+     * @return True if the text contains the prefix at the given position.
+     */
+    private static boolean startsWith(@NonNull final CharSequence text, final int from, @NonNull final String prefix) {
+        if (from + prefix.length() > text.length()) return false;
+
+        for (var i = 0; i < prefix.length(); i++) {
+            if (text.charAt(from + i) != prefix.charAt(i)) return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * @param json JSON payload.
+     * @param from Position right after an opening bracket.
+     * @return True if the next character other than whitespace closes the bracket, so "{}" stays on one line.
+     */
+    private static boolean isEmpty(@NonNull final CharSequence json, final int from) {
+        var next = skipWhitespace(json, from, json.length());
+        return next < json.length() && (json.charAt(next) == '}' || json.charAt(next) == ']');
+    }
+
+    /**
+     * Starts a new line indented to the given depth.
+     */
+    private static void newLine(@NonNull final StringBuilder out, final int depth) {
+        out.append('\n');
+        for (var i = 0; i < depth; i++) out.append(INDENT);
+    }
+
+    /**
+     * @return Position of the first occurrence of the character from the given position, or the length of the
+     * text if there is none.
+     */
+    private static int indexOf(@NonNull final CharSequence text, final char c, final int from) {
+        for (var i = from; i < text.length(); i++) {
+            if (text.charAt(i) == c) return i;
+        }
+
+        return text.length();
+    }
+
+    /**
+     * @return Position of the first character other than whitespace between from and to, or to if there is none.
+     */
+    private static int skipWhitespace(@NonNull final CharSequence text, int from, final int to) {
+        while (from < to && Character.isWhitespace(text.charAt(from))) from++;
+        return from;
+    }
+
+    /**
+     * @return End of the range from-to without its trailing whitespace.
+     */
+    private static int trimEnd(@NonNull final CharSequence text, final int from, int to) {
+        while (to > from && Character.isWhitespace(text.charAt(to - 1))) to--;
+        return to;
+    }
+
+    /**
+     * Cuts the preview to the limit, dropping a high surrogate left without its pair.
+     * <p>
+     *
+     * @param out   Pretty-printed payload.
+     * @param limit Maximum number of characters of the preview.
+     * @return The preview.
+     */
+    private static String truncate(@NonNull final StringBuilder out, final int limit) {
+        if (out.length() > limit) out.setLength(limit);
+        var end = out.length();
+        if (end > 0 && Character.isHighSurrogate(out.charAt(end - 1))) out.setLength(end - 1);
+
+        return out.toString();
+    }
+}
@@ -0,0 +1,424 @@
+package com.qaitsolutions.pframe.core.logging;
+
+import com.qaitsolutions.pframe.core.config.Config;
+import lombok.NonNull;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Masks secrets in log messages before they reach any destination. {@link Log} calls it once per message, before
+ * the message is handed to the sinks.
+ * <p>
+ * Secrets are either literals (tokens, passwords) or regular expressions (card numbers, "password=..." pairs).
+ * Literals, together with a literal anchor taken from each regular expression, are compiled into a single
+ * Aho-Corasick automaton, so a message is scanned once whatever the number of secrets. A regular expression
+ * only runs on messages where its anchor was found; expressions without an anchor (e.g. a top level
+ * alternation) run on every message. When the expression has a capturing group, only the first group is masked.
+ * <p>
+ * Secrets come from -Dlog.redact.literals=&lt;comma separated values&gt; and
+ * -Dlog.redact.pattern.&lt;name&gt;=&lt;regex&gt;, or are registered at runtime with {@link #addSecret(String)}
+ * and {@link #addPattern(Pattern, String...)}, for instance once a token has been obtained.
+ * <p>
+ *
+ * @author Iulian Andrei (iulian.andrei@qaitsolutions.com)
+ * @since 1.1
+ */
+public final class Redactor {
+
+    private static final int MIN_ANCHOR_LENGTH = 3;
+    private static final Pattern INLINE_FLAGS = Pattern.compile("(?<!\\\\)\\(\\?[-a-zA-Z]*[a-zA-Z][-a-zA-Z]*[:)]");
+
+    private static final String MASK = Config.VALUES.getLogRedactMask();
+    private static final List<String> SECRETS = new ArrayList<>();
+    private static final List<Rule> RULES = new ArrayList<>();
+
+    private static volatile Automaton automaton;
+
+    static {
+        Config.VALUES.getLogRedactLiterals().forEach(SECRETS::add);
+        Config.VALUES.getLogRedactPatterns().values().forEach(regex -> RULES.add(rule(Pattern.compile(regex))));
+        rebuild();
+    }
+
+    private Redactor() {
+    }
+
+    /**
+     * Adds a literal to be masked wherever it appears.
+     * <p>
+     *
+     * @param secret Value to be masked.
+     */
+    public static synchronized void addSecret(@NonNull final String secret) {
+        if (secret.isEmpty() || SECRETS.contains(secret)) return;
+
+        SECRETS.add(secret);
+        rebuild();
+    }
+
+    /**
+     * Adds a regular expression to be masked. The anchor is taken from the longest literal part of the
+     * expression, unless the pattern uses {@link Pattern#COMMENTS}, {@link Pattern#LITERAL} or inline flags.
+     * <p>
+     *
+     * @param pattern {@link Pattern} to be masked; if it has capturing groups only the first one is masked.
+     */
+    public static synchronized void addPattern(@NonNull final Pattern pattern) {
+        RULES.add(rule(pattern));
+        rebuild();
+    }
+
+    /**
+     * Adds a regular expression to be masked, which runs only on messages containing one of the anchors
+     * (case-insensitive).
+     * <p>
+     *
+     * @param pattern {@link Pattern} to be masked; if it has capturing groups only the first one is masked.
+     * @param anchors Literals of which at least one is present in every match.
+     */
+    public static synchronized void addPattern(@NonNull final Pattern pattern, @NonNull final String... anchors) {
+        RULES.add(new Rule(pattern, List.of(anchors)));
+        rebuild();
+    }
+
+    /**
+     * Masks the secrets of a message.
+     * <p>
+     *
+     * @param message Message to be checked.
+     * @return The same message if it contains no secret, otherwise a copy with the secrets masked.
+     */
+    public static String redact(final String message) {
+        var current = automaton;
+        if (current == null || message == null || message.isEmpty()) return message;
+
+        return current.redact(message);
+    }
+
+    /**
+     * Recompiles the automaton. The previous one stays in use until the new one is published.
+     */
+    private static void rebuild() {
+        automaton = SECRETS.isEmpty() && RULES.isEmpty() ? null : new Automaton(SECRETS, RULES);
+    }
+
+    /**
+     * Only the plain syntax is read when looking for an anchor: a pattern compiled with {@link Pattern#COMMENTS}
+     * or {@link Pattern#LITERAL}, or with inline flags such as (?x), is not anchored and runs on every message,
+     * since its source may not be the text it matches.
+     * <p>
+     *
+     * @param pattern {@link Pattern} to be masked.
+     * @return Rule of the pattern, anchored on its longest literal run if it has one.
+     */
+    private static Rule rule(@NonNull final Pattern pattern) {
+        var plain = (pattern.flags() & (Pattern.COMMENTS | Pattern.LITERAL)) == 0
+                && !INLINE_FLAGS.matcher(pattern.pattern()).find();
+        var anchor = plain ? anchor(pattern.pattern()) : null;
+        return new Rule(pattern, anchor == null ? List.of() : List.of(anchor));
+    }
+
+    /**
+     * Longest literal run of a regular expression that every match must contain. Only runs outside groups and
+     * not followed by an optional quantifier are considered.
+     * <p>
+     *
+     * @param regex Source of the regular expression.
+     * @return The anchor, or null if none of at least {@value #MIN_ANCHOR_LENGTH} characters was found.
+     */
+    static String anchor(@NonNull final String regex) {
+        var best = "";
+        var run = new StringBuilder();
+        var depth = 0;
+
+        for (var i = 0; i < regex.length(); i++) {
+            var c = regex.charAt(i);
+
+            if (c == '\\' && i + 1 < regex.length()) {
+                var next = regex.charAt(++i);
+                if (depth == 0 && !Character.isLetterOrDigit(next)) {
+                    run.append(next);
+                    continue;
+                }
+            } else if (c == '[') {
+                i = classEnd(regex, i);
+            } else if (c == '(') {
+                depth++;
+            } else if (c == ')') {
+                depth--;
+            } else if (c == '|' && depth == 0) {
+                return null;
+            } else if (c == '?' || c == '*' || c == '{') {
+                if (run.length() > 0) run.setLength(run.length() - 1);
+                if (c == '{') i = regex.indexOf('}', i) < 0 ? regex.length() : regex.indexOf('}', i);
+            } else if (depth == 0 && c != '+' && c != '.' && c != '^' && c != '$') {
+                run.append(c);
+                continue;
+            }
+
+            if (run.length() > best.length()) best = run.toString();
+            run.setLength(0);
+        }
+
+        if (run.length() > best.length()) best = run.toString();
+        return best.length() >= MIN_ANCHOR_LENGTH ? best : null;
+    }
+
+    /**
+     * Finds the end of a character class, taking escapes and a ']' right after the opening bracket into account.
+     * <p>
+     *
+     * @param regex Source of the regular expression.
+     * @param start Position of the '[' opening the class.
+     * @return Position of the closing ']', or the length of the expression if there is none.
+     */
+    private static int classEnd(@NonNull final String regex, final int start) {
+        for (var i = start + 1; i < regex.length(); i++) {
+            if (regex.charAt(i) == '\\') i++;
+            else if (regex.charAt(i) == ']' && i > start + 1) return i;
+        }
+
+        return regex.length();
+    }
+
+    /**
+     * Regular expression to be masked.
+     * <p>
+     *
+     * @param pattern {@link Pattern} to be masked.
+     * @param anchors Literals of which one must be present for the pattern to run; empty to run it on every
+     *                message.
+     */
+    private record Rule(Pattern pattern, List<String> anchors) {
+    }
+
+    /**
+     * Compiled form of the secrets: a deterministic Aho-Corasick automaton over case-folded characters, whose
+     * outputs are either literals to mask or rules to run.
+     */
+    private static final class Automaton {
+
+        private final int[] asciiIndex = new int[128];
+        private final char[] otherChars;
+        private final int otherBase;
+        private final int[][] next;
+        private final int[][] outputs;
+
+        private final List<String> literals;
+        private final List<Rule> anchored = new ArrayList<>();
+        private final List<Rule> unanchored = new ArrayList<>();
+
+        private Automaton(@NonNull final List<String> secrets, @NonNull final List<Rule> rules) {
+            this.literals = List.copyOf(secrets);
+
+            List<String> keys = new ArrayList<>(literals);
+            List<Integer> targets = new ArrayList<>();
+            for (var i = 0; i < literals.size(); i++) targets.add(i);
+
+            for (var rule : rules) {
+                if (rule.anchors().isEmpty()) {
+                    unanchored.add(rule);
+                    continue;
+                }
+
+                anchored.add(rule);
+                for (var anchor : rule.anchors()) {
+                    keys.add(anchor);
+                    targets.add(-anchored.size());
+                }
+            }
+
+            var alphabet = 1;
+            var others = new StringBuilder();
+            for (var key : keys) {
+                for (var i = 0; i < key.length(); i++) {
+                    var c = fold(key.charAt(i));
+                    if (c >= 128) others.append(c);
+                    else if (asciiIndex[c] == 0) asciiIndex[c] = alphabet++;
+                }
+            }
+
+            var sorted = others.toString().toCharArray();
+            Arrays.sort(sorted);
+            var distinct = 0;
+            for (var c : sorted) if (distinct == 0 || sorted[distinct - 1] != c) sorted[distinct++] = c;
+
+            this.otherChars = Arrays.copyOf(sorted, distinct);
+            this.otherBase = alphabet;
+            alphabet += otherChars.length;
+
+            List<int[]> trie = new ArrayList<>();
+            List<int[]> out = new ArrayList<>();
+            trie.add(new int[alphabet]);
+            out.add(new int[0]);
+
+            for (var k = 0; k < keys.size(); k++) {
+                var state = 0;
+                for (var i = 0; i < keys.get(k).length(); i++) {
+                    var symbol = index(fold(keys.get(k).charAt(i)));
+                    if (trie.get(state)[symbol] == 0) {
+                        trie.get(state)[symbol] = trie.size();
+                        trie.add(new int[alphabet]);
+                        out.add(new int[0]);
+                    }
+                    state = trie.get(state)[symbol];
+                }
+                out.set(state, append(out.get(state), targets.get(k)));
+            }
+
+            var fail = new int[trie.size()];
+            var queue = new ArrayDeque<Integer>();
+            for (var symbol = 0; symbol < alphabet; symbol++) {
+                if (trie.get(0)[symbol] != 0) queue.add(trie.get(0)[symbol]);
+            }
+
+            while (!queue.isEmpty()) {
+                int state = queue.poll();
+                for (var symbol = 0; symbol < alphabet; symbol++) {
+                    var child = trie.get(state)[symbol];
+                    if (child == 0) {
+                        trie.get(state)[symbol] = trie.get(fail[state])[symbol];
+                        continue;
+                    }
+
+                    fail[child] = trie.get(fail[state])[symbol];
+                    out.set(child, concat(out.get(child), out.get(fail[child])));
+                    queue.add(child);
+                }
+            }
+
+            this.next = trie.toArray(new int[0][]);
+            this.outputs = out.toArray(new int[0][]);
+        }
+
+        /**
+         * Scans the message once, collecting the ranges of the literals found and the anchored rules triggered,
+         * then runs the triggered and unanchored rules.
+         * <p>
+         *
+         * @param message Message to be checked.
+         * @return The same message if nothing matched, otherwise a copy with the ranges masked.
+         */
+        private String redact(@NonNull final String message) {
+            long[] ranges = null;
+            var count = 0;
+            boolean[] triggered = null;
+
+            var state = 0;
+            for (var i = 0; i < message.length(); i++) {
+                state = next[state][index(fold(message.charAt(i)))];
+
+                for (var target : outputs[state]) {
+                    if (target < 0) {
+                        if (triggered == null) triggered = new boolean[anchored.size()];
+                        triggered[-target - 1] = true;
+                        continue;
+                    }
+
+                    var literal = literals.get(target);
+                    var start = i + 1 - literal.length();
+                    if (!message.startsWith(literal, start)) continue;
+
+                    if (ranges == null) ranges = new long[8];
+                    else if (count == ranges.length) ranges = Arrays.copyOf(ranges, count * 2);
+                    ranges[count++] = range(start, i + 1);
+                }
+            }
+
+            List<Rule> toRun = unanchored;
+            if (triggered != null) {
+                toRun = new ArrayList<>(unanchored);
+                for (var r = 0; r < triggered.length; r++) if (triggered[r]) toRun.add(anchored.get(r));
+            }
+
+            for (var rule : toRun) {
+                var matcher = rule.pattern().matcher(message);
+                while (matcher.find()) {
+                    var group = matcher.groupCount() > 0 && matcher.start(1) >= 0 ? 1 : 0;
+                    if (matcher.end(group) == matcher.start(group)) continue;
+
+                    if (ranges == null) ranges = new long[8];
+                    else if (count == ranges.length) ranges = Arrays.copyOf(ranges, count * 2);
+                    ranges[count++] = range(matcher.start(group), matcher.end(group));
+                }
+            }
+
+            return count == 0 ? message : mask(message, ranges, count);
+        }
+
+        /**
+         * Replaces the ranges with the mask. Overlapping and nested ranges are merged, so they get a single mask.
+         * <p>
+         *
+         * @param message Message to be masked.
+         * @param ranges  Ranges to be masked, as packed by {@link #range(int, int)}; sorted in place.
+         * @param count   Number of ranges.
+         * @return Masked message.
+         */
+        private static String mask(@NonNull final String message, final long[] ranges, final int count) {
+            Arrays.sort(ranges, 0, count);
+
+            var result = new StringBuilder(message.length());
+            var position = 0;
+            for (var r = 0; r < count; r++) {
+                var start = (int) (ranges[r] >>> 32);
+                var end = (int) ranges[r];
+                if (end <= position) continue;
+
+                if (start >= position) result.append(message, position, start).append(MASK);
+                position = end;
+            }
+
+            return result.append(message, position, message.length()).toString();
+        }
+
+        /**
+         * @return Symbol of a case-folded character, or 0 if it appears in no key. Characters outside ASCII are
+         * looked up in a sorted array, so no boxing happens while a message is scanned.
+         */
+        private int index(final char c) {
+            if (c < 128) return asciiIndex[c];
+
+            var position = Arrays.binarySearch(otherChars, c);
+            return position >= 0 ? otherBase + position : 0;
+        }
+
+        /**
+         * @return Lower case form of the character, with a fast path for ASCII.
+         */
+        private static char fold(final char c) {
+            return c < 128 ? (c >= 'A' && c <= 'Z' ? (char) (c + 32) : c) : Character.toLowerCase(c);
+        }
+
+        /**
+         * @return Range packed into a long, start in the high half, so that ranges sort by start.
+         */
+        private static long range(final int start, final int end) {
+            return ((long) start << 32) | end;
+        }
+
+        /**
+         * @return Copy of the values with the value added at the end.
+         */
+        private static int[] append(final int[] values, final int value) {
+            var result = Arrays.copyOf(values, values.length + 1);
+            result[values.length] = value;
+            return result;
+        }
+
+        /**
+         * @return Values of both arrays, the first one itself if the second is empty.
+         */
+        private static int[] concat(final int[] first, final int[] second) {
+            if (second.length == 0) return first;
+
+            var result = Arrays.copyOf(first, first.length + second.length);
+            System.arraycopy(second, 0, result, first.length, second.length);
+            return result;
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.qaitsolutions.pframe.core.logging;
+
+import com.aventstack.extentreports.Status;
+import com.qaitsolutions.pframe.core.testng.PFrameListener;
+import lombok.NonNull;
+
+/**
+ * {@link LogSink} that writes into the report node the record was published from.
+ * <p>
+ *
+ * @author Iulian Andrei (iulian.andrei@qaitsolutions.com)
+ * @since 1.1
+ */
+final class ReportSink implements LogSink {
+
+    @Override
+    public String name() {
+        return "report";
+    }
+
+    @Override
+    public LogLevel defaultLevel() {
+        return LogLevel.INFO;
+    }
+
+    @Override
+    public boolean isEnabled(@NonNull final LogLevel level) {
+        return PFrameListener.getLog().isPresent();
+    }
+
+    @Override
+    public void write(@NonNull final LogRecord record) {
+        var report = record.getReport();
+        if (report == null) return;
+
+        if (record.isReportOnly()) {
+            if (record.getMarkup() != null) report.info(record.getMarkup());
+            else if (record.getMedia() != null) report.info(record.getMessage(), record.getMedia());
+            else report.info(record.getMessage());
+
+            return;
+        }
+
+        if (record.getEvent() != null) {
+            report.log(status(record.getLevel()), record.getEvent().toMarkup());
+            return;
+        }
+
+        var message = record.getMessage();
+        var cause = record.getCause();
+
+        switch (record.getLevel()) {
+            case DEBUG, INFO -> report.info(message);
+            case PASS -> report.pass(message);
+            case WARN -> report.warning(message);
+            case SKIP -> report.skip(message);
+            case FAIL -> report.fail(cause != null ? message + " - " + describe(cause) : message);
+        }
+    }
+
+    /**
+     * @param level {@link LogLevel} of a record.
+     * @return Report {@link Status} matching the level.
+     */
+    private static Status status(@NonNull final LogLevel level) {
+        return switch (level) {
+            case DEBUG, INFO -> Status.INFO;
+            case PASS -> Status.PASS;
+            case WARN -> Status.WARNING;
+            case SKIP -> Status.SKIP;
+            case FAIL -> Status.FAIL;
+        };
+    }
+
+    /**
+     * Single line description of an exception, used in the report.
+     * <p>
+     *
+     * @param cause {@link Throwable} to be described.
+     * @return {@link Throwable#toString()} without line breaks, with its secrets masked.
+     */
+    private static String describe(@NonNull final Throwable cause) {
+        return Redactor.redact(cause.toString().replace("\n", " "));
+    }
+}
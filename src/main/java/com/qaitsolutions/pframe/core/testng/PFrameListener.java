@@ -1,48 +1,101 @@
 package com.qaitsolutions.pframe.core.testng;
 
+import com.aventstack.extentreports.Status;
+import com.qaitsolutions.pframe.core.assertion.PassProcessing;
 import com.qaitsolutions.pframe.core.config.Config;
 import com.qaitsolutions.pframe.core.exceptions.FrameworkException;
 import com.qaitsolutions.pframe.core.extent_reporting.ExtentLogger;
 import com.qaitsolutions.pframe.core.extent_reporting.Reporting;
+import com.qaitsolutions.pframe.core.extent_reporting.ResultWriter;
+import com.qaitsolutions.pframe.core.logging.AttachmentPipeline;
+import com.qaitsolutions.pframe.core.logging.FileLog;
 import com.qaitsolutions.pframe.core.logging.Log;
+import com.qaitsolutions.pframe.core.logging.NodeLogFiles;
 import lombok.NonNull;
 import org.testng.*;
 
-import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * TestNg implementation of listener that will be used to configure the test execution and reporting.
  * This links testNg, extent report and log4j.
  * <p>
+ * Each suite gets its own {@link Reporting}, so suites running in parallel do not overwrite each other's report.
+ * Suites that resolve to the same report file (e.g. report.type=single) share one {@link Reporting}. Log calls
+ * are routed to the report of the suite the calling thread is running.
+ * <p>
+ * Besides the report, each result is handed to the {@link ResultWriter}s selected with -Dreport.results as soon
+ * as the test finishes, together with the failed configuration methods. A writer that fails is logged and not
+ * used for the rest of the suite, so it never fails the test run.
+ * <p>
+ * With -Dreport.parameters=grouped, the invocations of a test method with parameters are summarized in one node
+ * of the method, see {@link Reporting#startInvocation(String)}.
+ * <p>
  *
  * @author Iulian Andrei (iulian.andrei@qaitsolutions.com)
  * @since 1.0
  */
 public class PFrameListener implements
+        IExecutionListener,
         ISuiteListener,
         ITestListener,
         IConfigurationListener {
 
-    private static Reporting report;
-    protected String currentNodeName;
+    private static final Map<ISuite, Reporting> SUITE_REPORTS = new ConcurrentHashMap<>();
+    private static final Map<String, Reporting> FILE_REPORTS = new ConcurrentHashMap<>();
+    private static final Map<ISuite, List<ResultWriter>> SUITE_RESULTS = new ConcurrentHashMap<>();
+    private static final ThreadLocal<Reporting> CURRENT_REPORT = new ThreadLocal<>();
+    protected final ThreadLocal<String> currentNodeName = new ThreadLocal<>();
 
     private static final String BEFORE_METHOD_NAME = "Before Method";
     private static final String AFTER_METHOD_NAME = "After Method";
+    private static final String INVOCATION_ATTRIBUTE = "pframe.invocation";
 
     @Override
     public void onStart(ISuite iSuite) {
         var reportName = generateReportFilename(iSuite);
-        report = new Reporting().createReport(reportName);
+        var report = FILE_REPORTS.computeIfAbsent(reportName, name -> new Reporting().createReport(name));
+
+        SUITE_REPORTS.put(iSuite, report);
+        SUITE_RESULTS.put(iSuite, new CopyOnWriteArrayList<>(
+                ResultWriter.create(iSuite.getName(), generateResultsFilename(iSuite, reportName))));
+        CURRENT_REPORT.set(report);
     }
 
     @Override
     public void onFinish(ISuite iSuite) {
+        var results = SUITE_RESULTS.remove(iSuite);
+        var report = SUITE_REPORTS.remove(iSuite);
+
+        if (report != null) report.awaitAttachments();
+        Log.flush();
+
+        if (results != null) results.forEach(PFrameListener::closeResults);
+        if (report == null) return;
+
         report.flush();
+        releaseReport(report);
+        if (CURRENT_REPORT.get() == report) CURRENT_REPORT.remove();
+    }
+
+    /**
+     * Closes the reports still open at the end of the run, i.e. the shared report of report.type=single.
+     */
+    @Override
+    public void onExecutionFinish() {
+        synchronized (FILE_REPORTS) {
+            FILE_REPORTS.values().forEach(Reporting::close);
+            FILE_REPORTS.clear();
+        }
     }
 
     @Override
     public void beforeConfiguration(ITestResult tr) {
+        bindReport(tr);
 
         var message = "Configuration [%s] has started";
 
@@ -50,18 +103,13 @@ public class PFrameListener implements
         className = className.substring(className.lastIndexOf(".") + 1);
 
         if (tr.getMethod().isBeforeSuiteConfiguration()) {
-            report.createTest("Suite Setup").createNode(currentNodeName = "Setup");
-            Log.info(message, currentNodeName);
+            startNode("Suite Setup", "Setup");
+            Log.info(message, currentNodeName.get());
         }
 
         if (tr.getMethod().isBeforeClassConfiguration()) {
-            report.createTest(className).createNode(currentNodeName = "Test Setup");
-            Log.info(message, currentNodeName);
-        }
-
-        if (tr.getMethod().isBeforeMethodConfiguration()) {
-            report.createTest(className).createNode(currentNodeName = BEFORE_METHOD_NAME);
-            Log.info(message, currentNodeName);
+            startNode(className, "Test Setup");
+            Log.info(message, currentNodeName.get());
         }
 
         if (tr.getMethod().isAfterMethodConfiguration()) {
@@ -69,18 +117,43 @@ public class PFrameListener implements
         }
 
         if (tr.getMethod().isAfterClassConfiguration()) {
-            report.createNode(currentNodeName = "Test Teardown");
-            Log.info(message, currentNodeName);
+            startNode(className, "Test Teardown");
+            Log.info(message, currentNodeName.get());
         }
 
         if (tr.getMethod().isAfterSuiteConfiguration()) {
-            report.createTest("Suite Teardown").createNode(currentNodeName = "Teardown");
-            Log.info(message, currentNodeName);
+            startNode("Suite Teardown", "Teardown");
+            Log.info(message, currentNodeName.get());
         }
     }
 
+    /**
+     * Starts the node of a before method. The node is deferred (see {@link Reporting#createDeferredNode(String)}) if
+     * the test method it runs for is grouped, since it becomes the node of the invocation.
+     * <p>
+     *
+     * @param tr Result of the configuration method.
+     * @param tm Test method the configuration method runs for, can be null.
+     */
+    @Override
+    public void beforeConfiguration(ITestResult tr, ITestNGMethod tm) {
+        if (!tr.getMethod().isBeforeMethodConfiguration()) return;
+
+        var className = tr.getTestClass().getName();
+        className = className.substring(className.lastIndexOf(".") + 1);
+
+        var report = bindReport(tr).createTest(className);
+        if (tm != null && isGrouped(tm)) report.createDeferredNode(BEFORE_METHOD_NAME);
+        else report.createNode(BEFORE_METHOD_NAME);
+
+        currentNodeName.set(BEFORE_METHOD_NAME);
+        getLog().ifPresent(NodeLogFiles::bind);
+        Log.info("Configuration [%s] has started", BEFORE_METHOD_NAME);
+    }
+
     @Override
     public void onConfigurationSuccess(ITestResult tr) {
+        bindReport(tr);
         var method = tr.getMethod();
 
         if (method.isAfterGroupsConfiguration()
@@ -93,12 +166,14 @@ public class PFrameListener implements
         if (method.isAfterMethodConfiguration()) {
             Log.info(message, AFTER_METHOD_NAME);
         } else {
-            Log.info(message, currentNodeName);
+            Log.info(message, currentNodeName.get());
+            if (!method.isBeforeMethodConfiguration()) finishNode();
         }
     }
 
     @Override
     public void onConfigurationFailure(ITestResult iTestResult) {
+        bindReport(iTestResult).keepCurrentNode();
         final var method = iTestResult.getMethod();
 
         if (method.isAfterClassConfiguration() || method.isAfterSuiteConfiguration()) {
@@ -107,75 +182,301 @@ public class PFrameListener implements
             if (e != null && !(e instanceof AssertionError))
                 Log.fail("Configuration failed unexpectedly", e);
 
-            Log.info("Configuration [%s] failed", currentNodeName);
+            Log.info("Configuration [%s] failed", currentNodeName.get());
+            finishNode();
         }
+
+        writeResult(iTestResult);
     }
 
     @Override
     public void onConfigurationSkip(ITestResult tr) {
+        bindReport(tr);
         var method = tr.getMethod();
 
         if (method.isAfterClassConfiguration() || method.isAfterSuiteConfiguration())
-            Log.skip("Configuration [%s] was skipped", currentNodeName);
+            Log.skip("Configuration [%s] was skipped", currentNodeName.get());
     }
 
     @Override
     public void onTestStart(ITestResult iTestResult) {
+        var report = bindReport(iTestResult);
 
         var className = iTestResult.getTestClass().getName();
         className = className.substring(className.lastIndexOf(".") + 1);
 
         report.createTest(className);
 
-        this.currentNodeName = generateTestName(iTestResult);
+        if (isGrouped(iTestResult))
+            iTestResult.setAttribute(INVOCATION_ATTRIBUTE, report.startInvocation(generateMethodName(iTestResult)));
+
+        var nodeName = generateTestName(iTestResult);
+        this.currentNodeName.set(nodeName);
+
         if (report.isCurrentNode(BEFORE_METHOD_NAME)) {
-            report.renameCurrentNode(this.currentNodeName);
+            report.renameCurrentNode(nodeName);
         } else {
-            report.createNode(this.currentNodeName);
+            if (iTestResult.getAttribute(INVOCATION_ATTRIBUTE) != null) report.createDeferredNode(nodeName);
+            else report.createNode(nodeName);
+            getLog().ifPresent(NodeLogFiles::bind);
         }
 
-        Log.info("Test [%s] has started", currentNodeName);
+        Log.info("Test [%s] has started", nodeName);
     }
 
     @Override
     public void onTestSuccess(ITestResult iTestResult) {
-        Log.info("Test [%s] finished with success", currentNodeName);
+        bindReport(iTestResult);
+        Log.info("Test [%s] finished with success", currentNodeName.get());
+        finishNode();
+        finishInvocation(iTestResult);
+        writeResult(iTestResult);
     }
 
     @Override
     public void onTestFailure(ITestResult iTestResult) {
+        bindReport(iTestResult);
         var e = iTestResult.getThrowable();
 
         if (e != null && !(e instanceof AssertionError))
             Log.fail("Test failed unexpectedly", e);
 
-        Log.info("Test [%s] failed", currentNodeName);
+        Log.info("Test [%s] failed", currentNodeName.get());
+        finishNode();
+        finishInvocation(iTestResult);
+        writeResult(iTestResult);
     }
 
     @Override
     public void onTestSkipped(ITestResult iTestResult) {
-        Log.skip("Test [%s] was skipped", currentNodeName);
+        bindReport(iTestResult);
+        Log.skip("Test [%s] was skipped", currentNodeName.get());
+        finishNode();
+        finishInvocation(iTestResult);
+        writeResult(iTestResult);
+    }
+
+    /**
+     * Forgets and closes the report of a finished suite once no running suite uses it, so its Extent model can be
+     * garbage collected and its spool file is released. With report.type=single the report is kept, the next
+     * suites keep writing into it, and it is closed at the end of the run.
+     * <p>
+     *
+     * @param report {@link Reporting} of the finished suite.
+     */
+    private static void releaseReport(@NonNull final Reporting report) {
+        if (!"multi".equals(Config.VALUES.getReportType())) return;
+
+        synchronized (FILE_REPORTS) {
+            if (!SUITE_REPORTS.containsValue(report) && FILE_REPORTS.values().removeIf(r -> r == report)) {
+                report.close();
+            }
+        }
+    }
+
+    /**
+     * Sets the test and node of the calling thread, creating them if needed, and remembers the node name.
+     * <p>
+     *
+     * @param testName Name of the test (e.g. class name).
+     * @param nodeName Name of the node inside the test.
+     */
+    private void startNode(@NonNull final String testName, @NonNull final String nodeName) {
+        CURRENT_REPORT.get().createTest(testName).createNode(nodeName);
+        currentNodeName.set(nodeName);
+
+        getLog().ifPresent(NodeLogFiles::bind);
+    }
+
+    /**
+     * Writes the pending messages of the current node, attaches its log file, writes the entries held back by the
+     * node entry limit and writes the report if the flush policy says so.
+     */
+    private void finishNode() {
+        PassProcessing.flush();
+        getLog().ifPresent(AttachmentPipeline::await);
+        Log.flush();
+        getLog().ifPresent(NodeLogFiles::attach);
+        getLog().ifPresent(ExtentLogger::finish);
+        CURRENT_REPORT.get().flushIfDue();
+    }
+
+    /**
+     * Ends the invocation of a parameterized method in grouped mode. Parameters are rendered only if the
+     * invocation did not pass. A result that is not a grouped invocation keeps its node, in case it was deferred
+     * (e.g. a test skipped after its before method was started for a grouped invocation).
+     * <p>
+     *
+     * @param testResult Result of the finished invocation.
+     */
+    private void finishInvocation(@NonNull final ITestResult testResult) {
+        if (!(testResult.getAttribute(INVOCATION_ATTRIBUTE) instanceof Integer invocation)) {
+            CURRENT_REPORT.get().keepCurrentNode();
+            return;
+        }
+
+        var e = testResult.getThrowable();
+        CURRENT_REPORT.get().finishInvocation(generateMethodName(testResult), invocation,
+                Status.valueOf(ResultWriter.status(testResult)),
+                () -> renderParameters(testResult.getParameters()),
+                e != null ? truncate(e.toString(), Config.VALUES.getReportParametersLength()) : null);
+    }
+
+    /**
+     * Hands the result to the {@link ResultWriter}s of its suite. A writer that fails is logged and removed, so the
+     * error does not reach TestNG and the other writers keep writing.
+     * <p>
+     *
+     * @param testResult Result of the finished test or configuration method.
+     */
+    private void writeResult(@NonNull final ITestResult testResult) {
+        var writers = SUITE_RESULTS.get(testResult.getTestContext().getSuite());
+        if (writers == null || writers.isEmpty()) return;
+
+        var name = generateTestName(testResult);
+        for (var writer : writers) {
+            try {
+                writer.write(testResult, name);
+            } catch (RuntimeException e) {
+                writers.remove(writer);
+                FileLog.warn(String.format("Result writer [%s] failed and is disabled for the rest of the suite",
+                        writer.getClass().getSimpleName()), e);
+                closeResults(writer);
+            }
+        }
+    }
+
+    /**
+     * Closes a {@link ResultWriter}, logging the error if it fails.
+     * <p>
+     *
+     * @param writer {@link ResultWriter} to be closed.
+     */
+    private static void closeResults(@NonNull final ResultWriter writer) {
+        try {
+            writer.close();
+        } catch (RuntimeException e) {
+            FileLog.warn(String.format("Failed to close result writer [%s]", writer.getClass().getSimpleName()), e);
+        }
+    }
+
+    /**
+     * Binds the report of the suite the given result belongs to, to the calling thread.
+     * <p>
+     *
+     * @param testResult The entity that will provide the suite.
+     * @return {@link Reporting} of the suite.
+     */
+    private static Reporting bindReport(@NonNull final ITestResult testResult) {
+        var suite = testResult.getTestContext().getSuite();
+        var report = SUITE_REPORTS.get(suite);
+
+        if (report == null)
+            throw new FrameworkException(String.format("Report was not created for suite [%s]", suite.getName()));
+
+        CURRENT_REPORT.set(report);
+        return report;
     }
 
     /**
-     * Generates a test name that has the name of the method, plus the parameters if they are present
+     * Generates a test name that has the name of the method, plus the parameters if they are present. In grouped
+     * mode (report.parameters=grouped) the invocation number is used instead of the parameters.
      * <p>
      *
      * @param testResult The entity that will provide the test details
-     * @return A {@link String} with the method name + parameters, if they exist. e.g. testName[NAME,1,true]
+     * @return A {@link String} with the method name + parameters, if they exist. e.g. testName[NAME,1,true] or
+     * testName #3
      */
     private String generateTestName(@NonNull final ITestResult testResult) {
-        var description = testResult.getMethod().getDescription();
-
-        var name = description != null && !description.isEmpty() ? description : testResult.getName();
+        var name = generateMethodName(testResult);
         var parameters = testResult.getParameters();
 
+        if (testResult.getAttribute(INVOCATION_ATTRIBUTE) instanceof Integer invocation)
+            return name + " #" + invocation;
+
         if (parameters.length != 0)
-            name = name + Arrays.toString(testResult.getParameters());
+            name = name + renderParameters(parameters);
 
         return name;
     }
 
+    /**
+     * @param testResult The entity that will provide the test details
+     * @return Description of the test method if present, otherwise its name.
+     */
+    private String generateMethodName(@NonNull final ITestResult testResult) {
+        var description = testResult.getMethod().getDescription();
+        return description != null && !description.isEmpty() ? description : testResult.getName();
+    }
+
+    /**
+     * Checks if the invocations of the test method are grouped in the report, see report.parameters.
+     * <p>
+     *
+     * @param testResult The entity that will provide the test details
+     * @return True if the method has parameters and report.parameters is grouped.
+     */
+    private boolean isGrouped(@NonNull final ITestResult testResult) {
+        var grouped = switch (Config.VALUES.getReportParameters()) {
+            case "inline" -> false;
+            case "grouped" -> true;
+            default -> throw new FrameworkException(
+                    "report.parameters parameter is not set correctly, use inline or grouped");
+        };
+
+        return grouped && testResult.getParameters().length != 0;
+    }
+
+    /**
+     * @param method Test method about to run.
+     * @return True if its invocations will be grouped, see {@link #isGrouped(ITestResult)}. Only data driven methods
+     * are recognized in advance.
+     */
+    private boolean isGrouped(@NonNull final ITestNGMethod method) {
+        return "grouped".equals(Config.VALUES.getReportParameters()) && method.isDataDriven();
+    }
+
+    /**
+     * Renders the parameters like {@link java.util.Arrays#toString(Object[])}, but stops at report.parameters.length
+     * characters: the parameters after the limit are not converted to text at all, and only the part of a
+     * parameter that fits is appended. Text parameters (e.g. a large payload) are not copied beyond the limit.
+     * <p>
+     *
+     * @param parameters Parameters of the test method.
+     * @return A {@link String} such as [NAME, 1, true], or [NAME, 1, tr...] if too long.
+     */
+    private static String renderParameters(@NonNull final Object[] parameters) {
+        var limit = Config.VALUES.getReportParametersLength();
+        var text = new StringBuilder("[");
+
+        for (var i = 0; i < parameters.length; i++) {
+            if (i > 0) text.append(", ");
+
+            var value = parameters[i] instanceof CharSequence sequence ? sequence : String.valueOf(parameters[i]);
+            if (limit <= 0 || text.length() + value.length() <= limit) {
+                text.append(value);
+                continue;
+            }
+
+            if (text.length() < limit) text.append(value, 0, limit - text.length());
+            else text.setLength(limit);
+            return text.append("...]").toString();
+        }
+
+        return text.append(']').toString();
+    }
+
+    /**
+     * @param text  Text to be shortened.
+     * @param limit Maximum number of characters kept, 0 or less to keep all.
+     * @return The text, or its first characters followed by "..." if longer than the limit.
+     */
+    private static String truncate(@NonNull final CharSequence text, final int limit) {
+        return limit <= 0 || text.length() <= limit
+                ? text.toString()
+                : text.subSequence(0, limit) + "...";
+    }
+
     /**
      * Generates a report filename based on the config file. Either it will be a default value, or it will
      * generate from the {@link ISuite#getSuiteState()} and {@link System#currentTimeMillis()}.
@@ -195,9 +496,25 @@ public class PFrameListener implements
     }
 
     /**
-     * @return Extent report log
+     * Generates the name of the result files of a suite. With report.type=single the report is shared by all
+     * suites, so the files are named after the suite instead.
+     * <p>
+     *
+     * @param iSuite     Suite of the results.
+     * @param reportName Name of the report of the suite.
+     * @return {@link String}, e.g. regression or regression_658723942
+     */
+    private String generateResultsFilename(@NonNull final ISuite iSuite, @NonNull final String reportName) {
+        return "single".equals(Config.VALUES.getReportType())
+                ? iSuite.getName().replaceAll(" ", "_").toLowerCase()
+                : reportName;
+    }
+
+    /**
+     * @return Extent report log of the node the calling thread is currently running.
      */
     public static Optional<ExtentLogger> getLog() {
+        var report = CURRENT_REPORT.get();
         ExtentLogger log = report != null ? report.log() : null;
         return Optional.ofNullable(log);
     }
@@ -0,0 +1,69 @@
+package com.qaitsolutions.pframe.core.extent_reporting;
+
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.testng.Assert.assertThrows;
+
+/**
+ * Tests of the JSON lines parsing and merging of {@link ReportMerger}.
+ * <p>
+ *
+ * @author Iulian Andrei (iulian.andrei@qaitsolutions.com)
+ * @since 1.1
+ */
+public class ReportMergerTest {
+
+    @Test
+    public void parseDecodesEscapes() {
+        var result = ReportMerger.parse("{\"status\":\"FAIL\",\"error\":\"a\\b\\f\\n\\t\\\"\\\\\\/\\u00e9\"}");
+
+        assertThat(result).containsEntry("status", "FAIL");
+        assertThat(result).containsEntry("error", "a\b\f\n\t\"\\/\u00e9");
+    }
+
+    @Test
+    public void parseReturnsOtherValuesAsText() {
+        var result = ReportMerger.parse("{\"status\":\"PASS\", \"start\": 12, \"retried\":false}");
+
+        assertThat(result).containsEntry("start", "12");
+        assertThat(result).containsEntry("retried", "false");
+    }
+
+    @Test
+    public void parseRejectsTruncatedUnicodeEscape() {
+        assertThrows(IllegalArgumentException.class, () -> ReportMerger.parse("{\"status\":\"FAIL\",\"e\":\"\\u00"));
+        assertThrows(IllegalArgumentException.class, () -> ReportMerger.parse("{\"status\":\"FAIL\",\"e\":\"\\u0z\"}"));
+    }
+
+    @Test
+    public void parseRejectsIncompleteLines() {
+        assertThrows(IllegalArgumentException.class, () -> ReportMerger.parse("{\"status\":\"PASS\",\"name\":\"t"));
+        assertThrows(IllegalArgumentException.class, () -> ReportMerger.parse("{\"status\":\"PASS\",\"start\":1"));
+        assertThrows(IllegalArgumentException.class, () -> ReportMerger.parse("{\"name\":\"t\"}"));
+        assertThrows(IllegalArgumentException.class, () -> ReportMerger.parse("garbage"));
+    }
+
+    @Test
+    public void mergeSkipsMalformedLines() throws IOException {
+        var directory = Files.createTempDirectory("merger");
+        var shard = directory.resolve("shard.jsonl");
+        Files.writeString(shard, String.join("\n",
+                "{\"suite\":\"s\",\"class\":\"c\",\"name\":\"a\",\"status\":\"PASS\"}",
+                "{\"suite\":\"s\",\"class\":\"c\",\"name\":\"b\",\"status\":\"FAIL\",\"error\":\"x\\u12\"}",
+                "{\"suite\":\"s\",\"class\":\"c\",\"name\":\"c\",\"status\":\"FAIL\",\"error\":\"boom\"}",
+                "{\"suite\":\"s\",\"class\":\"c\",\"name\":\"d\",\"sta"), StandardCharsets.UTF_8);
+
+        var output = directory.resolve("merged");
+        var tests = ReportMerger.merge(output, List.of(shard));
+
+        assertThat(tests).isEqualTo(2);
+        assertThat(Files.readAllLines(output.resolve("results.jsonl"))).hasSize(2);
+        assertThat(Files.readString(output.resolve("index.html"))).contains("2 malformed lines were skipped");
+    }
+}
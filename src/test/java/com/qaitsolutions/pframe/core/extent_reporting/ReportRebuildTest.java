@@ -0,0 +1,136 @@
+package com.qaitsolutions.pframe.core.extent_reporting;
+
+import com.aventstack.extentreports.ExtentReports;
+import com.aventstack.extentreports.Status;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.google.common.truth.Truth.assertThat;
+
+/**
+ * Tests of the replay of a {@link ReportSpool} whose last record was cut short, and of closing the spool.
+ * <p>
+ *
+ * @author Iulian Andrei (iulian.andrei@qaitsolutions.com)
+ * @since 1.1
+ */
+public class ReportRebuildTest {
+
+    @Test
+    public void completeSpoolIsReplayed() throws IOException {
+        var spool = spool();
+
+        assertThat(ReportRebuild.render(spool, spool.resolveSibling("index.html"))).isEqualTo(5);
+    }
+
+    @Test
+    public void closeCutsThePadding() throws IOException {
+        var spool = spool();
+        var last = records(spool).get(4).intValue();
+        var bytes = ByteBuffer.wrap(Files.readAllBytes(spool));
+
+        assertThat(Files.size(spool)).isEqualTo(last + 1 + Integer.BYTES + bytes.getInt(last + 1));
+    }
+
+    @Test
+    public void recordsAfterCloseAreIgnored() throws IOException {
+        var file = Files.createTempDirectory("spool").resolve("index.spool");
+        var spool = new ReportSpool(file, true);
+        var test = new ExtentReports().createTest("Suite test");
+        spool.test(test);
+        spool.close();
+
+        var size = Files.size(file);
+        spool.log(test, Status.INFO, "late entry");
+        spool.close();
+
+        assertThat(Files.size(file)).isEqualTo(size);
+        assertThat(ReportRebuild.render(file, file.resolveSibling("index.html"))).isEqualTo(1);
+    }
+
+    @Test
+    public void unwrittenTypeEndsTheReplay() throws IOException {
+        var spool = spool();
+        var last = records(spool).get(4);
+
+        try (var channel = FileChannel.open(spool, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[1]), last);
+        }
+
+        var html = spool.resolveSibling("index.html");
+        assertThat(ReportRebuild.render(spool, html)).isEqualTo(4);
+        assertThat(Files.readString(html)).contains("first entry");
+        assertThat(Files.readString(html)).doesNotContain("last entry");
+    }
+
+    @Test
+    public void truncatedLengthEndsTheReplay() throws IOException {
+        var spool = spool();
+        truncate(spool, records(spool).get(4) + 3);
+
+        assertThat(ReportRebuild.render(spool, spool.resolveSibling("index.html"))).isEqualTo(4);
+    }
+
+    @Test
+    public void truncatedPayloadEndsTheReplay() throws IOException {
+        var spool = spool();
+        var last = records(spool).get(4);
+        truncate(spool, last + 1 + Integer.BYTES + 6);
+
+        var html = spool.resolveSibling("index.html");
+        assertThat(ReportRebuild.render(spool, html)).isEqualTo(4);
+        assertThat(Files.readString(html)).contains("first entry");
+    }
+
+    /**
+     * @return Spool holding a test, a node and three entries, the last one being "last entry".
+     */
+    private static Path spool() throws IOException {
+        var file = Files.createTempDirectory("spool").resolve("index.spool");
+        var spool = new ReportSpool(file, true);
+
+        var test = new ExtentReports().createTest("Suite test");
+        var node = test.createNode("Node");
+        spool.test(test);
+        spool.node(test, node);
+        spool.log(node, Status.INFO, "first entry");
+        spool.markup(node, Status.PASS, "<b>second entry</b>");
+        spool.log(node, Status.FAIL, "last entry");
+        spool.close();
+
+        return file;
+    }
+
+    /**
+     * @return Offsets of the records of the spool, up to the end of the file or the first unwritten type byte.
+     */
+    private static List<Long> records(final Path spool) throws IOException {
+        var bytes = ByteBuffer.wrap(Files.readAllBytes(spool));
+        var offsets = new ArrayList<Long>();
+
+        var position = 0;
+        while (position < bytes.limit() && bytes.get(position) != 0) {
+            offsets.add((long) position);
+            position += 1 + Integer.BYTES + bytes.getInt(position + 1);
+        }
+
+        return offsets;
+    }
+
+    /**
+     * Cuts the spool file at the given size, as a partial copy would.
+     */
+    private static void truncate(final Path spool, final long size) throws IOException {
+        try (var channel = FileChannel.open(spool, StandardOpenOption.WRITE)) {
+            channel.truncate(size);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.qaitsolutions.pframe.core.extent_reporting;
+
+import com.aventstack.extentreports.ExtentReports;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+import static com.google.common.truth.Truth.assertThat;
+
+/**
+ * Tests of the tokenizer and of the removal of nodes of {@link SearchIndex}.
+ * <p>
+ *
+ * @author Iulian Andrei (iulian.andrei@qaitsolutions.com)
+ * @since 1.1
+ */
+public class SearchIndexTest {
+
+    @Test
+    public void tokenizeSkipsTagsAndEntities() {
+        assertThat(SearchIndex.tokenize("<b class='x'>Order</b> 4711&nbsp;Ok a"))
+                .containsExactly("order", "4711", "ok").inOrder();
+    }
+
+    @Test
+    public void tokenizeMatchesTheQueryPattern() {
+        var text = "x² Ⅻb ½c 42 fünf 𝐀𝐁 日本語 a_b-c";
+        var query = Pattern.compile("[\\p{L}\\p{N}]+").matcher(text.toLowerCase(Locale.ROOT));
+
+        var expected = new LinkedHashSet<String>();
+        while (query.find()) {
+            if (query.group().length() >= 2 && query.group().length() <= 40) expected.add(query.group());
+        }
+
+        assertThat(SearchIndex.tokenize(text)).containsExactlyElementsIn(expected).inOrder();
+    }
+
+    @Test
+    public void removedNodesArePurged() throws IOException {
+        var test = new ExtentReports().createTest("test");
+        var kept = test.createNode("kept");
+        var removed = test.createNode("removed");
+
+        var directory = Files.createTempDirectory("search");
+        var index = new SearchIndex(directory);
+        index.node(test, kept);
+        index.node(test, removed);
+        index.add(kept, "shared");
+        index.add(removed, "shared gone");
+        index.remove(removed);
+        index.write();
+
+        var shard = Files.readString(directory.resolve("index-" + SearchIndex.shard("shared") + ".js"));
+        assertThat(shard).contains("\"shared\":[" + kept.getModel().getId() + "]");
+
+        var gone = Files.readString(directory.resolve("index-" + SearchIndex.shard("gone") + ".js"));
+        assertThat(gone).doesNotContain("\"gone\"");
+    }
+}
@@ -0,0 +1,69 @@
+package com.qaitsolutions.pframe.core.logging;
+
+import org.testng.annotations.Test;
+
+import static com.google.common.truth.Truth.assertThat;
+
+/**
+ * Tests of the JSON and XML previews of {@link PayloadPreview}.
+ * <p>
+ *
+ * @author Iulian Andrei (iulian.andrei@qaitsolutions.com)
+ * @since 1.1
+ */
+public class PayloadPreviewTest {
+
+    private static final int LIMIT = 1_000;
+
+    @Test
+    public void jsonIsIndented() {
+        assertThat(PayloadPreview.json("{\"a\":1, \"b\":[ 1 , 2 ],\"c\":{ }}", LIMIT))
+                .isEqualTo("{\n  \"a\": 1,\n  \"b\": [\n    1,\n    2\n  ],\n  \"c\": {}\n}");
+    }
+
+    @Test
+    public void jsonStringsAreKeptAsIs() {
+        assertThat(PayloadPreview.json("{\"k\":\"a, b: {c} \\\"q\\\" ]\"}", LIMIT))
+                .isEqualTo("{\n  \"k\": \"a, b: {c} \\\"q\\\" ]\"\n}");
+    }
+
+    @Test
+    public void jsonUnbalancedBracketsDoNotIndentBelowZero() {
+        assertThat(PayloadPreview.json("]]{\"a\":1}", LIMIT)).isEqualTo("]\n]{\n  \"a\": 1\n}");
+    }
+
+    @Test
+    public void jsonIsCutAtTheLimit() {
+        assertThat(PayloadPreview.json("[1,2,3]", 6)).isEqualTo("[\n  1,");
+    }
+
+    @Test
+    public void jsonCutDoesNotSplitSurrogatePairs() {
+        assertThat(PayloadPreview.json("\"😀😀\"", 2)).isEqualTo("\"");
+        assertThat(PayloadPreview.json("\"😀😀\"", 3)).isEqualTo("\"😀");
+    }
+
+    @Test
+    public void xmlIsIndented() {
+        assertThat(PayloadPreview.xml("<?xml version=\"1.0\"?><a>\n   <b> text </b><c/>\n</a>", LIMIT))
+                .isEqualTo("<?xml version=\"1.0\"?>\n<a>\n  <b>text</b>\n  <c/>\n</a>");
+    }
+
+    @Test
+    public void xmlCommentsAndCdataMayContainMarkup() {
+        assertThat(PayloadPreview.xml("<a><!-- x > y --><![CDATA[<b>&</b>]]></a>", LIMIT))
+                .isEqualTo("<a>\n  <!-- x > y -->\n  <![CDATA[<b>&</b>]]>\n</a>");
+    }
+
+    @Test
+    public void xmlAttributeValuesMayContainGreaterThan() {
+        assertThat(PayloadPreview.xml("<a title=\"x>y\" alt='>'><b/></a>", LIMIT))
+                .isEqualTo("<a title=\"x>y\" alt='>'>\n  <b/>\n</a>");
+    }
+
+    @Test
+    public void xmlCutShortIsKept() {
+        assertThat(PayloadPreview.xml("<a><b attr=\"1", LIMIT)).isEqualTo("<a>\n  <b attr=\"1");
+        assertThat(PayloadPreview.xml("<a><!-- open", LIMIT)).isEqualTo("<a>\n  <!-- open");
+    }
+}
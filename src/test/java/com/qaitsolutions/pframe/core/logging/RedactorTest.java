@@ -0,0 +1,115 @@
+package com.qaitsolutions.pframe.core.logging;
+
+import org.testng.annotations.Test;
+
+import java.util.regex.Pattern;
+
+import static com.google.common.truth.Truth.assertThat;
+
+/**
+ * Tests of the masking and of the anchors of {@link Redactor}. Secrets are registered for the whole JVM, so every
+ * test uses values of its own.
+ * <p>
+ *
+ * @author Iulian Andrei (iulian.andrei@qaitsolutions.com)
+ * @since 1.1
+ */
+public class RedactorTest {
+
+    @Test
+    public void overlappingLiteralsAreMaskedOnce() {
+        Redactor.addSecret("k1abcdef");
+        Redactor.addSecret("cdefgh9z");
+
+        assertThat(Redactor.redact("x k1abcdefgh9z y")).isEqualTo("x **** y");
+    }
+
+    @Test
+    public void nestedLiteralsAreMaskedOnce() {
+        Redactor.addSecret("pw7secret");
+        Redactor.addSecret("pw7secret-long");
+
+        assertThat(Redactor.redact("a pw7secret-long b pw7secret c")).isEqualTo("a **** b **** c");
+    }
+
+    @Test
+    public void literalsAreCaseSensitive() {
+        Redactor.addSecret("MixedCaseTok3n");
+
+        assertThat(Redactor.redact("MixedCaseTok3n mixedcasetok3n")).isEqualTo("**** mixedcasetok3n");
+    }
+
+    @Test
+    public void nonAsciiLiteralsAreMasked() {
+        Redactor.addSecret("Straße-42ß");
+
+        assertThat(Redactor.redact("[Straße-42ß]")).isEqualTo("[****]");
+    }
+
+    @Test
+    public void literalsSharingNonAsciiCharactersAreMasked() {
+        Redactor.addSecret("ключ-β7");
+        Redactor.addSecret("β7-日本");
+
+        assertThat(Redactor.redact("a ключ-β7 b β7-日本 c β7 d")).isEqualTo("a **** b **** c β7 d");
+    }
+
+    @Test
+    public void anchorsMatchIgnoringCase() {
+        Redactor.addPattern(Pattern.compile("sessionkey=(\\w+)", Pattern.CASE_INSENSITIVE));
+
+        assertThat(Redactor.redact("SessionKey=abc123; next")).isEqualTo("SessionKey=****; next");
+    }
+
+    @Test
+    public void inlineCommentsModePatternsAreMasked() {
+        Redactor.addPattern(Pattern.compile("(?x) xsecret \\s*=\\s* (\\w+)  # the value"));
+
+        assertThat(Redactor.redact("xsecret=abc")).isEqualTo("xsecret=****");
+    }
+
+    @Test
+    public void commentsFlagPatternsAreMasked() {
+        Redactor.addPattern(Pattern.compile("ysecret \\s* = \\s* (\\w+)", Pattern.COMMENTS));
+
+        assertThat(Redactor.redact("ysecret = abc")).isEqualTo("ysecret = ****");
+    }
+
+    @Test
+    public void explicitAnchorsMatchIgnoringCase() {
+        Redactor.addPattern(Pattern.compile("\\b4\\d{3}(?: \\d{4}){3}\\b"), "VISA:");
+
+        assertThat(Redactor.redact("visa: 4111 1111 1111 1111")).isEqualTo("visa: ****");
+        assertThat(Redactor.redact("card 4111 1111 1111 1111")).isEqualTo("card 4111 1111 1111 1111");
+    }
+
+    @Test
+    public void messagesWithoutSecretsAreReturnedAsIs() {
+        var message = "nothing to hide here";
+
+        assertThat(Redactor.redact(message)).isSameInstanceAs(message);
+        assertThat(Redactor.redact(null)).isNull();
+    }
+
+    @Test
+    public void anchorIsTheLongestLiteralRun() {
+        assertThat(Redactor.anchor("password=(\\S+)")).isEqualTo("password=");
+        assertThat(Redactor.anchor("api[_-]key: (\\w+)")).isEqualTo("key: ");
+        assertThat(Redactor.anchor("(?:ab|cd)xyz")).isEqualTo("xyz");
+        assertThat(Redactor.anchor("\\$\\{secret\\}")).isEqualTo("${secret}");
+    }
+
+    @Test
+    public void anchorSkipsOptionalCharacters() {
+        assertThat(Redactor.anchor("colou?rs")).isEqualTo("colo");
+        assertThat(Redactor.anchor("abcd*ef")).isEqualTo("abc");
+        assertThat(Redactor.anchor("tokens{0,2}x")).isEqualTo("token");
+    }
+
+    @Test
+    public void anchorIsNullWithoutLiteralRun() {
+        assertThat(Redactor.anchor("secret|token")).isNull();
+        assertThat(Redactor.anchor("\\d{4}-\\d{4}")).isNull();
+        assertThat(Redactor.anchor("ab(cdef)")).isNull();
+    }
+}